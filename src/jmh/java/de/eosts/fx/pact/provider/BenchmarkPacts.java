@@ -0,0 +1,91 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Generates synthetic pacts for the benchmarks. Interaction <code>i</code> has
+ * the provider state <code>state-(i % states)</code>, the description
+ * <code>description-i</code> and requests <code>/entity/i</code> expecting the
+ * body served by {@link EntityController}.
+ */
+public class BenchmarkPacts {
+
+    private BenchmarkPacts() {
+        // Not intended to instantiate utility class
+    }
+
+    /**
+     * Creates the JSON of a pact with the given number of interactions.
+     *
+     * @param interactions The number of interactions.
+     * @param states       The number of distinct provider states.
+     * @return The pact as JSON.
+     */
+    public static String pactJson(int interactions, int states) {
+        StringBuilder sb = new StringBuilder(
+                "{\"provider\": {\"name\": \"provider\"},\"consumer\": {\"name\": \"consumer\"},\"interactions\": [");
+        for (int i = 0; i < interactions; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"description\": \"description-").append(i).append("\",");
+            sb.append("\"providerState\": \"state-").append(i % states).append("\",");
+            sb.append("\"request\": {\"method\": \"GET\",\"path\": \"/entity/").append(i).append("\",");
+            sb.append("\"query\": {\"expand\": [\"all\"],\"page\": [\"1\"]},");
+            sb.append("\"headers\": {\"Accept\": \"application/json\"}},");
+            sb.append("\"response\": {\"status\": 200,");
+            sb.append("\"headers\": {\"Content-Type\": \"application/json;charset=UTF-8\"},");
+            sb.append("\"body\": {\"id\": ").append(i).append(",\"name\": \"entity\",\"tags\": [\"a\", \"b\"]}}}");
+        }
+        sb.append("],\"metadata\": {\"pact-specification\": {\"version\": \"3.0.0\"}}}");
+        return sb.toString();
+    }
+
+    /**
+     * Parses a pact with the given number of interactions.
+     *
+     * @param interactions The number of interactions.
+     * @param states       The number of distinct provider states.
+     * @return The parsed {@link Pact}.
+     */
+    public static Pact pact(int interactions, int states) {
+        return PactLoader.loadPactGeneric(pactJson(interactions, states));
+    }
+
+    /**
+     * Writes a pact with the given number of interactions to a new file in
+     * the given folder.
+     *
+     * @param folder       The folder to write the pact to.
+     * @param interactions The number of interactions.
+     * @return The written file.
+     * @throws IOException In case the file cannot be written.
+     */
+    public static File writePact(File folder, int interactions) throws IOException {
+        File file = File.createTempFile("pact", ".json", folder);
+        Files.write(file.toPath(), pactJson(interactions, 1).getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * A trivial controller serving the bodies expected by the generated pacts.
+     */
+    @Controller
+    public static class EntityController {
+
+        @RequestMapping(value = "/entity/{id}", produces = "application/json;charset=UTF-8")
+        @ResponseBody
+        public String entity(@PathVariable("id") String id) {
+            return "{\"id\": " + id + ",\"name\": \"entity\",\"tags\": [\"a\", \"b\"]}";
+        }
+    }
+}
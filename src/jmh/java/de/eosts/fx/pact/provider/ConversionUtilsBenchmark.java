@@ -0,0 +1,46 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the lookup of the interactions of a provider state over large
+ * interaction counts, by a linear scan with
+ * {@link ConversionUtils#getInteractions(java.util.stream.Stream, Optional, Optional)}
+ * and through the {@link InteractionIndex}.
+ */
+@State(Scope.Benchmark)
+public class ConversionUtilsBenchmark {
+
+    @Param({ "100", "10000" })
+    public int interactions;
+
+    private List<Pact> pacts;
+    private Optional<String> state;
+
+    @Setup
+    public void loadPacts() {
+        pacts = Collections.singletonList(BenchmarkPacts.pact(interactions, 50));
+        state = Optional.of("STATE-7");
+    }
+
+    @Benchmark
+    public List<Interaction> getInteractions() {
+        return ConversionUtils.getInteractions(pacts.stream(), state, Optional.empty()).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Interaction> findInIndex() {
+        return InteractionIndex.of(pacts).find(Optional.empty(), Optional.empty(), state, Optional.empty());
+    }
+}
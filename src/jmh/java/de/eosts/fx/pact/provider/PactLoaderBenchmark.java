@@ -0,0 +1,59 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Measures {@link PactLoader#loadPactsByFile(File, boolean, boolean)} on a
+ * folder of small or large pacts, with and without the {@link PactCache}.
+ */
+@State(Scope.Benchmark)
+public class PactLoaderBenchmark {
+
+    @Param({ "1", "1000" })
+    public int interactions;
+
+    @Param({ "10" })
+    public int files;
+
+    private File folder;
+
+    @Setup(Level.Trial)
+    public void writePacts() throws IOException {
+        folder = Files.createTempDirectory("pacts").toFile();
+        for (int i = 0; i < files; i++) {
+            BenchmarkPacts.writePact(folder, interactions);
+        }
+        PactLoader.cache().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void deletePacts() {
+        for (File file : folder.listFiles()) {
+            file.delete();
+        }
+        folder.delete();
+        PactLoader.cache().clear();
+    }
+
+    @Benchmark
+    public List<Pact> loadPactsByFile() {
+        return PactLoader.loadPactsByFile(folder, false, false);
+    }
+
+    @Benchmark
+    public List<Pact> loadPactsByFileCached() {
+        return PactLoader.loadPactsByFile(folder, false, true);
+    }
+}
@@ -0,0 +1,81 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.Set;
+
+/**
+ * Measures the creation of the response matchers and a complete
+ * {@link PactTestRunner#run()} against a trivial standalone controller, once
+ * performed by the {@link org.springframework.test.web.servlet.MockMvc} and
+ * once by the {@link DirectRequestExecutor}.
+ */
+@State(Scope.Benchmark)
+public class PactTestRunnerBenchmark {
+
+    @Param({ "1", "20" })
+    public int interactionsPerState;
+
+    private PactTestRunner runner;
+    private PactTestRunner directRunner;
+    private AnnotationConfigWebApplicationContext context;
+    private Interaction interaction;
+
+    @Setup
+    public void setUp() {
+        Pact pact = BenchmarkPacts.pact(interactionsPerState, 1);
+        interaction = pact.getInteractions().get(0);
+        runner = new PactTestRunner(pact).providerState("state-0")
+                .mockMvc(MockMvcBuilders.standaloneSetup(new BenchmarkPacts.EntityController()).build());
+
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(WebConfig.class);
+        context.refresh();
+        directRunner = new PactTestRunner(pact).providerState("state-0")
+                .requestExecutor(new DirectRequestExecutor(context));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Set<ResultMatcher> responseMatchers() {
+        return runner.responseMatchers(interaction);
+    }
+
+    @Benchmark
+    public void run() throws Throwable {
+        runner.run();
+    }
+
+    @Benchmark
+    public void runDirect() throws Throwable {
+        directRunner.run();
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class WebConfig {
+        @Bean
+        BenchmarkPacts.EntityController entityController() {
+            return new BenchmarkPacts.EntityController();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Optional;
+
+/**
+ * Measures {@link RequestBuilder#buildRequest(Interaction)} for an interaction
+ * with path, query and headers.
+ */
+@State(Scope.Benchmark)
+public class RequestBuilderBenchmark {
+
+    private Interaction interaction;
+
+    @Setup
+    public void loadInteraction() {
+        interaction = BenchmarkPacts.pact(1, 1).getInteractions().get(0);
+    }
+
+    @Benchmark
+    public Optional<MockHttpServletRequestBuilder> buildRequest() {
+        return RequestBuilder.buildRequest(interaction);
+    }
+}
@@ -0,0 +1,24 @@
+package de.eosts.fx.pact.provider;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Creates the {@link ResultMatcher} comparing the response body with the
+ * expected body of an interaction. The comparators are registered per content
+ * type at {@link BodyComparators} and chosen by the expected
+ * <code>Content-Type</code> header of the response.
+ */
+@FunctionalInterface
+public interface BodyComparator {
+
+    /**
+     * Creates the {@link ResultMatcher} for the given expected body. The
+     * matcher is created once per interaction and may be used by several
+     * threads at once.
+     *
+     * @param expectedBody The expected body.
+     * @param rules        The compiled matching rules of the response.
+     * @return The {@link ResultMatcher} comparing the response body.
+     */
+    ResultMatcher matcher(String expectedBody, CompiledMatchingRules rules);
+}
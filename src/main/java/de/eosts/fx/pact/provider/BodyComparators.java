@@ -0,0 +1,96 @@
+package de.eosts.fx.pact.provider;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The JVM wide registry of the {@link BodyComparator}s per content type. By
+ * default
+ * <ul>
+ * <li><code>application/json</code> and <code>application/*+json</code> are
+ * compared by the {@link JsonBodyMatcher},</li>
+ * <li><code>application/xml</code>, <code>text/xml</code> and
+ * <code>application/*+xml</code> by the {@link XmlBodyMatcher},</li>
+ * <li><code>application/x-www-form-urlencoded</code> by the
+ * {@link FormBodyMatcher} and</li>
+ * <li>all other content types (e.g. <code>text/plain</code>,
+ * <code>text/csv</code> or binary types) by the {@link TextBodyMatcher}.</li>
+ * </ul>
+ * Responses without an expected <code>Content-Type</code> are compared as JSON.
+ * All of them apply the body matching rules of the response.
+ * <br>
+ * The most specific registered content type including the expected one is
+ * chosen, the latest registration wins between equally specific ones. As the
+ * matchers are part of the cached {@link VerificationPlan}s, comparators must
+ * be registered before the first interaction is verified.
+ */
+public class BodyComparators {
+
+    private static final List<Registration> REGISTRATIONS = new CopyOnWriteArrayList<>();
+
+    private static final BodyComparator JSON = JsonBodyMatcher::new;
+
+    static {
+        register("*/*", TextBodyMatcher::new);
+        register(MediaType.APPLICATION_FORM_URLENCODED_VALUE, FormBodyMatcher::new);
+        register("application/*+xml", XmlBodyMatcher::new);
+        register(MediaType.APPLICATION_XML_VALUE, XmlBodyMatcher::new);
+        register(MediaType.TEXT_XML_VALUE, XmlBodyMatcher::new);
+        register("application/*+json", JSON);
+        register(MediaType.APPLICATION_JSON_VALUE, JSON);
+    }
+
+    private BodyComparators() {
+        // Not intended to instantiate utility class
+    }
+
+    /**
+     * Registers the {@link BodyComparator} for the given content type, which
+     * may contain wildcards like <code>text/*</code> or
+     * <code>application/*+json</code>.
+     *
+     * @param contentType The content type.
+     * @param comparator  The {@link BodyComparator} for the content type.
+     * @throws InvalidMediaTypeException If the content type can't be parsed.
+     */
+    public static void register(String contentType, BodyComparator comparator) {
+        REGISTRATIONS.add(0, new Registration(MediaType.parseMediaType(contentType), comparator));
+    }
+
+    /**
+     * Returns the {@link BodyComparator} for the given expected content type.
+     *
+     * @param contentType The expected content type or <code>null</code> if the
+     *                    response doesn't define one.
+     * @return The {@link BodyComparator} to use.
+     * @throws InvalidMediaTypeException If the content type can't be parsed.
+     */
+    public static BodyComparator forContentType(String contentType) {
+        if (contentType == null || contentType.trim().isEmpty()) {
+            return JSON;
+        }
+
+        MediaType type = MediaType.parseMediaType(contentType);
+        Registration best = null;
+        for (Registration registration : REGISTRATIONS) {
+            if (registration.type.includes(type)
+                    && (best == null || MediaType.SPECIFICITY_COMPARATOR.compare(registration.type, best.type) < 0)) {
+                best = registration;
+            }
+        }
+        return best == null ? JSON : best.comparator;
+    }
+
+    private static final class Registration {
+        private final MediaType type;
+        private final BodyComparator comparator;
+
+        private Registration(MediaType type, BodyComparator comparator) {
+            this.type = type;
+            this.comparator = comparator;
+        }
+    }
+}
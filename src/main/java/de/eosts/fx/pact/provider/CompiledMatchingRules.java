@@ -0,0 +1,354 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.matchingrules.Category;
+import au.com.dius.pact.model.matchingrules.DateMatcher;
+import au.com.dius.pact.model.matchingrules.EqualsMatcher;
+import au.com.dius.pact.model.matchingrules.IncludeMatcher;
+import au.com.dius.pact.model.matchingrules.MatchingRule;
+import au.com.dius.pact.model.matchingrules.MatchingRuleGroup;
+import au.com.dius.pact.model.matchingrules.MatchingRules;
+import au.com.dius.pact.model.matchingrules.MaxTypeMatcher;
+import au.com.dius.pact.model.matchingrules.MinMaxTypeMatcher;
+import au.com.dius.pact.model.matchingrules.MinTypeMatcher;
+import au.com.dius.pact.model.matchingrules.NullMatcher;
+import au.com.dius.pact.model.matchingrules.NumberTypeMatcher;
+import au.com.dius.pact.model.matchingrules.RegexMatcher;
+import au.com.dius.pact.model.matchingrules.RuleLogic;
+import au.com.dius.pact.model.matchingrules.TimeMatcher;
+import au.com.dius.pact.model.matchingrules.TimestampMatcher;
+import au.com.dius.pact.model.matchingrules.TypeMatcher;
+import com.google.gson.stream.JsonToken;
+import org.apache.commons.lang3.time.FastDateFormat;
+
+import java.text.ParsePosition;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+
+/**
+ * The V2 / V3 matching rules of a pact {@link au.com.dius.pact.model.Response}
+ * compiled for verification. Body rules are resolved by the path of a value
+ * within the JSON body, header rules by the header name.
+ * <br>
+ * Path selectors like <code>$.items[*].id</code>, regular expressions and
+ * date / time formats are compiled once per JVM and shared by all interactions
+ * using them.
+ * <br>
+ * Like in pact-jvm, a body rule also applies to all values below the selected
+ * path and the most specific selector wins.
+ */
+public class CompiledMatchingRules {
+
+    /**
+     * An instance without any rules.
+     */
+    public static final CompiledMatchingRules NONE = new CompiledMatchingRules(null);
+
+    private static final Map<String, Selector> SELECTORS = new ConcurrentHashMap<>();
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+    private static final Map<String, FastDateFormat> FORMATTERS = new ConcurrentHashMap<>();
+
+    private final List<Selector> bodySelectors = newArrayList();
+    private final List<RuleGroup> bodyRules = newArrayList();
+    private final Map<String, RuleGroup> headerRules = newHashMap();
+
+    private CompiledMatchingRules(MatchingRules matchingRules) {
+        if (matchingRules == null || matchingRules.isEmpty()) {
+            return;
+        }
+
+        Category body = matchingRules.rulesForCategory("body");
+        if (body != null) {
+            body.getMatchingRules().forEach((path, group) -> {
+                bodySelectors.add(SELECTORS.computeIfAbsent(path, Selector::new));
+                bodyRules.add(new RuleGroup(group));
+            });
+        }
+
+        Category header = matchingRules.rulesForCategory("header");
+        if (header != null) {
+            header.getMatchingRules()
+                    .forEach((name, group) -> headerRules.put(name.toLowerCase(Locale.ROOT), new RuleGroup(group)));
+        }
+    }
+
+    /**
+     * Compiles the given {@link MatchingRules}.
+     *
+     * @param matchingRules The rules to compile, may be <code>null</code>.
+     * @return The compiled rules.
+     */
+    public static CompiledMatchingRules of(MatchingRules matchingRules) {
+        if (matchingRules == null || matchingRules.isEmpty()) {
+            return NONE;
+        }
+        return new CompiledMatchingRules(matchingRules);
+    }
+
+    /**
+     * Whether there are any body rules.
+     *
+     * @return <code>true</code> if there is at least one body rule.
+     */
+    public boolean hasBodyRules() {
+        return !bodyRules.isEmpty();
+    }
+
+    /**
+     * Resolves the rules applying to the body value at the given path. The
+     * path consists of {@link String} field names and {@link Integer} array
+     * indices below the root.
+     *
+     * @param path The path of the value.
+     * @return The applying rules or <code>null</code> if there are none.
+     */
+    public RuleGroup forBodyPath(List<Object> path) {
+        RuleGroup best = null;
+        int bestWeight = 0;
+        for (int i = 0; i < bodySelectors.size(); i++) {
+            int weight = bodySelectors.get(i).weight(path);
+            if (weight > bestWeight) {
+                best = bodyRules.get(i);
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Resolves the rules applying to the given header.
+     *
+     * @param name The header name, compared ignoring case.
+     * @return The applying rules or <code>null</code> if there are none.
+     */
+    public RuleGroup forHeader(String name) {
+        return headerRules.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * A compiled JSON path selector like <code>$.a.b[*]['c d']</code>.
+     */
+    private static final class Selector {
+        private static final String WILDCARD = "*";
+
+        private final List<Object> tokens = newArrayList();
+
+        private Selector(String expression) {
+            int i = expression.startsWith("$") ? 1 : 0;
+            while (i < expression.length()) {
+                char c = expression.charAt(i);
+                if (c == '.') {
+                    int end = i + 1;
+                    while (end < expression.length() && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+                        end++;
+                    }
+                    tokens.add(expression.substring(i + 1, end));
+                    i = end;
+                } else if (c == '[') {
+                    int end = expression.indexOf(']', i);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Invalid matching rule path: " + expression);
+                    }
+                    String token = expression.substring(i + 1, end).trim();
+                    if (token.startsWith("'") && token.endsWith("'") && token.length() >= 2) {
+                        tokens.add(token.substring(1, token.length() - 1));
+                    } else if (WILDCARD.equals(token)) {
+                        tokens.add(WILDCARD);
+                    } else {
+                        tokens.add(Integer.valueOf(token));
+                    }
+                    i = end + 1;
+                } else {
+                    throw new IllegalArgumentException("Invalid matching rule path: " + expression);
+                }
+            }
+        }
+
+        /**
+         * Weight of this selector for the given path like pact-jvm computes it:
+         * 0 if it doesn't select the path, the higher the more specific.
+         */
+        private int weight(List<Object> path) {
+            if (tokens.size() > path.size()) {
+                return 0;
+            }
+
+            int weight = 2;
+            for (int i = 0; i < tokens.size(); i++) {
+                Object token = tokens.get(i);
+                Object segment = path.get(i);
+                if (token.equals(segment)) {
+                    weight *= 2;
+                } else if (!WILDCARD.equals(token)) {
+                    return 0;
+                }
+            }
+            return weight;
+        }
+    }
+
+    /**
+     * A compiled group of rules combined by AND or OR.
+     */
+    public static final class RuleGroup {
+        private final List<ValueRule> rules;
+        private final boolean and;
+        private final boolean typeBased;
+        private final int min;
+        private final int max;
+
+        private RuleGroup(MatchingRuleGroup group) {
+            this.and = group.getRuleLogic() != RuleLogic.OR;
+            this.rules = group.getRules().stream().map(RuleGroup::compile).collect(Collectors.toList());
+
+            boolean type = false;
+            int min = 0;
+            int max = Integer.MAX_VALUE;
+            for (MatchingRule rule : group.getRules()) {
+                if (rule instanceof TypeMatcher) {
+                    type = true;
+                } else if (rule instanceof MinTypeMatcher) {
+                    type = true;
+                    min = ((MinTypeMatcher) rule).getMin();
+                } else if (rule instanceof MaxTypeMatcher) {
+                    type = true;
+                    max = ((MaxTypeMatcher) rule).getMax();
+                } else if (rule instanceof MinMaxTypeMatcher) {
+                    type = true;
+                    min = ((MinMaxTypeMatcher) rule).getMin();
+                    max = ((MinMaxTypeMatcher) rule).getMax();
+                }
+            }
+            this.typeBased = type;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Whether the group matches by type, so arrays are compared against
+         * the first expected element as template.
+         *
+         * @return <code>true</code> for type based rules.
+         */
+        public boolean isTypeBased() {
+            return typeBased;
+        }
+
+        /**
+         * Checks the size of an array against min / max type rules.
+         *
+         * @param size The size of the actual array.
+         * @return A description of the mismatch or <code>null</code> if it matches.
+         */
+        public String checkSize(int size) {
+            if (size < min) {
+                return "Expected at least " + min + " array elements but was " + size;
+            }
+            if (size > max) {
+                return "Expected at most " + max + " array elements but was " + size;
+            }
+            return null;
+        }
+
+        /**
+         * Checks a value against the rules of this group.
+         *
+         * @param expected The kind of the expected value.
+         * @param kind     The kind of the actual value.
+         * @param value    The textual representation of the actual value.
+         * @param equal    Whether the actual value equals the expected one.
+         * @return A description of the mismatch or <code>null</code> if it matches.
+         */
+        public String check(JsonToken expected, JsonToken kind, String value, boolean equal) {
+            String firstFailure = null;
+            for (ValueRule rule : rules) {
+                String failure = rule.check(expected, kind, value, equal);
+                if (failure == null && !and) {
+                    return null;
+                }
+                if (failure != null) {
+                    if (and) {
+                        return failure;
+                    }
+                    firstFailure = firstFailure == null ? failure : firstFailure;
+                }
+            }
+            return rules.isEmpty() ? null : firstFailure;
+        }
+
+        private static ValueRule compile(MatchingRule rule) {
+            if (rule instanceof RegexMatcher) {
+                Pattern pattern = PATTERNS.computeIfAbsent(((RegexMatcher) rule).getRegex(), Pattern::compile);
+                return (expected, kind, value, equal) -> value != null && pattern.matcher(value).matches() ? null
+                        : "Expected " + describe(value) + " to match '" + pattern + "'";
+            } else if (rule instanceof TypeMatcher || rule instanceof MinTypeMatcher || rule instanceof MaxTypeMatcher
+                    || rule instanceof MinMaxTypeMatcher) {
+                return (expected, kind, value, equal) -> expected == kind ? null
+                        : "Expected a value of type " + expected + " but was " + kind;
+            } else if (rule instanceof NumberTypeMatcher) {
+                NumberTypeMatcher.NumberType type = ((NumberTypeMatcher) rule).getNumberType();
+                return (expected, kind, value, equal) -> {
+                    boolean decimal = value != null && (value.indexOf('.') >= 0 || value.indexOf('e') >= 0
+                            || value.indexOf('E') >= 0);
+                    boolean matches = kind == JsonToken.NUMBER
+                            && (type == NumberTypeMatcher.NumberType.NUMBER
+                            || (type == NumberTypeMatcher.NumberType.INTEGER) != decimal);
+                    return matches ? null : "Expected " + describe(value) + " to be of number type " + type;
+                };
+            } else if (rule instanceof IncludeMatcher) {
+                String include = ((IncludeMatcher) rule).getValue();
+                return (expected, kind, value, equal) -> value != null && value.contains(include) ? null
+                        : "Expected " + describe(value) + " to include '" + include + "'";
+            } else if (rule instanceof DateMatcher) {
+                return formatRule(((DateMatcher) rule).getFormat());
+            } else if (rule instanceof TimeMatcher) {
+                return formatRule(((TimeMatcher) rule).getFormat());
+            } else if (rule instanceof TimestampMatcher) {
+                return formatRule(((TimestampMatcher) rule).getFormat());
+            } else if (rule instanceof NullMatcher) {
+                return (expected, kind, value, equal) -> kind == JsonToken.NULL ? null
+                        : "Expected null but was " + describe(value);
+            } else if (rule instanceof EqualsMatcher) {
+                return (expected, kind, value, equal) -> equal ? null : "Expected an equal value but was " + describe(value);
+            }
+            // Unknown rules only affect their own path, which is compared by equality
+            return (expected, kind, value, equal) -> equal ? null
+                    : "Expected an equal value (unsupported matching rule " + rule + ") but was " + describe(value);
+        }
+
+        /**
+         * Date, time and timestamp formats follow {@link java.text.SimpleDateFormat}
+         * like in pact-jvm, the whole value has to be parsed.
+         */
+        private static ValueRule formatRule(String format) {
+            FastDateFormat formatter = FORMATTERS.computeIfAbsent(format, FastDateFormat::getInstance);
+            return (expected, kind, value, equal) -> {
+                if (value != null) {
+                    ParsePosition position = new ParsePosition(0);
+                    if (formatter.parse(value, position) != null && position.getIndex() == value.length()) {
+                        return null;
+                    }
+                }
+                return "Expected " + describe(value) + " to match the format '" + format + "'";
+            };
+        }
+
+        private static String describe(String value) {
+            return value == null ? "null" : "'" + value + "'";
+        }
+    }
+
+    /**
+     * A single compiled rule.
+     */
+    @FunctionalInterface
+    private interface ValueRule {
+        String check(JsonToken expected, JsonToken kind, String value, boolean equal);
+    }
+}
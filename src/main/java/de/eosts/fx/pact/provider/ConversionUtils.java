@@ -2,8 +2,11 @@ package de.eosts.fx.pact.provider;
 
 import au.com.dius.pact.model.Interaction;
 import au.com.dius.pact.model.Pact;
+import au.com.dius.pact.model.ProviderState;
 
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -36,4 +39,45 @@ public class ConversionUtils {
                 .filter(interaction -> providerState.map(expectedState -> expectedState.equalsIgnoreCase(interaction.getProviderState())).orElse(true))
                 .filter(interaction -> interactionDescription.map(expectedDesc -> expectedDesc.equalsIgnoreCase(interaction.getDescription())).orElse(true));
     }
+
+    /**
+     * Returns the (first) provider state of the given {@link Interaction}.
+     * {@link Interaction#getProviderState()} is deprecated in favour of the
+     * V3 provider states, but still the one to compare single states by.
+     *
+     * @param interaction The {@link Interaction}.
+     * @return The provider state or <code>null</code> if there is none.
+     */
+    @SuppressWarnings("deprecation")
+    public static String providerState(Interaction interaction) {
+        return interaction.getProviderState();
+    }
+
+    /**
+     * Returns the names of all provider states of the given
+     * {@link Interaction}, separated by <code>|</code>.
+     *
+     * @param interaction The {@link Interaction}.
+     * @return The provider states, empty if there are none.
+     */
+    public static String providerStates(Interaction interaction) {
+        return interaction.getProviderStates().stream().map(ProviderState::getName)
+                .map(Objects::toString).collect(Collectors.joining("|"));
+    }
+
+    /**
+     * Creates a readable name of the given {@link Interaction}, used to report
+     * the verification of the interaction, in the form
+     * <code>consumer - description [provider state]</code>.
+     *
+     * @param pact        The {@link Pact} containing the interaction.
+     * @param interaction The {@link Interaction}.
+     * @return The name of the interaction.
+     */
+    public static String displayName(Pact pact, Interaction interaction) {
+        String consumer = pact.getConsumer() == null ? null : pact.getConsumer().getName();
+        String state = providerState(interaction);
+        return consumer + " - " + interaction.getDescription()
+                + (state == null || state.isEmpty() ? "" : " [" + state + "]");
+    }
 }
@@ -0,0 +1,219 @@
+package de.eosts.fx.pact.provider;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultHandler;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import javax.servlet.Filter;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * A {@link RequestExecutor} dispatching the requests directly to a
+ * {@link DispatcherServlet} through the given {@link Filter}s, bypassing the
+ * {@link org.springframework.test.web.servlet.MockMvc}. The filter chain is
+ * recycled per thread and the {@link MvcResult} is also the
+ * {@link ResultActions}, so a request allocates little more than the mock
+ * request and response themselves. This reduces the garbage of benchmark and
+ * replay loops verifying the same interactions over and over again.
+ * <br>
+ * The response and the {@link MvcResult} are the same as with the
+ * {@link org.springframework.test.web.servlet.MockMvc}: the handler, its
+ * interceptors, the rendered model and view and the resolved exception are
+ * recorded by the {@link DispatcherServlet} like the
+ * <code>TestDispatcherServlet</code> does. Asynchronous requests are not
+ * supported.
+ * The mock request and response are not pooled, as they can't be reset
+ * completely (e.g. the writer of the response keeps its charset).
+ */
+public class DirectRequestExecutor implements RequestExecutor {
+
+    private final ServletContext servletContext;
+    private final DispatcherServlet servlet;
+    private final ThreadLocal<MockFilterChain> filterChains;
+
+    /**
+     * Creates a {@link DirectRequestExecutor} for the given context. A new
+     * {@link DispatcherServlet} is initialized for the context.
+     *
+     * @param context The {@link WebApplicationContext} of the controllers,
+     *                its {@link ServletContext} must be set.
+     * @param filters The {@link Filter}s to apply to each request.
+     * @throws IllegalStateException If the {@link DispatcherServlet} can't be
+     *                               initialized.
+     */
+    public DirectRequestExecutor(WebApplicationContext context, Filter... filters) {
+        this.servletContext = context.getServletContext();
+        if (servletContext == null) {
+            throw new IllegalStateException("The WebApplicationContext has no ServletContext");
+        }
+
+        this.servlet = new RecordingDispatcherServlet(context);
+        try {
+            servlet.init(new MockServletConfig(servletContext));
+        } catch (ServletException e) {
+            throw new IllegalStateException("Cannot initialize the DispatcherServlet", e);
+        }
+        this.filterChains = ThreadLocal.withInitial(() -> new MockFilterChain(servlet, filters));
+    }
+
+    @Override
+    public ResultActions perform(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MockHttpServletRequest request = requestBuilder.postProcessRequest(requestBuilder.buildRequest(servletContext));
+        // Let asynchronous handlers start, so they are reported below
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Result result = new Result(request, response);
+
+        RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        MockFilterChain filterChain = filterChains.get();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            filterChain.reset();
+            RequestContextHolder.setRequestAttributes(previousAttributes);
+        }
+
+        if (request.isAsyncStarted()) {
+            throw new IllegalStateException("Asynchronous requests are not supported by the DirectRequestExecutor");
+        }
+        return result;
+    }
+
+    /**
+     * A {@link DispatcherServlet} recording the handler, interceptors, model
+     * and view and the resolved exception of a request in request attributes.
+     */
+    private static final class RecordingDispatcherServlet extends DispatcherServlet {
+        private static final long serialVersionUID = 1L;
+
+        private static final String HANDLER_ATTRIBUTE = RecordingDispatcherServlet.class.getName() + ".HANDLER";
+        private static final String INTERCEPTORS_ATTRIBUTE = RecordingDispatcherServlet.class.getName()
+                + ".INTERCEPTORS";
+        private static final String MODEL_AND_VIEW_ATTRIBUTE = RecordingDispatcherServlet.class.getName()
+                + ".MODEL_AND_VIEW";
+        private static final String RESOLVED_EXCEPTION_ATTRIBUTE = RecordingDispatcherServlet.class.getName()
+                + ".RESOLVED_EXCEPTION";
+
+        private RecordingDispatcherServlet(WebApplicationContext context) {
+            super(context);
+        }
+
+        @Override
+        protected HandlerExecutionChain getHandler(HttpServletRequest request) throws Exception {
+            HandlerExecutionChain chain = super.getHandler(request);
+            if (chain != null) {
+                request.setAttribute(HANDLER_ATTRIBUTE, chain.getHandler());
+                request.setAttribute(INTERCEPTORS_ATTRIBUTE, chain.getInterceptors());
+            }
+            return chain;
+        }
+
+        @Override
+        protected void render(ModelAndView mv, HttpServletRequest request, HttpServletResponse response)
+                throws Exception {
+            request.setAttribute(MODEL_AND_VIEW_ATTRIBUTE, mv);
+            super.render(mv, request, response);
+        }
+
+        @Override
+        protected ModelAndView processHandlerException(HttpServletRequest request, HttpServletResponse response,
+                Object handler, Exception ex) throws Exception {
+            ModelAndView mav = super.processHandlerException(request, response, handler, ex);
+            // Only reached if a resolver handled the exception, otherwise it is rethrown
+            request.setAttribute(RESOLVED_EXCEPTION_ATTRIBUTE, ex);
+            return mav;
+        }
+    }
+
+    private static final class Result implements MvcResult, ResultActions {
+        private final MockHttpServletRequest request;
+        private final MockHttpServletResponse response;
+
+        private Result(MockHttpServletRequest request, MockHttpServletResponse response) {
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public ResultActions andExpect(ResultMatcher matcher) throws Exception {
+            matcher.match(this);
+            return this;
+        }
+
+        @Override
+        public ResultActions andDo(ResultHandler handler) throws Exception {
+            handler.handle(this);
+            return this;
+        }
+
+        @Override
+        public MvcResult andReturn() {
+            return this;
+        }
+
+        @Override
+        public MockHttpServletRequest getRequest() {
+            return request;
+        }
+
+        @Override
+        public MockHttpServletResponse getResponse() {
+            return response;
+        }
+
+        @Override
+        public Object getHandler() {
+            return request.getAttribute(RecordingDispatcherServlet.HANDLER_ATTRIBUTE);
+        }
+
+        @Override
+        public HandlerInterceptor[] getInterceptors() {
+            return (HandlerInterceptor[]) request.getAttribute(RecordingDispatcherServlet.INTERCEPTORS_ATTRIBUTE);
+        }
+
+        @Override
+        public ModelAndView getModelAndView() {
+            return (ModelAndView) request.getAttribute(RecordingDispatcherServlet.MODEL_AND_VIEW_ATTRIBUTE);
+        }
+
+        @Override
+        public Exception getResolvedException() {
+            return (Exception) request.getAttribute(RecordingDispatcherServlet.RESOLVED_EXCEPTION_ATTRIBUTE);
+        }
+
+        @Override
+        public FlashMap getFlashMap() {
+            return RequestContextUtils.getOutputFlashMap(request);
+        }
+
+        @Override
+        public Object getAsyncResult() {
+            return getAsyncResult(-1);
+        }
+
+        @Override
+        public Object getAsyncResult(long timeToWait) {
+            throw new IllegalStateException("Asynchronous requests are not supported by the DirectRequestExecutor");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package de.eosts.fx.pact.provider;
+
+import com.google.gson.stream.JsonToken;
+import de.eosts.fx.pact.provider.CompiledMatchingRules.RuleGroup;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * A {@link ResultMatcher} comparing an <code>application/x-www-form-urlencoded</code>
+ * response body with an expected one field by field. The order of the fields
+ * doesn't matter, but the values of a field repeated several times must be in
+ * the same order. The expected fields are decoded once when the matcher is
+ * created.
+ * <br>
+ * The values of a field selected by a body matching rule like
+ * <code>$.name</code> are checked against the rule instead. A type based rule
+ * also allows a different number of values within its bounds.
+ */
+public class FormBodyMatcher implements ResultMatcher {
+
+    private static final String CHARSET = "UTF-8";
+
+    private final String expectedBody;
+    private final Map<String, List<String>> expected;
+    private final CompiledMatchingRules rules;
+
+    /**
+     * Creates a {@link FormBodyMatcher} for the given expected form body.
+     *
+     * @param expectedBody The expected form body.
+     * @throws IllegalArgumentException If the expected body can't be decoded.
+     */
+    public FormBodyMatcher(String expectedBody) {
+        this(expectedBody, CompiledMatchingRules.NONE);
+    }
+
+    /**
+     * Creates a {@link FormBodyMatcher} for the given expected form body
+     * applying the body rules of the given {@link CompiledMatchingRules} to
+     * the fields.
+     *
+     * @param expectedBody The expected form body.
+     * @param rules        The compiled matching rules of the response.
+     * @throws IllegalArgumentException If the expected body can't be decoded.
+     */
+    public FormBodyMatcher(String expectedBody, CompiledMatchingRules rules) {
+        this.expectedBody = expectedBody;
+        this.expected = parse(expectedBody, CHARSET);
+        this.rules = rules;
+    }
+
+    @Override
+    public void match(MvcResult result) throws Exception {
+        String content = result.getResponse().getContentAsString();
+        if (!rules.hasBodyRules() && expectedBody.equals(content)) {
+            return;
+        }
+
+        Map<String, List<String>> actual;
+        try {
+            actual = parse(content, result.getResponse().getCharacterEncoding());
+        } catch (IllegalArgumentException e) {
+            throw new AssertionError("Response body is not a valid form: " + content, e);
+        }
+
+        for (Map.Entry<String, List<String>> field : expected.entrySet()) {
+            List<String> values = actual.get(field.getKey());
+            RuleGroup rule = rules.forBodyPath(Collections.singletonList(field.getKey()));
+            if (values == null) {
+                throw mismatch("Field \"" + field.getKey() + "\" is missing", content);
+            } else if (rule != null) {
+                String failure = check(rule, field.getValue(), values);
+                if (failure != null) {
+                    throw mismatch("Field \"" + field.getKey() + "\": " + failure, content);
+                }
+            } else if (!field.getValue().equals(values)) {
+                throw mismatch("Field \"" + field.getKey() + "\" expected " + field.getValue() + " but was " + values,
+                        content);
+            }
+        }
+        for (String field : actual.keySet()) {
+            if (!expected.containsKey(field)) {
+                throw mismatch("Unexpected field \"" + field + "\"", content);
+            }
+        }
+    }
+
+    private static String check(RuleGroup rule, List<String> expectedValues, List<String> values) {
+        String failure = rule.isTypeBased() ? rule.checkSize(values.size())
+                : values.size() == expectedValues.size() ? null
+                : "Expected " + expectedValues.size() + " values but was " + values.size();
+        for (int i = 0; failure == null && i < values.size(); i++) {
+            String value = values.get(i);
+            failure = rule.check(JsonToken.STRING, JsonToken.STRING, value,
+                    i < expectedValues.size() && expectedValues.get(i).equals(value));
+        }
+        return failure;
+    }
+
+    private AssertionError mismatch(String message, String content) {
+        return new AssertionError("Form body mismatch: " + message + "\nExpected: " + expectedBody + "\nActual: " + content);
+    }
+
+    private static Map<String, List<String>> parse(String body, String charset) {
+        Map<String, List<String>> fields = new LinkedHashMap<>();
+        for (String pair : body.trim().split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String name = decode(separator < 0 ? pair : pair.substring(0, separator), charset);
+            String value = separator < 0 ? "" : decode(pair.substring(separator + 1), charset);
+            fields.computeIfAbsent(name, key -> newArrayList()).add(value);
+        }
+        return fields;
+    }
+
+    private static String decode(String value, String charset) {
+        try {
+            return URLDecoder.decode(value, charset);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalArgumentException("Unsupported charset " + charset, e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package de.eosts.fx.pact.provider;
+
+import com.google.gson.stream.JsonToken;
+import de.eosts.fx.pact.provider.CompiledMatchingRules.RuleGroup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * A {@link ResultMatcher} comparing all expected headers of a response in a
+ * single pass over the response headers. Header names are compared case
+ * insensitively and all mismatches are reported together, ordered by the
+ * header names.
+ * <br>
+ * A value is compared as a comma separated list of values, so an expected
+ * <code>a, b</code> matches the header sent once as <code>a,b</code> or twice
+ * as <code>a</code> and <code>b</code>. Commas and semicolons within quoted
+ * strings don't separate values. The parameters of a <code>Content-Type</code>
+ * like its <code>charset</code> must be present in the actual value if they
+ * are expected, but additional parameters are accepted. The values of all
+ * other headers are compared exactly, including their parameters.
+ * Headers with a matching rule are checked against the rule instead, using all
+ * values of the header joined by <code>", "</code>.
+ * <br>
+ * The expected values are parsed once when the matcher is created.
+ */
+public class HeadersMatcher implements ResultMatcher {
+
+    private final Map<String, ExpectedHeader> expected = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Creates a {@link HeadersMatcher} for the given expected headers
+     * applying the header rules of the given {@link CompiledMatchingRules}.
+     *
+     * @param headers The expected headers.
+     * @param rules   The compiled matching rules of the response.
+     */
+    public HeadersMatcher(Map<String, String> headers, CompiledMatchingRules rules) {
+        headers.forEach((name, value) -> expected.put(name, new ExpectedHeader(name, value, rules.forHeader(name))));
+    }
+
+    @Override
+    public void match(MvcResult result) throws Exception {
+        MockHttpServletResponse response = result.getResponse();
+        Map<String, List<String>> actual = new HashMap<>();
+        for (String name : response.getHeaderNames()) {
+            ExpectedHeader header = expected.get(name);
+            if (header != null) {
+                actual.computeIfAbsent(header.name, key -> newArrayList()).addAll(response.getHeaders(name));
+            }
+        }
+
+        List<String> failures = newArrayList();
+        for (ExpectedHeader header : expected.values()) {
+            String failure = header.check(actual.getOrDefault(header.name, Collections.emptyList()));
+            if (failure != null) {
+                failures.add("Response header '" + header.name + "': " + failure);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(String.join("\n", failures));
+        }
+    }
+
+    private static final class ExpectedHeader {
+        private final String name;
+        private final String value;
+        private final RuleGroup rule;
+        private final List<Value> values;
+        private final boolean mediaType;
+
+        private ExpectedHeader(String name, String value, RuleGroup rule) {
+            this.name = name;
+            this.value = value;
+            this.rule = rule;
+            this.mediaType = HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name);
+            this.values = rule == null ? parse(Collections.singletonList(value), mediaType) : null;
+        }
+
+        private String check(List<String> actualValues) {
+            String actual = actualValues.isEmpty() ? null : String.join(", ", actualValues);
+            if (rule != null) {
+                return rule.check(JsonToken.STRING, actual == null ? JsonToken.NULL : JsonToken.STRING, actual,
+                        value.equals(actual));
+            }
+            if (actual == null) {
+                return "Expected '" + value + "' but was not present";
+            }
+
+            List<Value> parsed = parse(actualValues, mediaType);
+            if (parsed.size() != values.size()) {
+                return "Expected '" + value + "' but was '" + actual + "'";
+            }
+            for (int i = 0; i < values.size(); i++) {
+                if (!values.get(i).matches(parsed.get(i), mediaType)) {
+                    return "Expected '" + value + "' but was '" + actual + "'";
+                }
+            }
+            return null;
+        }
+    }
+
+    private static List<Value> parse(List<String> headerValues, boolean mediaType) {
+        List<Value> values = new ArrayList<>();
+        for (String headerValue : headerValues) {
+            for (String element : split(headerValue, ',')) {
+                values.add(new Value(element, mediaType));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Splits the given header value at the given separator, skipping
+     * separators within quoted strings.
+     */
+    private static List<String> split(String headerValue, char separator) {
+        List<String> parts = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < headerValue.length(); i++) {
+            char c = headerValue.charAt(i);
+            if (quoted && c == '\\') {
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == separator && !quoted) {
+                parts.add(headerValue.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(headerValue.substring(start));
+        return parts;
+    }
+
+    /**
+     * A single value of a header. The parameters are only parsed for media
+     * types, other values keep them as part of the value.
+     */
+    private static final class Value {
+        private final String value;
+        private final Map<String, String> parameters;
+
+        private Value(String element, boolean mediaType) {
+            List<String> parts = mediaType ? split(element, ';') : Collections.singletonList(element);
+            this.value = parts.get(0).trim();
+            if (parts.size() == 1) {
+                this.parameters = Collections.emptyMap();
+                return;
+            }
+
+            this.parameters = new LinkedHashMap<>();
+            for (String part : parts.subList(1, parts.size())) {
+                int separator = part.indexOf('=');
+                String parameter = (separator < 0 ? part : part.substring(0, separator)).trim();
+                String parameterValue = separator < 0 ? "" : unquote(part.substring(separator + 1).trim());
+                parameters.put(parameter.toLowerCase(Locale.ROOT), parameterValue);
+            }
+        }
+
+        private boolean matches(Value actual, boolean mediaType) {
+            if (mediaType ? !value.equalsIgnoreCase(actual.value) : !value.equals(actual.value)) {
+                return false;
+            }
+            for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+                String actualValue = actual.parameters.get(parameter.getKey());
+                boolean caseInsensitive = "charset".equals(parameter.getKey());
+                if (actualValue == null || (caseInsensitive ? !parameter.getValue().equalsIgnoreCase(actualValue)
+                        : !parameter.getValue().equals(actualValue))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static String unquote(String value) {
+            return value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")
+                    ? value.substring(1, value.length() - 1) : value;
+        }
+    }
+}
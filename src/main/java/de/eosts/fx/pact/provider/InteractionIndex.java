@@ -0,0 +1,248 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import com.google.common.collect.ImmutableListMultimap;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * An immutable index of all {@link Interaction}s of a set of {@link Pact}s.
+ * Each {@link Interaction} is registered under its provider name, consumer
+ * name, provider state and description, as well as under every combination
+ * where provider, consumer or description are left open. So a lookup by
+ * provider state costs a single hash lookup, regardless of the number of
+ * interactions in the pacts.
+ * <br>
+ * Provider and consumer names are matched exactly, provider state and
+ * description are matched ignoring case, like in
+ * {@link ConversionUtils#getInteractions(java.util.stream.Stream, Optional, Optional)}.
+ */
+public class InteractionIndex {
+
+    private static final int MAX_CACHED_INDICES = 16;
+
+    // Indices are only softly referenced and their keys refer weakly to the
+    // pacts, so the cache doesn't pin pacts the PactCache holds only softly.
+    @SuppressWarnings("serial")
+    private static final Map<PactSetKey, SoftReference<InteractionIndex>> INDICES =
+            new LinkedHashMap<PactSetKey, SoftReference<InteractionIndex>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PactSetKey, SoftReference<InteractionIndex>> eldest) {
+                    return size() > MAX_CACHED_INDICES;
+                }
+            };
+
+    private final List<Pact> pacts;
+    private final ImmutableListMultimap<Key, Interaction> interactions;
+    private final Map<Class<?>, Map<Interaction, VerificationPlan>> plans = new ConcurrentHashMap<>();
+    private final Map<InteractionSharding, Set<Interaction>> shards = new ConcurrentHashMap<>();
+
+    private InteractionIndex(Collection<Pact> pacts) {
+        this.pacts = newArrayList(pacts);
+        ImmutableListMultimap.Builder<Key, Interaction> builder = ImmutableListMultimap.builder();
+        for (Pact pact : pacts) {
+            String provider = pact.getProvider() != null ? pact.getProvider().getName() : null;
+            String consumer = pact.getConsumer() != null ? pact.getConsumer().getName() : null;
+            for (Interaction interaction : pact.getInteractions()) {
+                String state = normalize(ConversionUtils.providerState(interaction));
+                String description = normalize(interaction.getDescription());
+                for (String p : new String[] { provider, Key.ANY }) {
+                    for (String c : new String[] { consumer, Key.ANY }) {
+                        for (String d : new String[] { description, Key.ANY }) {
+                            builder.put(new Key(p, c, state, d), interaction);
+                        }
+                    }
+                }
+            }
+        }
+        this.interactions = builder.build();
+    }
+
+    /**
+     * Returns the {@link InteractionIndex} of the given {@link Pact}s. The
+     * index is built once and shared for the same {@link Pact} instances, so
+     * test runners working on the same (cached) pacts don't build it again.
+     *
+     * @param pacts The {@link Pact}s to index.
+     * @return The {@link InteractionIndex} of the given {@link Pact}s.
+     */
+    public static InteractionIndex of(Collection<Pact> pacts) {
+        PactSetKey key = new PactSetKey(pacts);
+        synchronized (INDICES) {
+            SoftReference<InteractionIndex> reference = INDICES.get(key);
+            InteractionIndex index = reference == null ? null : reference.get();
+            if (index == null) {
+                index = new InteractionIndex(pacts);
+                INDICES.put(key, new SoftReference<>(index));
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Returns the {@link Interaction}s of the indexed {@link Pact}s that
+     * belong to the shard of the given {@link InteractionSharding}. The
+     * selection is made only once per sharding.
+     *
+     * @param sharding The {@link InteractionSharding} to apply.
+     * @return The {@link Interaction}s of the shard, compared by identity.
+     */
+    public Set<Interaction> shard(InteractionSharding sharding) {
+        return shards.computeIfAbsent(sharding, s -> Collections.unmodifiableSet(s.select(pacts)));
+    }
+
+    /**
+     * Finds the {@link Interaction}s matching the given criteria. Empty
+     * criteria are not considered.
+     *
+     * @param provider               The provider name to match.
+     * @param consumer               The consumer name to match.
+     * @param providerState          The provider state to match.
+     * @param interactionDescription The interaction description to match.
+     * @return The matching {@link Interaction}s in the order of the pacts or an
+     * empty list if none matches.
+     */
+    public List<Interaction> find(Optional<String> provider, Optional<String> consumer, Optional<String> providerState,
+            Optional<String> interactionDescription) {
+        Key key = new Key(provider.orElse(Key.ANY), consumer.orElse(Key.ANY), normalize(providerState.orElse(null)),
+                interactionDescription.map(InteractionIndex::normalize).orElse(Key.ANY));
+        return interactions.get(key);
+    }
+
+    /**
+     * Returns the {@link VerificationPlan} of the given {@link Interaction}
+     * that was compiled by the given type of compiler, compiling it on first
+     * access. Plans are held as long as this index, so they are shared by all
+     * runners working on the same pacts.
+     *
+     * @param interaction The {@link Interaction} to get the plan for.
+     * @param compilerType The type compiling the plan, usually the runner
+     *                     class, as subclasses may create different matchers.
+     * @param compiler    The function compiling the plan on a cache miss.
+     * @return The {@link VerificationPlan} of the interaction.
+     */
+    public VerificationPlan verificationPlan(Interaction interaction, Class<?> compilerType,
+            Function<Interaction, VerificationPlan> compiler) {
+        // Interactions are compared by identity, their equals / hashCode traverse the whole interaction
+        Map<Interaction, VerificationPlan> compiled = plans.computeIfAbsent(compilerType,
+                type -> Collections.synchronizedMap(new IdentityHashMap<>()));
+        VerificationPlan plan = compiled.get(interaction);
+        if (plan == null) {
+            plan = compiler.apply(interaction);
+            compiled.put(interaction, plan);
+        }
+        return plan;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Key {
+        // An instance that can't be mistaken for a real name, compared by identity.
+        private static final String ANY = new String("*");
+
+        private final String provider;
+        private final String consumer;
+        private final String providerState;
+        private final String description;
+        private final int hash;
+
+        private Key(String provider, String consumer, String providerState, String description) {
+            this.provider = provider;
+            this.consumer = consumer;
+            this.providerState = providerState;
+            this.description = description;
+            this.hash = Objects.hash(provider, consumer, providerState, description);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && same(provider, other.provider) && same(consumer, other.consumer)
+                    && Objects.equals(providerState, other.providerState) && same(description, other.description);
+        }
+
+        private static boolean same(String a, String b) {
+            if (a == ANY || b == ANY) {
+                return a == b;
+            }
+            return Objects.equals(a, b);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Identifies a set of {@link Pact}s by the identity of its elements, as
+     * the value based {@link Pact#equals(Object)} traverses all interactions.
+     * The {@link Pact}s are referenced weakly, a key of reclaimed pacts
+     * doesn't equal any other key.
+     */
+    private static final class PactSetKey {
+        private final List<WeakReference<Pact>> pacts;
+        private final int hash;
+
+        private PactSetKey(Collection<Pact> pacts) {
+            this.pacts = pacts.stream().sorted((a, b) -> Integer.compare(System.identityHashCode(a),
+                    System.identityHashCode(b))).map(WeakReference::new).collect(Collectors.toList());
+            int h = 1;
+            for (WeakReference<Pact> pact : this.pacts) {
+                h = 31 * h + System.identityHashCode(pact.get());
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PactSetKey)) {
+                return false;
+            }
+            PactSetKey other = (PactSetKey) o;
+            if (hash != other.hash || pacts.size() != other.pacts.size()) {
+                return false;
+            }
+            for (int i = 0; i < pacts.size(); i++) {
+                Pact pact = pacts.get(i).get();
+                if (pact == null || pact != other.pacts.get(i).get()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Splits the {@link Interaction}s of a set of {@link Pact}s into a number of
+ * shards, so the verification can be spread over several JVMs (e.g. Gradle
+ * forks or CI nodes) without verifying an {@link Interaction} twice. Every
+ * JVM verifies only the {@link Interaction}s of its own shard.
+ * <br>
+ * By default an {@link Interaction} is assigned by a stable hash (murmur3) of
+ * the consumer name, the provider states and the description, so the
+ * assignment doesn't depend on the order the pacts are loaded in. If the
+ * durations of a previous run are known, the {@link Interaction}s are
+ * balanced instead: they are assigned one after another, the longest first,
+ * to the shard with the least total duration so far. All JVMs must load the
+ * same pacts and durations to get a consistent assignment.
+ * <br>
+ * The JVM wide sharding is configured by the system properties
+ * {@value #INDEX_PROPERTY} (starting at 0) and {@value #COUNT_PROPERTY}, the
+ * durations by {@value #DURATIONS_PROPERTY} pointing to a
+ * {@link VerificationReport} of a previous run.
+ */
+public class InteractionSharding {
+
+    /**
+     * The system property to configure the index of the shard of this JVM,
+     * starting at 0.
+     */
+    public static final String INDEX_PROPERTY = "pact.shard.index";
+
+    /**
+     * The system property to configure the number of shards.
+     */
+    public static final String COUNT_PROPERTY = "pact.shard.count";
+
+    /**
+     * The system property to configure the {@link VerificationReport} file
+     * of a previous run to balance the shards by the durations.
+     */
+    public static final String DURATIONS_PROPERTY = "pact.shard.durations";
+
+    private static InteractionSharding shared = null;
+    private static String sharedConfiguration = null;
+
+    private final int index;
+    private final int count;
+    private final Map<String, Long> durations;
+
+    /**
+     * Creates an {@link InteractionSharding} assigning the
+     * {@link Interaction}s by their hash.
+     *
+     * @param index The index of the shard to select, starting at 0.
+     * @param count The number of shards.
+     * @throws IllegalArgumentException If the index is not within the count.
+     */
+    public InteractionSharding(int index, int count) {
+        this(index, count, Collections.emptyMap());
+    }
+
+    /**
+     * Creates an {@link InteractionSharding} balancing the
+     * {@link Interaction}s by the given durations, if there are any.
+     *
+     * @param index     The index of the shard to select, starting at 0.
+     * @param count     The number of shards.
+     * @param durations The durations of the {@link Interaction}s by
+     *                  {@link #key(Pact, Interaction)}.
+     * @throws IllegalArgumentException If the index is not within the count.
+     */
+    public InteractionSharding(int index, int count, Map<String, Long> durations) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+        this.durations = durations;
+    }
+
+    /**
+     * Returns the JVM wide {@link InteractionSharding} configured by the
+     * system properties {@value #INDEX_PROPERTY}, {@value #COUNT_PROPERTY}
+     * and {@value #DURATIONS_PROPERTY}. A missing durations file is ignored.
+     *
+     * @return The JVM wide sharding or <code>null</code> if the number of
+     * shards is not configured.
+     * @throws IllegalStateException If the configuration is invalid.
+     */
+    static synchronized InteractionSharding fromSystemProperties() {
+        String count = System.getProperty(COUNT_PROPERTY);
+        if (count == null || count.isEmpty()) {
+            return null;
+        }
+        String index = System.getProperty(INDEX_PROPERTY);
+        String durations = System.getProperty(DURATIONS_PROPERTY);
+        String configuration = index + "/" + count + "/" + durations;
+        if (shared == null || !configuration.equals(sharedConfiguration)) {
+            try {
+                File durationsFile = durations == null || durations.isEmpty() ? null : new File(durations);
+                shared = new InteractionSharding(Integer.parseInt(index), Integer.parseInt(count),
+                        durationsFile != null && durationsFile.isFile() ? VerificationReport.readDurations(durationsFile)
+                                : Collections.emptyMap());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Invalid shard configuration " + INDEX_PROPERTY + "=" + index + ", "
+                        + COUNT_PROPERTY + "=" + count, e);
+            }
+            sharedConfiguration = configuration;
+        }
+        return shared;
+    }
+
+    /**
+     * The index of the selected shard.
+     *
+     * @return The shard index, starting at 0.
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * The number of shards.
+     *
+     * @return The shard count.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Selects the {@link Interaction}s of the given {@link Pact}s that belong
+     * to this shard.
+     *
+     * @param pacts The {@link Pact}s to split.
+     * @return The {@link Interaction}s of this shard, compared by identity.
+     */
+    public Set<Interaction> select(Collection<Pact> pacts) {
+        Map<String, List<Interaction>> interactions = new TreeMap<>();
+        for (Pact pact : pacts) {
+            for (Interaction interaction : pact.getInteractions()) {
+                interactions.computeIfAbsent(key(pact, interaction), k -> newArrayList()).add(interaction);
+            }
+        }
+
+        Set<Interaction> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (durations.isEmpty()) {
+            interactions.forEach((key, group) -> {
+                if (shardOf(key) == index) {
+                    selected.addAll(group);
+                }
+            });
+            return selected;
+        }
+
+        long defaultDuration = Math.max(1, (long) durations.values().stream().mapToLong(Long::longValue)
+                .average().orElse(1));
+        Map<String, Long> weights = new TreeMap<>();
+        interactions.forEach((key, group) -> weights.put(key, group.size() * durations.getOrDefault(key, defaultDuration)));
+        List<String> keys = weights.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey).collect(Collectors.toList());
+
+        long[] loads = new long[count];
+        for (String key : keys) {
+            int shard = 0;
+            for (int i = 1; i < count; i++) {
+                if (loads[i] < loads[shard]) {
+                    shard = i;
+                }
+            }
+            loads[shard] += weights.get(key);
+            if (shard == index) {
+                selected.addAll(interactions.get(key));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * The shard of the given key when assigned by hash.
+     *
+     * @param key The key of an {@link Interaction}, see
+     *            {@link #key(Pact, Interaction)}.
+     * @return The index of the shard.
+     */
+    public int shardOf(String key) {
+        return Math.floorMod(Hashing.murmur3_32().hashString(key, StandardCharsets.UTF_8).asInt(), count);
+    }
+
+    /**
+     * The stable key of an {@link Interaction} made up of the consumer name,
+     * the provider states and the description.
+     *
+     * @param pact        The {@link Pact} of the interaction.
+     * @param interaction The {@link Interaction}.
+     * @return The key of the interaction.
+     */
+    public static String key(Pact pact, Interaction interaction) {
+        return key(pact.getConsumer().getName(), ConversionUtils.providerStates(interaction),
+                interaction.getDescription());
+    }
+
+    /**
+     * The stable key of an {@link Interaction} as recorded by the
+     * {@link VerificationReport}, the same as {@link #key(Pact, Interaction)}.
+     *
+     * @param consumer       The consumer name.
+     * @param providerStates The provider states, see
+     *                       {@link ConversionUtils#providerStates(Interaction)}.
+     * @param description    The description.
+     * @return The key of the interaction.
+     */
+    public static String key(String consumer, String providerStates, String description) {
+        return consumer + '\n' + providerStates + '\n' + description;
+    }
+}
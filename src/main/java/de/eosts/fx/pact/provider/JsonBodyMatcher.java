@@ -0,0 +1,487 @@
+package de.eosts.fx.pact.provider;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import de.eosts.fx.pact.provider.CompiledMatchingRules.RuleGroup;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link ResultMatcher} comparing the response body with an expected JSON
+ * document using lenient semantics: the actual objects may contain additional
+ * fields and the elements of arrays may be in any order, but arrays must have
+ * the same length. These are the semantics of
+ * {@link org.springframework.test.web.servlet.result.ContentResultMatchers#json(String)}.
+ * <br>
+ * The expected document is compiled once when the matcher is created. The
+ * actual body is first compared byte by byte with the expected one, and only if
+ * they differ it is read token by token with a streaming parser and compared
+ * with the compiled expectation. The comparison stops at the first mismatch and
+ * the failure description is only built in that case. Only array elements are
+ * materialized, one at a time, to allow for lenient ordering.
+ * <br>
+ * Pact matching rules for the body are resolved once per value of the expected
+ * document when the matcher is created.
+ */
+public class JsonBodyMatcher implements ResultMatcher {
+
+    private static final JsonParser PARSER = new JsonParser();
+
+    private final String expectedBody;
+    private final Node expected;
+    private final boolean bytewiseComparable;
+    private volatile EncodedBody encodedBody;
+
+    /**
+     * Creates a {@link JsonBodyMatcher} for the given expected JSON document.
+     *
+     * @param expectedBody The expected JSON document.
+     * @throws IllegalArgumentException If the expected body is not a valid JSON document.
+     */
+    public JsonBodyMatcher(String expectedBody) {
+        this(expectedBody, CompiledMatchingRules.NONE);
+    }
+
+    /**
+     * Creates a {@link JsonBodyMatcher} for the given expected JSON document
+     * applying the body rules of the given {@link CompiledMatchingRules}. Values
+     * selected by a rule are checked against the rule instead of being compared
+     * for equality.
+     *
+     * @param expectedBody The expected JSON document.
+     * @param rules        The compiled matching rules of the response.
+     * @throws IllegalArgumentException If the expected body is not a valid JSON document.
+     */
+    public JsonBodyMatcher(String expectedBody, CompiledMatchingRules rules) {
+        this.expectedBody = expectedBody;
+        this.bytewiseComparable = !rules.hasBodyRules();
+        try {
+            this.expected = compile(PARSER.parse(expectedBody), Collections.emptyList(), rules);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Expected body is not a valid JSON document: " + expectedBody, e);
+        }
+    }
+
+    @Override
+    public void match(MvcResult result) throws Exception {
+        MockHttpServletResponse response = result.getResponse();
+        if (bytewiseComparable
+                && Arrays.equals(expectedBytes(response.getCharacterEncoding()), response.getContentAsByteArray())) {
+            return;
+        }
+
+        String content = response.getContentAsString();
+        Mismatch mismatch;
+        try (JsonReader reader = new JsonReader(new StringReader(content))) {
+            mismatch = expected.match(reader);
+            if (mismatch == null && reader.peek() != JsonToken.END_DOCUMENT) {
+                mismatch = new Mismatch("Unexpected content after the JSON document");
+            }
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new AssertionError("Response body is not a valid JSON document: " + content, e);
+        }
+
+        if (mismatch != null) {
+            throw new AssertionError(mismatch.describe() + "\nExpected: " + expectedBody + "\nActual: " + content);
+        }
+    }
+
+    private byte[] expectedBytes(String charset) {
+        EncodedBody encoded = encodedBody;
+        if (encoded == null || !encoded.charset.equals(charset)) {
+            encoded = new EncodedBody(charset, expectedBody.getBytes(Charset.forName(charset)));
+            encodedBody = encoded;
+        }
+        return encoded.bytes;
+    }
+
+    private static Node compile(JsonElement element, List<Object> path, CompiledMatchingRules rules) {
+        RuleGroup rule = rules.hasBodyRules() ? rules.forBodyPath(path) : null;
+        if (element.isJsonObject()) {
+            return new ObjectNode(element.getAsJsonObject(), path, rules, rule);
+        } else if (element.isJsonArray()) {
+            return new ArrayNode(element.getAsJsonArray(), path, rules, rule);
+        }
+        return new ValueNode(element, rule);
+    }
+
+    private static List<Object> child(List<Object> path, Object segment) {
+        List<Object> child = new ArrayList<>(path.size() + 1);
+        child.addAll(path);
+        child.add(segment);
+        return child;
+    }
+
+    private static final class EncodedBody {
+        private final String charset;
+        private final byte[] bytes;
+
+        private EncodedBody(String charset, byte[] bytes) {
+            this.charset = charset;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * A failed comparison. The path is collected while unwinding, so
+     * successful comparisons don't pay for it.
+     */
+    private static final class Mismatch {
+        private final Deque<String> path = new ArrayDeque<>();
+        private final String message;
+
+        private Mismatch(String message) {
+            this.message = message;
+        }
+
+        private Mismatch at(String segment) {
+            path.addFirst(segment);
+            return this;
+        }
+
+        private String describe() {
+            StringBuilder sb = new StringBuilder("JSON body mismatch at $");
+            path.forEach(sb::append);
+            return sb.append(": ").append(message).toString();
+        }
+    }
+
+    /**
+     * A compiled node of the expected document.
+     */
+    private abstract static class Node {
+        final RuleGroup rule;
+
+        Node(RuleGroup rule) {
+            this.rule = rule;
+        }
+
+        /**
+         * Compares the next value of the reader with this node and consumes it
+         * unless a mismatch is found.
+         */
+        abstract Mismatch match(JsonReader actual) throws IOException;
+
+        /**
+         * Compares an already materialized value with this node.
+         */
+        abstract Mismatch match(JsonElement actual);
+
+        abstract String describe();
+
+        Mismatch typeMismatch(Object actual) {
+            return new Mismatch("Expected " + describe() + " but was " + actual);
+        }
+    }
+
+    private static final class ObjectNode extends Node {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final String[] names;
+        private final Node[] values;
+
+        private ObjectNode(JsonObject object, List<Object> path, CompiledMatchingRules rules, RuleGroup rule) {
+            super(rule);
+            names = new String[object.size()];
+            values = new Node[object.size()];
+            int i = 0;
+            for (Map.Entry<String, JsonElement> e : object.entrySet()) {
+                indices.put(e.getKey(), i);
+                names[i] = e.getKey();
+                values[i] = compile(e.getValue(), child(path, e.getKey()), rules);
+                i++;
+            }
+        }
+
+        @Override
+        Mismatch match(JsonReader actual) throws IOException {
+            JsonToken token = actual.peek();
+            if (token != JsonToken.BEGIN_OBJECT) {
+                return typeMismatch(token);
+            }
+
+            actual.beginObject();
+            long seen = 0L;
+            BitSet seenLarge = names.length > Long.SIZE ? new BitSet(names.length) : null;
+            while (actual.hasNext()) {
+                String name = actual.nextName();
+                Integer index = indices.get(name);
+                if (index == null) {
+                    actual.skipValue();
+                    continue;
+                }
+
+                Mismatch mismatch = values[index].match(actual);
+                if (mismatch != null) {
+                    return mismatch.at("." + name);
+                }
+                if (seenLarge != null) {
+                    seenLarge.set(index);
+                } else {
+                    seen |= 1L << index;
+                }
+            }
+            actual.endObject();
+
+            for (int i = 0; i < names.length; i++) {
+                boolean present = seenLarge != null ? seenLarge.get(i) : (seen & (1L << i)) != 0;
+                if (!present) {
+                    return new Mismatch("Expected field \"" + names[i] + "\" is missing");
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Mismatch match(JsonElement actual) {
+            if (!actual.isJsonObject()) {
+                return typeMismatch(actual);
+            }
+
+            JsonObject object = actual.getAsJsonObject();
+            for (int i = 0; i < names.length; i++) {
+                JsonElement value = object.get(names[i]);
+                if (value == null) {
+                    return new Mismatch("Expected field \"" + names[i] + "\" is missing");
+                }
+                Mismatch mismatch = values[i].match(value);
+                if (mismatch != null) {
+                    return mismatch.at("." + names[i]);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        String describe() {
+            return "an object";
+        }
+    }
+
+    /**
+     * An expected array. Without type based matching rule the actual elements
+     * must match the expected ones in any order. With a type based rule, all
+     * actual elements are matched against the first expected element and the
+     * size is checked against the min / max constraints instead.
+     */
+    private static final class ArrayNode extends Node {
+        private final Node[] elements;
+        private final boolean template;
+
+        private ArrayNode(JsonArray array, List<Object> path, CompiledMatchingRules rules, RuleGroup rule) {
+            super(rule);
+            elements = new Node[array.size()];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = compile(array.get(i), child(path, i), rules);
+            }
+            template = rule != null && rule.isTypeBased();
+        }
+
+        @Override
+        Mismatch match(JsonReader actual) throws IOException {
+            JsonToken token = actual.peek();
+            if (token != JsonToken.BEGIN_ARRAY) {
+                return typeMismatch(token);
+            }
+
+            actual.beginArray();
+            List<JsonElement> unmatched = null;
+            int count = 0;
+            while (actual.hasNext()) {
+                if (template) {
+                    Mismatch mismatch = elements.length > 0 ? elements[0].match(actual) : skip(actual);
+                    if (mismatch != null) {
+                        return mismatch.at("[" + count + "]");
+                    }
+                } else {
+                    JsonElement element = PARSER.parse(actual);
+                    if (unmatched == null && count < elements.length && elements[count].match(element) == null) {
+                        count++;
+                        continue;
+                    }
+                    if (unmatched == null) {
+                        unmatched = new LinkedList<>();
+                    }
+                    unmatched.add(element);
+                }
+                count++;
+            }
+            actual.endArray();
+
+            return template ? checkSize(count) : matchRemaining(count, unmatched);
+        }
+
+        @Override
+        Mismatch match(JsonElement actual) {
+            if (!actual.isJsonArray()) {
+                return typeMismatch(actual);
+            }
+
+            JsonArray array = actual.getAsJsonArray();
+            List<JsonElement> unmatched = null;
+            for (int i = 0; i < array.size(); i++) {
+                if (template) {
+                    Mismatch mismatch = elements.length > 0 ? elements[0].match(array.get(i)) : null;
+                    if (mismatch != null) {
+                        return mismatch.at("[" + i + "]");
+                    }
+                    continue;
+                }
+                if (unmatched == null && i < elements.length && elements[i].match(array.get(i)) == null) {
+                    continue;
+                }
+                if (unmatched == null) {
+                    unmatched = new LinkedList<>();
+                }
+                unmatched.add(array.get(i));
+            }
+
+            return template ? checkSize(array.size()) : matchRemaining(array.size(), unmatched);
+        }
+
+        private static Mismatch skip(JsonReader actual) throws IOException {
+            actual.skipValue();
+            return null;
+        }
+
+        private Mismatch checkSize(int size) {
+            String failure = rule.checkSize(size);
+            return failure == null ? null : new Mismatch(failure);
+        }
+
+        /**
+         * Matches the elements that were not matched in order against all
+         * remaining actual elements, ignoring their order.
+         */
+        private Mismatch matchRemaining(int actualSize, List<JsonElement> unmatched) {
+            if (actualSize != elements.length) {
+                return new Mismatch("Expected " + elements.length + " array elements but was " + actualSize);
+            }
+            if (unmatched == null) {
+                return null;
+            }
+
+            for (int i = elements.length - unmatched.size(); i < elements.length; i++) {
+                boolean found = false;
+                for (Iterator<JsonElement> it = unmatched.iterator(); it.hasNext() && !found; ) {
+                    if (elements[i].match(it.next()) == null) {
+                        it.remove();
+                        found = true;
+                    }
+                }
+                if (!found) {
+                    return new Mismatch("No actual element matches the expected " + elements[i].describe())
+                            .at("[" + i + "]");
+                }
+            }
+            return null;
+        }
+
+        @Override
+        String describe() {
+            return "an array";
+        }
+    }
+
+    /**
+     * An expected string, number, boolean or null value. Numbers are compared
+     * by value. If matching rules apply, they replace the equality check.
+     */
+    private static final class ValueNode extends Node {
+        private final JsonToken kind;
+        private final String text;
+        private final BigDecimal number;
+
+        private ValueNode(JsonElement element, RuleGroup rule) {
+            super(rule);
+            if (element.isJsonNull()) {
+                kind = JsonToken.NULL;
+                text = null;
+                number = null;
+            } else {
+                JsonPrimitive primitive = element.getAsJsonPrimitive();
+                kind = primitive.isBoolean() ? JsonToken.BOOLEAN
+                        : primitive.isNumber() ? JsonToken.NUMBER : JsonToken.STRING;
+                text = primitive.getAsString();
+                number = kind == JsonToken.NUMBER ? new BigDecimal(text) : null;
+            }
+        }
+
+        @Override
+        Mismatch match(JsonReader actual) throws IOException {
+            JsonToken token = actual.peek();
+            String value;
+            switch (token) {
+            case STRING:
+            case NUMBER:
+                value = actual.nextString();
+                break;
+            case BOOLEAN:
+                value = String.valueOf(actual.nextBoolean());
+                break;
+            case NULL:
+                actual.nextNull();
+                value = null;
+                break;
+            default:
+                // Consumed in any case, as a rule may accept the object or array
+                actual.skipValue();
+                return compare(token, null, token.toString());
+            }
+            return compare(token, value, value);
+        }
+
+        @Override
+        Mismatch match(JsonElement actual) {
+            if (actual.isJsonNull()) {
+                return compare(JsonToken.NULL, null, "null");
+            } else if (actual.isJsonObject()) {
+                return compare(JsonToken.BEGIN_OBJECT, null, actual.toString());
+            } else if (actual.isJsonArray()) {
+                return compare(JsonToken.BEGIN_ARRAY, null, actual.toString());
+            }
+
+            JsonPrimitive primitive = actual.getAsJsonPrimitive();
+            JsonToken token = primitive.isBoolean() ? JsonToken.BOOLEAN
+                    : primitive.isNumber() ? JsonToken.NUMBER : JsonToken.STRING;
+            return compare(token, primitive.getAsString(), primitive.toString());
+        }
+
+        private Mismatch compare(JsonToken token, String value, String display) {
+            boolean equal = token == kind && (kind == JsonToken.NUMBER ? number.compareTo(new BigDecimal(value)) == 0
+                    : kind == JsonToken.NULL || text.equals(value));
+            if (rule != null) {
+                String failure = rule.check(kind, token, value, equal);
+                return failure == null ? null : new Mismatch(failure);
+            }
+            return equal ? null : typeMismatch(display);
+        }
+
+        @Override
+        String describe() {
+            return kind == JsonToken.STRING ? "\"" + text + "\"" : String.valueOf(text);
+        }
+    }
+}
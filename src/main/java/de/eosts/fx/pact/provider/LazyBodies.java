@@ -0,0 +1,452 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.OptionalBody;
+import au.com.dius.pact.model.Pact;
+import au.com.dius.pact.model.PactReader;
+import au.com.dius.pact.model.RequestResponseInteraction;
+import au.com.dius.pact.model.UnknownPactSource;
+import com.google.common.collect.MapMaker;
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Utility class to load {@link Pact}s whose request and response bodies are
+ * not materialized as {@link String}s. The bodies are cut out of the pact
+ * JSON before it is handed to the {@link PactReader} and are kept as raw bytes
+ * in a {@link PactBodyStore}. The {@link OptionalBody}s of the loaded
+ * {@link Pact} only hold a short placeholder, the actual body is decoded by
+ * {@link #value(OptionalBody)} when it is needed. The placeholder contains a
+ * hash of the body, so the value based <code>equals</code> of the loaded
+ * {@link Pact}s still tells pacts with different bodies apart. Unlike the
+ * {@link PactReader}, JSON bodies keep non ASCII characters unescaped.
+ * <br>
+ * The pact JSON is streamed into the maps the {@link PactReader} converts to
+ * the {@link Pact}, no intermediate tree or {@link String} of the whole pact
+ * is built.
+ * <br>
+ * Code reading the bodies of pacts loaded this way must use
+ * {@link #value(OptionalBody)} or {@link #orElse(OptionalBody, String)}
+ * instead of the methods of {@link OptionalBody}.
+ */
+public class LazyBodies {
+
+    private static final String PLACEHOLDER = "\u0000lazy-body:";
+
+    // Weak keys are compared by identity, so the value based equals of OptionalBody is never called.
+    private static final ConcurrentMap<OptionalBody, LazyBody> BODIES = new MapMaker().weakKeys().makeMap();
+
+    private LazyBodies() {
+        // Not intended to instantiate utility class
+    }
+
+    /**
+     * Loads the {@link Pact} from the given JSON, keeping the bodies of all
+     * request / response interactions as raw bytes.
+     *
+     * @param json    The UTF-8 encoded pact JSON.
+     * @param offHeap Set to <code>true</code> to keep the bodies outside of
+     *                the heap.
+     * @return The loaded {@link Pact}.
+     */
+    public static Pact loadPact(byte[] json, boolean offHeap) {
+        return loadPact(json, UnknownPactSource.INSTANCE, offHeap);
+    }
+
+    /**
+     * Loads the {@link Pact} from the given JSON, keeping the bodies of all
+     * request / response interactions as raw bytes.
+     *
+     * @param json    The UTF-8 encoded pact JSON.
+     * @param source  The source of the pact.
+     * @param offHeap Set to <code>true</code> to keep the bodies outside of
+     *                the heap.
+     * @return The loaded {@link Pact}.
+     */
+    public static Pact loadPact(byte[] json, au.com.dius.pact.model.PactSource source, boolean offHeap) {
+        return loadPact(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8), source,
+                offHeap);
+    }
+
+    /**
+     * Loads the {@link Pact} from the JSON read from the given reader, keeping
+     * the bodies of all request / response interactions as raw bytes. The
+     * reader is not closed.
+     *
+     * @param json    The reader providing the pact JSON.
+     * @param source  The source of the pact.
+     * @param offHeap Set to <code>true</code> to keep the bodies outside of
+     *                the heap.
+     * @return The loaded {@link Pact}.
+     */
+    public static Pact loadPact(Reader json, au.com.dius.pact.model.PactSource source, boolean offHeap) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<Integer> offsets = newArrayList();
+        Object root;
+        try {
+            JsonReader reader = new JsonReader(json);
+            reader.setLenient(true);
+            root = readPact(reader, bytes, offsets);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+
+        Pact pact = PactLoader.toPact(root, source);
+        if (offsets.isEmpty()) {
+            return pact;
+        }
+
+        offsets.add(bytes.size());
+        return register(pact, new PactBodyStore(bytes.toByteArray(),
+                offsets.stream().mapToInt(Integer::intValue).toArray(), offHeap));
+    }
+
+    /**
+     * Reads the pact JSON into maps and lists like the Groovy JSON parser
+     * does, extracting the bodies of the request / response interactions
+     * like {@link #extractBodies(JsonElement, ByteArrayOutputStream, List)}
+     * does for an already parsed tree.
+     */
+    private static Object readPact(JsonReader in, ByteArrayOutputStream bytes, List<Integer> offsets)
+            throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            return readValue(in);
+        }
+        Map<String, Object> pact = new LinkedHashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if ("interactions".equals(name) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                List<Object> interactions = newArrayList();
+                in.beginArray();
+                while (in.hasNext()) {
+                    interactions.add(readInteraction(in, bytes, offsets));
+                }
+                in.endArray();
+                pact.put(name, interactions);
+            } else {
+                pact.put(name, readValue(in));
+            }
+        }
+        in.endObject();
+        return pact;
+    }
+
+    private static Object readInteraction(JsonReader in, ByteArrayOutputStream bytes, List<Integer> offsets)
+            throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            return readValue(in);
+        }
+        Map<String, Object> interaction = new LinkedHashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            boolean message = "request".equals(name) || "response".equals(name);
+            interaction.put(name, message && in.peek() == JsonToken.BEGIN_OBJECT
+                    ? readMessage(in, bytes, offsets) : readValue(in));
+        }
+        in.endObject();
+        return interaction;
+    }
+
+    private static Object readMessage(JsonReader in, ByteArrayOutputStream bytes, List<Integer> offsets)
+            throws IOException {
+        Map<String, Object> message = new LinkedHashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if ("body".equals(name)) {
+                message.put(name, readBody(in, bytes, offsets));
+            } else {
+                message.put(name, readValue(in));
+            }
+        }
+        in.endObject();
+        return message;
+    }
+
+    /**
+     * Reads the next JSON value with the types the Groovy JSON parser, that
+     * the {@link PactReader} parses pacts with, would create for it.
+     */
+    private static Object readValue(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case BEGIN_OBJECT:
+                Map<String, Object> object = new LinkedHashMap<>();
+                in.beginObject();
+                while (in.hasNext()) {
+                    object.put(in.nextName(), readValue(in));
+                }
+                in.endObject();
+                return object;
+            case BEGIN_ARRAY:
+                List<Object> array = newArrayList();
+                in.beginArray();
+                while (in.hasNext()) {
+                    array.add(readValue(in));
+                }
+                in.endArray();
+                return array;
+            case STRING:
+                return in.nextString();
+            case NUMBER:
+                return number(in.nextString());
+            case BOOLEAN:
+                return in.nextBoolean();
+            case NULL:
+                in.nextNull();
+                return null;
+            default:
+                throw new IllegalStateException("Unexpected JSON token " + in.peek() + " at " + in.getPath());
+        }
+    }
+
+    /**
+     * Reads the body of a request or response. String bodies are kept as is,
+     * all other bodies are copied token by token as their compact JSON, like
+     * the {@link PactReader} does, without building a tree of them.
+     *
+     * @return The placeholder of the body, or the body itself if it is
+     * missing or empty.
+     */
+    private static Object readBody(JsonReader in, ByteArrayOutputStream bytes, List<Integer> offsets)
+            throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String value;
+        if (token == JsonToken.STRING) {
+            value = in.nextString();
+        } else {
+            StringWriter json = new StringWriter();
+            JsonWriter out = new JsonWriter(json);
+            out.setLenient(true);
+            copy(in, out);
+            out.flush();
+            value = json.toString();
+        }
+        return value.isEmpty() ? value : appendBody(value, bytes, offsets);
+    }
+
+    private static void copy(JsonReader in, JsonWriter out) throws IOException {
+        switch (in.peek()) {
+            case BEGIN_OBJECT:
+                in.beginObject();
+                out.beginObject();
+                while (in.hasNext()) {
+                    out.name(in.nextName());
+                    copy(in, out);
+                }
+                in.endObject();
+                out.endObject();
+                break;
+            case BEGIN_ARRAY:
+                in.beginArray();
+                out.beginArray();
+                while (in.hasNext()) {
+                    copy(in, out);
+                }
+                in.endArray();
+                out.endArray();
+                break;
+            case STRING:
+                out.value(in.nextString());
+                break;
+            case NUMBER:
+                out.jsonValue(in.nextString());
+                break;
+            case BOOLEAN:
+                out.value(in.nextBoolean());
+                break;
+            case NULL:
+                in.nextNull();
+                out.nullValue();
+                break;
+            default:
+                throw new IllegalStateException("Unexpected JSON token " + in.peek() + " at " + in.getPath());
+        }
+    }
+
+    private static Number number(String number) {
+        if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0) {
+            return new BigDecimal(number);
+        }
+        BigInteger integer = new BigInteger(number);
+        if (integer.bitLength() < Integer.SIZE) {
+            return integer.intValue();
+        }
+        return integer.bitLength() < Long.SIZE ? (Number) integer.longValue() : integer;
+    }
+
+    /**
+     * Replaces the bodies of all request / response interactions of the given
+     * pact JSON by placeholders and appends their raw bytes to
+     * <code>bytes</code>. The start offset of every extracted body is added to
+     * <code>offsets</code>, its index is part of the placeholder.
+     */
+    static void extractBodies(JsonElement root, ByteArrayOutputStream bytes, List<Integer> offsets) {
+        JsonElement interactions = root.isJsonObject() ? root.getAsJsonObject().get("interactions") : null;
+        if (interactions != null && interactions.isJsonArray()) {
+            for (JsonElement interaction : (JsonArray) interactions) {
+                if (interaction.isJsonObject()) {
+                    extractMessageBody(interaction.getAsJsonObject().get("request"), bytes, offsets);
+                    extractMessageBody(interaction.getAsJsonObject().get("response"), bytes, offsets);
+                }
+            }
+        }
+    }
+
+    /**
+     * Associates the placeholder bodies of all request / response
+     * interactions of the given pact with the bodies of the given store.
+     */
+    static Pact register(Pact pact, PactBodyStore store) {
+        for (Object interaction : pact.getInteractions()) {
+            if (interaction instanceof RequestResponseInteraction) {
+                RequestResponseInteraction reqRes = (RequestResponseInteraction) interaction;
+                register(reqRes.getRequest() == null ? null : reqRes.getRequest().getBody(), store);
+                register(reqRes.getResponse() == null ? null : reqRes.getResponse().getBody(), store);
+            }
+        }
+        return pact;
+    }
+
+    /**
+     * The placeholder of the body with the given index and encoded value.
+     * Besides the index it contains a hash of the value, so placeholders of
+     * different bodies never compare equal.
+     */
+    static String placeholder(int index, byte[] encoded) {
+        return PLACEHOLDER + index + ':' + Hashing.murmur3_128().hashBytes(encoded);
+    }
+
+    /**
+     * The index of the body the given value is the placeholder of.
+     *
+     * @return The index of the body or <code>-1</code> if the value is no
+     * placeholder.
+     */
+    static int placeholderIndex(String value) {
+        return value == null || !value.startsWith(PLACEHOLDER) ? -1
+                : Integer.parseInt(value.substring(PLACEHOLDER.length(), value.indexOf(':', PLACEHOLDER.length())));
+    }
+
+    private static void extractMessageBody(JsonElement message, ByteArrayOutputStream bytes, List<Integer> offsets) {
+        if (message == null || !message.isJsonObject()) {
+            return;
+        }
+        String placeholder = extractBody(message.getAsJsonObject().get("body"), bytes, offsets);
+        if (placeholder != null) {
+            message.getAsJsonObject().add("body", new JsonPrimitive(placeholder));
+        }
+    }
+
+    /**
+     * Appends the raw bytes of the given body to <code>bytes</code>.
+     *
+     * @return The placeholder of the body or <code>null</code> if the body is
+     * missing or empty and is kept as is.
+     */
+    private static String extractBody(JsonElement body, ByteArrayOutputStream bytes, List<Integer> offsets) {
+        if (body == null || body.isJsonNull()) {
+            return null;
+        }
+
+        // String bodies are kept as is, all other bodies as their (compact) JSON, like the PactReader does
+        String value = body.isJsonPrimitive() && body.getAsJsonPrimitive().isString() ? body.getAsString()
+                : body.toString();
+        return value.isEmpty() ? null : appendBody(value, bytes, offsets);
+    }
+
+    private static String appendBody(String value, ByteArrayOutputStream bytes, List<Integer> offsets) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        String placeholder = placeholder(offsets.size(), encoded);
+        offsets.add(bytes.size());
+        bytes.write(encoded, 0, encoded.length);
+        return placeholder;
+    }
+
+    private static void register(OptionalBody body, PactBodyStore store) {
+        int index = body == null || !body.isPresent() ? -1 : placeholderIndex(body.getValue());
+        if (index < 0) {
+            return;
+        }
+        BODIES.put(body, new LazyBody(store, index));
+    }
+
+    /**
+     * Whether the given body is kept in a {@link PactBodyStore}.
+     *
+     * @param body The body.
+     * @return <code>true</code> if the body is decoded lazily.
+     */
+    public static boolean isLazy(OptionalBody body) {
+        return body != null && BODIES.containsKey(body);
+    }
+
+    /**
+     * Returns the value of the given body, decoding it if it is kept in a
+     * {@link PactBodyStore}.
+     *
+     * @param body The body.
+     * @return The value of the body, <code>null</code> if it is missing.
+     */
+    public static String value(OptionalBody body) {
+        if (body == null) {
+            return null;
+        }
+        LazyBody lazy = BODIES.get(body);
+        return lazy == null ? body.getValue() : lazy.store.body(lazy.index);
+    }
+
+    /**
+     * Returns the value of the given body like {@link #value(OptionalBody)}
+     * or the given default if the body is missing or empty.
+     *
+     * @param body         The body.
+     * @param defaultValue The default value.
+     * @return The value of the body or the default value.
+     */
+    public static String orElse(OptionalBody body, String defaultValue) {
+        if (body == null || !body.isPresent()) {
+            return defaultValue;
+        }
+        return value(body);
+    }
+
+    private static final class LazyBody {
+        private final PactBodyStore store;
+        private final int index;
+
+        private LazyBody(PactBodyStore store, int index) {
+            this.store = store;
+            this.index = index;
+        }
+    }
+}
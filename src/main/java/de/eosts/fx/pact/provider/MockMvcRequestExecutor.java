@@ -0,0 +1,60 @@
+package de.eosts.fx.pact.provider;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.Duration;
+
+/**
+ * The default {@link RequestExecutor} performing the requests with a
+ * {@link MockMvc}. If the handler started asynchronous processing (e.g. by
+ * returning a {@link java.util.concurrent.Callable},
+ * {@link org.springframework.web.context.request.async.DeferredResult} or
+ * {@link java.util.concurrent.CompletableFuture}), it waits for the result
+ * and performs the async dispatch, so the complete response is verified.
+ * <br>
+ * Waiting doesn't poll: the calling thread is parked until the handler sets
+ * its result or the timeout elapses, which then fails the verification.
+ */
+public class MockMvcRequestExecutor implements RequestExecutor {
+
+    /**
+     * The default time to wait for the result of an asynchronous request.
+     */
+    public static final Duration DEFAULT_ASYNC_TIMEOUT = Duration.ofSeconds(10);
+
+    private final MockMvc mockMvc;
+    private final Duration asyncTimeout;
+
+    /**
+     * Creates a {@link MockMvcRequestExecutor}.
+     *
+     * @param mockMvc      The {@link MockMvc} to perform the requests with.
+     * @param asyncTimeout The time to wait for the result of each asynchronous
+     *                     request.
+     */
+    public MockMvcRequestExecutor(MockMvc mockMvc, Duration asyncTimeout) {
+        this.mockMvc = mockMvc;
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    @Override
+    public ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        if (!result.getRequest().isAsyncStarted()) {
+            return actions;
+        }
+
+        try {
+            result.getAsyncResult(asyncTimeout.toMillis());
+        } catch (IllegalStateException e) {
+            throw new AssertionError("The asynchronous request to " + result.getRequest().getRequestURI()
+                    + " did not complete within " + asyncTimeout.toMillis() + " ms", e);
+        }
+        return mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result));
+    }
+}
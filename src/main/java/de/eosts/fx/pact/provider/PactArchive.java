@@ -0,0 +1,514 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * A precompiled, indexed archive of the pact files of a folder. The archive
+ * holds the parsed JSON of every pact in a compact binary form, so loading a
+ * pact from it skips the JSON parsing. The request and response bodies are
+ * stored as raw UTF-8 bytes next to the pact they belong to.
+ * <br>
+ * Archives are memory mapped read-only, so all JVMs of a build (e.g. the test
+ * forks of Gradle's <code>maxParallelForks</code>) share a single copy of the
+ * archive in the page cache. With a lazy {@link PactLoader.BodyMode} the
+ * bodies are decoded directly from the mapped archive.
+ * <br>
+ * An archive is created by {@link #compile(File)} (or by running this class
+ * with the pact folders as arguments) as {@value #FILE_NAME} within the pact
+ * folder. The {@link PactLoader} prefers an archived pact over its JSON file
+ * when the archive is newer than the file and has been compiled from a file
+ * of the same length, see {@link #isUpToDate(String, File)}.
+ * <br>
+ * File layout (big endian):
+ * <pre>
+ * header:  int magic, int format version, int entry count
+ * index:   per entry: string name, long source length, long offset, int size
+ * entries: int tree size, tree, int body count, int[body count + 1] offsets, bodies
+ * </pre>
+ * Strings are written as their UTF-8 byte count followed by the bytes, names
+ * are the paths of the pact files relative to the folder, separated by
+ * <code>/</code>.
+ */
+public class PactArchive {
+
+    /**
+     * The name of the archive within a pact folder.
+     */
+    public static final String FILE_NAME = "pacts.bin";
+
+    private static final int MAGIC = 0x50414354;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte BIG_INTEGER = 4;
+    private static final byte DECIMAL = 5;
+    private static final byte TRUE = 6;
+    private static final byte FALSE = 7;
+    private static final byte OBJECT = 8;
+    private static final byte ARRAY = 9;
+
+    private static final String FILE_EXTENSION = ".json";
+
+    private static final Map<String, PactArchive> OPENED = new ConcurrentHashMap<>();
+
+    private final File file;
+    private final long lastModified;
+    private final long length;
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> entries;
+
+    private PactArchive(File file, long lastModified, long length, ByteBuffer buffer) {
+        this.file = file;
+        this.lastModified = lastModified;
+        this.length = length;
+        this.buffer = buffer;
+
+        ByteBuffer header = buffer.duplicate();
+        if (header.remaining() < 12 || header.getInt() != MAGIC) {
+            throw new IllegalStateException("Not a pact archive: " + file);
+        }
+        int version = header.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported pact archive version " + version + ": " + file);
+        }
+        int count = header.getInt();
+        Map<String, Entry> index = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = readString(header);
+            index.put(name, new Entry(header.getLong(), header.getLong(), header.getInt()));
+        }
+        this.entries = Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Compiles all "*.json" files within the given folder and all of its
+     * sub-folders into the archive {@value #FILE_NAME} within the folder.
+     *
+     * @param folder The pact folder.
+     * @return The written archive.
+     * @throws IllegalStateException If a pact file can't be read or the
+     *                               archive can't be written.
+     */
+    public static File compile(File folder) {
+        File archive = new File(folder, FILE_NAME);
+        compile(folder, archive);
+        return archive;
+    }
+
+    /**
+     * Compiles all "*.json" files within the given folder and all of its
+     * sub-folders into the given archive. The archive is written to a
+     * temporary file first and moved into place afterwards, so concurrent
+     * readers never see a partially written archive.
+     *
+     * @param folder  The pact folder.
+     * @param archive The archive to write.
+     * @throws IllegalStateException If a pact file can't be read or the
+     *                               archive can't be written.
+     */
+    public static void compile(File folder, File archive) {
+        Path root = folder.toPath();
+        List<Path> sources;
+        try (Stream<Path> paths = Files.walk(root)) {
+            sources = paths.filter(p -> p.toString().endsWith(FILE_EXTENSION) && Files.isRegularFile(p)).sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot scan pact folder: " + folder, e);
+        }
+
+        List<String> names = newArrayList();
+        List<Long> sourceLengths = newArrayList();
+        List<byte[]> compiled = newArrayList();
+        for (Path source : sources) {
+            names.add(name(root, source));
+            try (Reader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+                sourceLengths.add(Files.size(source));
+                compiled.add(compileEntry(new JsonParser().parse(reader)));
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Cannot compile pact file: " + source, e);
+            }
+        }
+
+        try {
+            ByteArrayOutputStream index = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(index);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(names.size());
+            long indexSize = index.size();
+            for (String name : names) {
+                indexSize += 4 + name.getBytes(StandardCharsets.UTF_8).length + 8 + 8 + 4;
+            }
+            long offset = indexSize;
+            for (int i = 0; i < names.size(); i++) {
+                writeString(out, names.get(i));
+                out.writeLong(sourceLengths.get(i));
+                out.writeLong(offset);
+                out.writeInt(compiled.get(i).length);
+                offset += compiled.get(i).length;
+            }
+
+            Path target = archive.toPath().toAbsolutePath();
+            Path temp = Files.createTempFile(target.getParent(), FILE_NAME, ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    write(channel, ByteBuffer.wrap(index.toByteArray()));
+                    for (byte[] entry : compiled) {
+                        write(channel, ByteBuffer.wrap(entry));
+                    }
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write pact archive: " + archive, e);
+        }
+    }
+
+    /**
+     * Opens the given archive by memory mapping it read-only. An archive is
+     * only mapped once per JVM as long as it is not modified.
+     *
+     * @param archive The archive file.
+     * @return The opened {@link PactArchive}.
+     * @throws IllegalStateException If the file can't be read or is no
+     *                               valid archive.
+     */
+    public static PactArchive open(File archive) {
+        File file = archive.getAbsoluteFile();
+        long lastModified = file.lastModified();
+        long length = file.length();
+        PactArchive opened = OPENED.get(file.getPath());
+        if (opened != null && opened.lastModified == lastModified && opened.length == length) {
+            return opened;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            opened = new PactArchive(file, lastModified, length, buffer);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open pact archive: " + file, e);
+        }
+        OPENED.put(file.getPath(), opened);
+        return opened;
+    }
+
+    /**
+     * Opens the archive {@value #FILE_NAME} within the given folder if there
+     * is one.
+     *
+     * @param folder The pact folder.
+     * @return The opened {@link PactArchive} or <code>null</code> if the folder
+     *         contains no archive.
+     */
+    static PactArchive find(File folder) {
+        File archive = new File(folder, FILE_NAME);
+        return archive.isFile() ? open(archive) : null;
+    }
+
+    /**
+     * The names of the archived pacts, i.e. the paths of their files relative
+     * to the compiled folder.
+     *
+     * @return The names in the order of the archive.
+     */
+    public List<String> names() {
+        return newArrayList(entries.keySet());
+    }
+
+    /**
+     * Whether the archived pact with the given name may be used instead of
+     * the given pact file. This is the case if the archive is not older than
+     * the file and has been compiled from a file of the same length.
+     *
+     * @param name   The name of the archived pact.
+     * @param source The pact file.
+     * @return <code>true</code> if the archived pact is up to date.
+     */
+    public boolean isUpToDate(String name, File source) {
+        return isUpToDate(name, source.lastModified(), source.length());
+    }
+
+    /**
+     * Whether the archived pact with the given name may be used instead of a
+     * pact file with the given attributes, see
+     * {@link #isUpToDate(String, File)}.
+     *
+     * @param name               The name of the archived pact.
+     * @param sourceLastModified The last modification time of the pact file.
+     * @param sourceLength       The length of the pact file.
+     * @return <code>true</code> if the archived pact is up to date.
+     */
+    public boolean isUpToDate(String name, long sourceLastModified, long sourceLength) {
+        Entry entry = entries.get(name);
+        return entry != null && entry.sourceLength == sourceLength && lastModified >= sourceLastModified;
+    }
+
+    /**
+     * The name of the given pact file within the archive of the given folder.
+     *
+     * @param folder The compiled folder.
+     * @param source The pact file.
+     * @return The name of the pact file.
+     */
+    static String name(File folder, File source) {
+        return name(folder.getAbsoluteFile().toPath(), source.getAbsoluteFile().toPath());
+    }
+
+    private static String name(Path root, Path source) {
+        return root.relativize(source).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Loads the archived pact with the given name using the current
+     * {@link PactLoader#bodyMode()}.
+     *
+     * @param name The name of the archived pact.
+     * @return The loaded {@link Pact}.
+     * @throws IllegalStateException If the archive contains no pact with the
+     *                               given name.
+     */
+    public Pact load(String name) {
+        return load(name, PactLoader.bodyMode());
+    }
+
+    /**
+     * Loads the archived pact with the given name using the given
+     * {@link PactLoader.BodyMode}.
+     *
+     * @param name The name of the archived pact.
+     * @param mode The {@link PactLoader.BodyMode} to load the bodies with.
+     * @return The loaded {@link Pact}.
+     * @throws IllegalStateException If the archive contains no pact with the
+     *                               given name.
+     */
+    public Pact load(String name, PactLoader.BodyMode mode) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            throw new IllegalStateException("No pact " + name + " in archive " + file);
+        }
+
+        ByteBuffer data = buffer.duplicate();
+        data.limit((int) (entry.offset + entry.size));
+        data.position((int) entry.offset);
+        int treeSize = data.getInt();
+        ByteBuffer tree = data.slice();
+        tree.limit(treeSize);
+        data.position(data.position() + treeSize);
+
+        int[] offsets = new int[data.getInt() + 1];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = data.getInt();
+        }
+        PactBodyStore bodies = new PactBodyStore(data, offsets);
+
+        boolean lazy = mode != PactLoader.BodyMode.EAGER;
+        @SuppressWarnings("unchecked")
+        Map<String, Object> json = (Map<String, Object>) readValue(tree, lazy ? null : bodies);
+        Pact pact = PactLoader.toPact(json, new File(file.getParentFile(), name));
+        return lazy && bodies.size() > 0 ? LazyBodies.register(pact, bodies) : pact;
+    }
+
+    private static byte[] compileEntry(JsonElement root) throws IOException {
+        ByteArrayOutputStream bodies = new ByteArrayOutputStream();
+        List<Integer> offsets = newArrayList();
+        LazyBodies.extractBodies(root, bodies, offsets);
+        offsets.add(bodies.size());
+
+        ByteArrayOutputStream tree = new ByteArrayOutputStream();
+        writeValue(new DataOutputStream(tree), root);
+
+        ByteArrayOutputStream entry = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(entry);
+        out.writeInt(tree.size());
+        tree.writeTo(out);
+        out.writeInt(offsets.size() - 1);
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+        bodies.writeTo(out);
+        out.flush();
+        return entry.toByteArray();
+    }
+
+    private static void writeValue(DataOutputStream out, JsonElement value) throws IOException {
+        if (value == null || value.isJsonNull()) {
+            out.writeByte(NULL);
+        } else if (value.isJsonObject()) {
+            JsonObject object = value.getAsJsonObject();
+            out.writeByte(OBJECT);
+            out.writeInt(object.size());
+            for (Map.Entry<String, JsonElement> member : object.entrySet()) {
+                writeString(out, member.getKey());
+                writeValue(out, member.getValue());
+            }
+        } else if (value.isJsonArray()) {
+            JsonArray array = value.getAsJsonArray();
+            out.writeByte(ARRAY);
+            out.writeInt(array.size());
+            for (JsonElement element : array) {
+                writeValue(out, element);
+            }
+        } else {
+            writePrimitive(out, value.getAsJsonPrimitive());
+        }
+    }
+
+    /**
+     * Writes the given primitive with the type the Groovy JSON parser, that
+     * the {@link PactLoader} parses pact files with, would create for it.
+     */
+    private static void writePrimitive(DataOutputStream out, JsonPrimitive value) throws IOException {
+        if (value.isBoolean()) {
+            out.writeByte(value.getAsBoolean() ? TRUE : FALSE);
+        } else if (value.isString()) {
+            out.writeByte(STRING);
+            writeString(out, value.getAsString());
+        } else {
+            String number = value.getAsString();
+            if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0) {
+                out.writeByte(DECIMAL);
+                writeString(out, number);
+                return;
+            }
+            BigInteger integer = new BigInteger(number);
+            if (integer.bitLength() < Integer.SIZE) {
+                out.writeByte(INTEGER);
+                out.writeInt(integer.intValue());
+            } else if (integer.bitLength() < Long.SIZE) {
+                out.writeByte(LONG);
+                out.writeLong(integer.longValue());
+            } else {
+                out.writeByte(BIG_INTEGER);
+                writeString(out, number);
+            }
+        }
+    }
+
+    private static Object readValue(ByteBuffer in, PactBodyStore bodies) {
+        byte type = in.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readBody(readString(in), bodies);
+            case INTEGER:
+                return in.getInt();
+            case LONG:
+                return in.getLong();
+            case BIG_INTEGER:
+                return new BigInteger(readString(in));
+            case DECIMAL:
+                return new BigDecimal(readString(in));
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case OBJECT:
+                int size = in.getInt();
+                Map<String, Object> object = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    object.put(readString(in), readValue(in, bodies));
+                }
+                return object;
+            case ARRAY:
+                int length = in.getInt();
+                List<Object> array = newArrayList();
+                for (int i = 0; i < length; i++) {
+                    array.add(readValue(in, bodies));
+                }
+                return array;
+            default:
+                throw new IllegalStateException("Corrupt pact archive, unknown type " + type);
+        }
+    }
+
+    /**
+     * Replaces a body placeholder by the decoded body if <code>bodies</code>
+     * are given, otherwise the placeholder is kept for the {@link LazyBodies}.
+     */
+    private static String readBody(String value, PactBodyStore bodies) {
+        int index = bodies == null ? -1 : LazyBodies.placeholderIndex(value);
+        return index < 0 ? value : bodies.body(index);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        ByteBuffer bytes = in.slice();
+        int length = in.getInt();
+        bytes.position(4);
+        bytes.limit(4 + length);
+        in.position(in.position() + length);
+        return StandardCharsets.UTF_8.decode(bytes).toString();
+    }
+
+    private static void write(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * Compiles the pact folders given as arguments, e.g. from a build task
+     * that runs before the tests.
+     *
+     * @param args The pact folders to compile.
+     */
+    public static void main(String[] args) {
+        for (String folder : args) {
+            File archive = compile(new File(folder));
+            System.out.println("Compiled " + folder + " to " + archive);
+        }
+    }
+
+    private static final class Entry {
+        private final long sourceLength;
+        private final long offset;
+        private final int size;
+
+        private Entry(long sourceLength, long offset, int size) {
+            this.sourceLength = sourceLength;
+            this.offset = offset;
+            this.size = size;
+        }
+    }
+}
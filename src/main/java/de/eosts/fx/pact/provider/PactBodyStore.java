@@ -0,0 +1,92 @@
+package de.eosts.fx.pact.provider;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An immutable store of the raw UTF-8 bytes of pact bodies. All bodies of a
+ * pact are kept in one contiguous buffer, either on the heap or in a direct
+ * (off heap) buffer, and are addressed by their index. A body is only decoded
+ * to a {@link String} when it is requested.
+ */
+public class PactBodyStore {
+
+    private final ByteBuffer buffer;
+    private final int[] offsets;
+
+    /**
+     * Constructs a {@link PactBodyStore} from the given bytes.
+     *
+     * @param bytes   The concatenated bodies.
+     * @param offsets The start offsets of the bodies in <code>bytes</code>,
+     *                followed by the end offset of the last body.
+     * @param offHeap Set to <code>true</code> to keep the bytes in a direct
+     *                buffer outside of the heap.
+     */
+    public PactBodyStore(byte[] bytes, int[] offsets, boolean offHeap) {
+        ByteBuffer buffer;
+        if (offHeap) {
+            buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes);
+            buffer.flip();
+        } else {
+            buffer = ByteBuffer.wrap(bytes);
+        }
+        this.buffer = buffer.asReadOnlyBuffer();
+        this.offsets = offsets.clone();
+    }
+
+    /**
+     * Constructs a {@link PactBodyStore} over the given buffer without copying
+     * it, e.g. over a region of a memory mapped {@link PactArchive}.
+     *
+     * @param buffer  The concatenated bodies between position and limit.
+     * @param offsets The start offsets of the bodies relative to the position
+     *                of <code>buffer</code>, followed by the end offset of the
+     *                last body.
+     */
+    public PactBodyStore(ByteBuffer buffer, int[] offsets) {
+        this.buffer = buffer.slice().asReadOnlyBuffer();
+        this.offsets = offsets.clone();
+    }
+
+    /**
+     * Decodes the body with the given index.
+     *
+     * @param index The index of the body.
+     * @return The decoded body.
+     */
+    public String body(int index) {
+        ByteBuffer body = buffer.duplicate();
+        body.limit(offsets[index + 1]);
+        body.position(offsets[index]);
+        return StandardCharsets.UTF_8.decode(body).toString();
+    }
+
+    /**
+     * The number of stored bodies.
+     *
+     * @return The number of bodies.
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * The number of bytes of all stored bodies.
+     *
+     * @return The number of bytes.
+     */
+    public int byteSize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Whether the bodies are kept outside of the heap.
+     *
+     * @return <code>true</code> if the bodies are kept in a direct buffer.
+     */
+    public boolean isOffHeap() {
+        return buffer.isDirect();
+    }
+}
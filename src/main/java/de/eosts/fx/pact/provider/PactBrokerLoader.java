@@ -0,0 +1,256 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Loads the latest {@link Pact}s of a provider from a Pact Broker. Every
+ * document fetched from the broker is kept in a local cache directory together
+ * with its <code>ETag</code>, and later requests are sent as conditional
+ * requests (<code>If-None-Match</code>), so unchanged pacts are not downloaded
+ * again. If the broker can't be reached or responds with a server error
+ * (5xx), the cached documents are used.
+ * <br>
+ * The pacts are fetched concurrently, either on the given
+ * {@link ExecutorService} or on a few threads of their own. The cached pact
+ * files are parsed with {@link PactLoader#loadPactsByFile(File, boolean, boolean)},
+ * so unchanged pacts are taken from the JVM wide {@link PactCache}.
+ * <br>
+ * The cache directory is configured by the system property
+ * {@value #CACHE_DIRECTORY_PROPERTY} and defaults to
+ * <code>pact-broker-cache</code> within <code>java.io.tmpdir</code>.
+ */
+public class PactBrokerLoader {
+
+    /**
+     * The system property to configure the cache directory.
+     */
+    public static final String CACHE_DIRECTORY_PROPERTY = "pact.broker.cacheDir";
+
+    private static final int FETCH_THREADS = 4;
+    private static final int TIMEOUT_MILLIS = 10000;
+    private static final String JSON_EXTENSION = ".json";
+    private static final String ETAG_EXTENSION = ".etag";
+
+    private final String brokerUrl;
+    private final Path cacheDirectory;
+
+    /**
+     * Creates a {@link PactBrokerLoader} for the given broker keeping its
+     * cache in the given directory.
+     *
+     * @param brokerUrl      The base URL of the Pact Broker.
+     * @param cacheDirectory The directory of the local cache.
+     */
+    public PactBrokerLoader(String brokerUrl, File cacheDirectory) {
+        this.brokerUrl = brokerUrl.endsWith("/") ? brokerUrl.substring(0, brokerUrl.length() - 1) : brokerUrl;
+        this.cacheDirectory = cacheDirectory.toPath();
+    }
+
+    /**
+     * Creates a {@link PactBrokerLoader} for the given broker keeping its
+     * cache in the directory given by the system property
+     * {@value #CACHE_DIRECTORY_PROPERTY}.
+     *
+     * @param brokerUrl The base URL of the Pact Broker.
+     * @return The {@link PactBrokerLoader}.
+     */
+    public static PactBrokerLoader of(String brokerUrl) {
+        String directory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+        return new PactBrokerLoader(brokerUrl, directory == null || directory.isEmpty()
+                ? new File(System.getProperty("java.io.tmpdir"), "pact-broker-cache") : new File(directory));
+    }
+
+    /**
+     * The directory of the local cache.
+     *
+     * @return The cache directory.
+     */
+    public File cacheDirectory() {
+        return cacheDirectory.toFile();
+    }
+
+    /**
+     * Loads the latest {@link Pact}s of the given provider. If tags are given,
+     * the latest {@link Pact} of each consumer for each tag is loaded,
+     * otherwise the latest {@link Pact} of each consumer.
+     *
+     * @param provider The name of the provider.
+     * @param tags     The tags of the consumer versions.
+     * @return The {@link Pact}s.
+     * @throws IllegalStateException In case the pacts can't be loaded and are
+     *                               not cached.
+     */
+    public List<Pact> load(String provider, String... tags) {
+        return load(provider, Arrays.asList(tags), true, null);
+    }
+
+    /**
+     * Loads the latest {@link Pact}s of the given provider, see
+     * {@link #load(String, String...)}.
+     *
+     * @param provider The name of the provider.
+     * @param tags     The tags of the consumer versions.
+     * @param useCache Whether to take the parsed {@link Pact}s from the JVM
+     *                 wide {@link PactCache}.
+     * @param executor The {@link ExecutorService} to fetch the pacts on or
+     *                 <code>null</code> to use a few threads of their own.
+     * @return The {@link Pact}s.
+     * @throws IllegalStateException In case the pacts can't be loaded and are
+     *                               not cached.
+     */
+    public List<Pact> load(String provider, List<String> tags, boolean useCache, ExecutorService executor) {
+        Set<String> pactUrls = new LinkedHashSet<>();
+        String latestUrl = brokerUrl + "/pacts/provider/" + encode(provider) + "/latest";
+        if (tags.isEmpty()) {
+            pactUrls.addAll(pactUrls(fetch(latestUrl)));
+        } else {
+            tags.forEach(tag -> pactUrls.addAll(pactUrls(fetch(latestUrl + "/" + encode(tag)))));
+        }
+
+        ExecutorService fetchExecutor = executor != null ? executor
+                : Executors.newFixedThreadPool(Math.max(1, Math.min(FETCH_THREADS, pactUrls.size())), runnable -> {
+                    Thread thread = new Thread(runnable, "pact-broker-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            return PactLoader.loadAll(newArrayList(pactUrls),
+                    url -> PactLoader.loadPactsByFile(fetch(url).toFile(), false, useCache).get(0), Function.identity(),
+                    fetchExecutor);
+        } finally {
+            if (executor == null) {
+                fetchExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Fetches the document with the given URL into the cache using a
+     * conditional request if it is cached already.
+     *
+     * @return The cached document.
+     */
+    Path fetch(String url) {
+        String key = Hashing.sha256().hashString(url, StandardCharsets.UTF_8).toString();
+        Path document = cacheDirectory.resolve(key + JSON_EXTENSION);
+        Path etag = cacheDirectory.resolve(key + ETAG_EXTENSION);
+        boolean cached = Files.isRegularFile(document);
+
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            connection.setRequestProperty("Accept", "application/hal+json, application/json");
+            if (cached && Files.isRegularFile(etag)) {
+                connection.setRequestProperty("If-None-Match",
+                        new String(Files.readAllBytes(etag), StandardCharsets.UTF_8));
+            }
+
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached) {
+                connection.disconnect();
+                return document;
+            }
+            if (status >= HttpURLConnection.HTTP_INTERNAL_ERROR && cached) {
+                // The broker is unavailable, fall back to the cached document
+                connection.disconnect();
+                return document;
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                connection.disconnect();
+                throw new IllegalStateException("Pact Broker responded with status " + status + " to " + url);
+            }
+
+            byte[] body;
+            try (InputStream in = connection.getInputStream()) {
+                body = ByteStreams.toByteArray(in);
+            }
+            Files.createDirectories(cacheDirectory);
+            write(document, body);
+            String newEtag = connection.getHeaderField("ETag");
+            if (newEtag != null) {
+                write(etag, newEtag.getBytes(StandardCharsets.UTF_8));
+            } else {
+                Files.deleteIfExists(etag);
+            }
+            return document;
+        } catch (IOException e) {
+            if (cached) {
+                // Offline, fall back to the cached document
+                return document;
+            }
+            throw new UncheckedIOException("Cannot fetch " + url + " from the Pact Broker", e);
+        }
+    }
+
+    private static List<String> pactUrls(Path index) {
+        JsonElement links;
+        try {
+            links = new JsonParser().parse(new String(Files.readAllBytes(index), StandardCharsets.UTF_8))
+                    .getAsJsonObject().get("_links");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the cached Pact Broker index " + index, e);
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IllegalStateException("Invalid Pact Broker index " + index, e);
+        }
+
+        List<String> urls = newArrayList();
+        if (links == null || !links.isJsonObject()) {
+            return urls;
+        }
+        JsonObject linkObject = links.getAsJsonObject();
+        JsonElement pacts = linkObject.has("pb:pacts") ? linkObject.get("pb:pacts") : linkObject.get("pacts");
+        if (pacts != null && pacts.isJsonArray()) {
+            for (JsonElement pact : (JsonArray) pacts) {
+                urls.add(pact.getAsJsonObject().get("href").getAsString());
+            }
+        }
+        return urls;
+    }
+
+    private static void write(Path file, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String encode(String segment) {
+        try {
+            return URLEncoder.encode(segment, "UTF-8").replace("+", "%20");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package de.eosts.fx.pact.provider;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import au.com.dius.pact.model.Pact;
+
+/**
+ * A JVM wide cache of parsed {@link Pact}s. Entries are keyed by the resolved
+ * location of the pact source together with a version marker (last modified
+ * time and length or a content hash), so a changed source is parsed again.
+ * <br>
+ * The cache is bounded in two ways: it holds at most {@link #maxEntries()}
+ * entries (least recently used entries are evicted first) and the
+ * {@link Pact}s are only softly referenced, so the garbage collector can
+ * reclaim them under memory pressure.
+ * <br>
+ * Cached {@link Pact}s are shared between all users of the cache and must be
+ * treated as read-only.
+ */
+public class PactCache {
+
+    /**
+     * The system property to configure the maximum number of cached pacts.
+     */
+    public static final String MAX_ENTRIES_PROPERTY = "pact.cache.maxEntries";
+
+    private static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final Map<Key, SoftReference<Pact>> entries;
+    private volatile int maxEntries;
+
+    /**
+     * Constructs a {@link PactCache} holding at most the given number of
+     * entries.
+     *
+     * @param maxEntries The maximum number of cached {@link Pact}s.
+     */
+    @SuppressWarnings("serial")
+    public PactCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, SoftReference<Pact>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SoftReference<Pact>> eldest) {
+                return size() > PactCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Constructs a {@link PactCache} whose size is configured by the system
+     * property {@value #MAX_ENTRIES_PROPERTY}.
+     *
+     * @return The new {@link PactCache}.
+     */
+    static PactCache fromSystemProperties() {
+        return new PactCache(Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES));
+    }
+
+    /**
+     * Returns the cached {@link Pact} for the given <code>location</code> and
+     * <code>version</code> or loads it with the given <code>loader</code> if
+     * it is not cached or has been reclaimed.
+     *
+     * @param location The resolved location of the pact source.
+     * @param version  A marker that changes whenever the source changes.
+     * @param loader   The function to load the {@link Pact} on a cache miss.
+     * @return The cached or freshly loaded {@link Pact}.
+     */
+    public Pact get(String location, String version, Supplier<Pact> loader) {
+        Key key = new Key(location, version);
+        Pact pact;
+        synchronized (entries) {
+            pact = dereference(entries.get(key));
+        }
+        if (pact != null) {
+            return pact;
+        }
+
+        // Parsing happens outside the lock, concurrent misses for the same key
+        // may parse twice, but never block each other.
+        pact = loader.get();
+        synchronized (entries) {
+            Pact existing = dereference(entries.get(key));
+            if (existing != null) {
+                return existing;
+            }
+            entries.put(key, new SoftReference<>(pact));
+        }
+        return pact;
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * The number of entries currently held by the cache, including entries
+     * whose {@link Pact} has already been reclaimed.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * The maximum number of entries held by the cache.
+     *
+     * @return The maximum number of entries.
+     */
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Sets the maximum number of entries held by the cache. Exceeding entries
+     * are evicted on the next insert.
+     *
+     * @param maxEntries The maximum number of entries.
+     * @return Returns the current {@link PactCache}.
+     */
+    public PactCache maxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    private static Pact dereference(SoftReference<Pact> reference) {
+        return reference == null ? null : reference.get();
+    }
+
+    private static final class Key {
+        private final String location;
+        private final String version;
+
+        private Key(String location, String version) {
+            this.location = location;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return location.equals(other.location) && version.equals(other.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(location, version);
+        }
+    }
+}
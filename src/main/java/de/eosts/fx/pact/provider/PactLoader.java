@@ -1,27 +1,109 @@
 package de.eosts.fx.pact.provider;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourcePatternUtils;
 
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import au.com.dius.pact.model.FileSource;
+import au.com.dius.pact.model.InputStreamPactSource;
 import au.com.dius.pact.model.Pact;
 import au.com.dius.pact.model.PactReader;
+import groovy.json.JsonSlurper;
 
 import static com.google.common.collect.Lists.newArrayList;
 
 /**
  * Utility class providing functionality to access pact files and converting the contents to {@link Pact}s.
+ * <br>
+ * All loading methods optionally use a JVM wide {@link PactCache}, so pact files that are referenced by several
+ * tests are only parsed once as long as they are not modified. Folder scans can optionally parse the found pact
+ * files concurrently on a given {@link ExecutorService}.
+ * <br>
+ * Pact files in the file system (including resources resolving to files) are read through NIO: folders are walked
+ * once, reusing the file attributes of the walk for the cache, and the files are streamed from a {@link FileChannel}
+ * into the parser, large files are memory mapped and decoded incrementally.
+ * <br>
+ * By default all request and response bodies are materialized when a pact is
+ * parsed. With a lazy {@link #bodyMode(BodyMode)} the bodies are kept as raw
+ * bytes and only decoded when a verification needs them, see
+ * {@link LazyBodies}.
+ * <br>
+ * Folder scans prefer the pacts of a precompiled {@link PactArchive} within
+ * the folder over the JSON files, as long as the archive is up to date.
  */
 public class PactLoader {
 
+    /**
+     * The system property to configure the initial {@link BodyMode}, one of
+     * the names of the {@link BodyMode} constants.
+     */
+    public static final String BODY_MODE_PROPERTY = "pact.loader.bodyMode";
+
     private static final String FILE_EXTENSION = ".json";
+
+    /**
+     * Pact files of at least this size are memory mapped for parsing.
+     */
+    private static final long MAP_THRESHOLD = 1024 * 1024;
+
+    private static final PactCache CACHE = PactCache.fromSystemProperties();
+
+    private static volatile BodyMode bodyMode = BodyMode
+            .valueOf(System.getProperty(BODY_MODE_PROPERTY, BodyMode.EAGER.name()));
+
+    /**
+     * Defines how the request and response bodies of parsed pacts are held.
+     */
+    public enum BodyMode {
+        /**
+         * Bodies are materialized as {@link String}s when the pact is parsed.
+         */
+        EAGER,
+        /**
+         * Bodies are kept as raw bytes on the heap and decoded on demand.
+         */
+        LAZY_HEAP,
+        /**
+         * Bodies are kept as raw bytes outside of the heap and decoded on
+         * demand.
+         */
+        LAZY_OFF_HEAP
+    }
     
     private PactLoader() {
 		// Not intended to instantiate utility class
@@ -43,8 +125,24 @@ public class PactLoader {
      * @return Returns the found {@link Pact} from the given resource.
      */
     public static Pact loadPactByResource(String pactResource) {
+        return loadPactByResource(pactResource, false);
+    }
+
+    /**
+     * Loads the {@link Pact} from the given <code>pactResource</code> as
+     * described in {@link #loadPactByResource(String)}. If
+     * <code>useCache</code> is set, an already parsed and unmodified pact is
+     * taken from the {@link #cache()}.
+     *
+     * @param pactResource
+     *            The resource location.
+     * @param useCache
+     *            Set to <code>true</code> to use the JVM wide {@link PactCache}.
+     * @return Returns the found {@link Pact} from the given resource.
+     */
+    public static Pact loadPactByResource(String pactResource, boolean useCache) {
         Resource resource = new DefaultResourceLoader().getResource(pactResource);
-        return PactReader.loadPact(resourceToInStream(resource));
+        return loadPact(resource, useCache);
     }
 
     /**
@@ -93,6 +191,55 @@ public class PactLoader {
      * @return Returns the found {@link Pact}s within the given folder.
      */
     public static List<Pact> loadPactsByResourceFolder(String pactFolder, boolean recursive) {
+        return loadPactsByResourceFolder(pactFolder, recursive, false);
+    }
+
+    /**
+     * Loads all {@link Pact}s from "*.json" files within the given
+     * <code>pactFolder</code> as described in
+     * {@link #loadPactsByResourceFolder(String, boolean)}. If
+     * <code>useCache</code> is set, already parsed and unmodified pacts are
+     * taken from the {@link #cache()}.
+     *
+     * @param pactFolder
+     *            The resource folder location.
+     * @param recursive
+     *            Set to <code>true</code> if all sub-folders should be scanned
+     *            for pact files recursively.
+     * @param useCache
+     *            Set to <code>true</code> to use the JVM wide {@link PactCache}.
+     * @return Returns the found {@link Pact}s within the given folder.
+     */
+    public static List<Pact> loadPactsByResourceFolder(String pactFolder, boolean recursive, boolean useCache) {
+        return loadPactsByResourceFolder(pactFolder, recursive, useCache, null);
+    }
+
+    /**
+     * Loads all {@link Pact}s from "*.json" files within the given
+     * <code>pactFolder</code> as described in
+     * {@link #loadPactsByResourceFolder(String, boolean, boolean)}. If an
+     * <code>executor</code> is given, the found files are parsed concurrently
+     * on it. The {@link Pact}s are returned in the order the files were found,
+     * regardless of the executor.
+     *
+     * @param pactFolder
+     *            The resource folder location.
+     * @param recursive
+     *            Set to <code>true</code> if all sub-folders should be scanned
+     *            for pact files recursively.
+     * @param useCache
+     *            Set to <code>true</code> to use the JVM wide {@link PactCache}.
+     * @param executor
+     *            The {@link ExecutorService} to parse the files on or
+     *            <code>null</code> to parse them one after another in the
+     *            calling thread.
+     * @return Returns the found {@link Pact}s within the given folder.
+     * @throws IllegalStateException
+     *             If any of the found files can't be loaded. The errors of all
+     *             files are aggregated into that exception.
+     */
+    public static List<Pact> loadPactsByResourceFolder(String pactFolder, boolean recursive, boolean useCache,
+            ExecutorService executor) {
         StringBuilder locationPattern = new StringBuilder(pactFolder);
         if (recursive) {
             locationPattern.append("/**");
@@ -107,8 +254,11 @@ public class PactLoader {
         } catch (IOException e) {
             throw new IllegalStateException("Cannot load pact pactresources matching: " + locationPattern, e);
         }
-        return Arrays.stream(resources).map(r -> PactReader.loadPact(resourceToInStream(r)))
-                .collect(Collectors.toList());
+
+        File folder = resourceFolder(pactFolder);
+        PactArchive archive = folder == null ? null : PactArchive.find(folder);
+        return loadAll(Arrays.asList(resources), r -> loadPact(r, useCache, folder, archive), Resource::getDescription,
+                executor);
     }
 
     /**
@@ -148,22 +298,143 @@ public class PactLoader {
      * @return Returns the found {@link Pact}s.
      */
     public static List<Pact> loadPactsByFile(File file, boolean recursive) {
+        return loadPactsByFile(file, recursive, false);
+    }
+
+    /**
+     * Loads all {@link Pact}s from the given <code>file</code> as described in
+     * {@link #loadPactsByFile(File, boolean)}. If <code>useCache</code> is
+     * set, already parsed and unmodified pacts are taken from the
+     * {@link #cache()}.
+     *
+     * @param file
+     *            The file pointing to a pact file or a folder containing pact
+     *            files.
+     * @param recursive
+     *            Set to <code>true</code> if all sub-folders should be scanned
+     *            for pact files recursively.
+     * @param useCache
+     *            Set to <code>true</code> to use the JVM wide {@link PactCache}.
+     * @return Returns the found {@link Pact}s.
+     */
+    public static List<Pact> loadPactsByFile(File file, boolean recursive, boolean useCache) {
+        return loadPactsByFile(file, recursive, useCache, null);
+    }
+
+    /**
+     * Loads all {@link Pact}s from the given <code>file</code> as described in
+     * {@link #loadPactsByFile(File, boolean, boolean)}. If an
+     * <code>executor</code> is given, the found files are parsed concurrently
+     * on it. The {@link Pact}s are returned in the order the files were found,
+     * regardless of the executor.
+     *
+     * @param file
+     *            The file pointing to a pact file or a folder containing pact
+     *            files.
+     * @param recursive
+     *            Set to <code>true</code> if all sub-folders should be scanned
+     *            for pact files recursively.
+     * @param useCache
+     *            Set to <code>true</code> to use the JVM wide {@link PactCache}.
+     * @param executor
+     *            The {@link ExecutorService} to parse the files on or
+     *            <code>null</code> to parse them one after another in the
+     *            calling thread.
+     * @return Returns the found {@link Pact}s.
+     * @throws IllegalStateException
+     *             If any of the found files can't be loaded. The errors of all
+     *             files are aggregated into that exception.
+     */
+    public static List<Pact> loadPactsByFile(File file, boolean recursive, boolean useCache,
+            ExecutorService executor) {
         if (file == null || !file.exists()) {
             return newArrayList();
         }
 
         if (file.isFile()) {
-            return newArrayList(PactReader.loadPact(file));
+            return newArrayList(loadPact(file, useCache));
         }
 
-        File[] files = file
-                .listFiles(f -> (f.isDirectory() && recursive) || (f.isFile() && f.getName().endsWith(FILE_EXTENSION)));
-        if (files != null) {
-            return Arrays.stream(files).flatMap(f -> loadPactsByFile(f, recursive).stream())
+        List<PactFile> files = collectPactFiles(file.toPath(), recursive);
+        PactArchive archive = PactArchive.find(file);
+        return loadAll(files, f -> loadPact(f, useCache, file, archive), PactFile::toString, executor);
+    }
+
+    /**
+     * Collects all "*.json" files within the given folder in a single walk.
+     * The attributes read by the walk are kept, so the files don't need to be
+     * accessed again to check for modifications.
+     */
+    private static List<PactFile> collectPactFiles(Path folder, boolean recursive) {
+        List<PactFile> result = newArrayList();
+        try {
+            Files.walkFileTree(folder, EnumSet.of(FileVisitOption.FOLLOW_LINKS), recursive ? Integer.MAX_VALUE : 1,
+                    new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult visitFile(Path path, BasicFileAttributes attributes) {
+                            if (attributes.isRegularFile() && path.getFileName().toString().endsWith(FILE_EXTENSION)) {
+                                result.add(new PactFile(path, attributes));
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path path, IOException e) {
+                            // Unreadable files and folders (or link cycles) are skipped
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot scan pact folder: " + folder, e);
+        }
+        return result;
+    }
+
+    /**
+     * Loads all given <code>sources</code> either in the calling thread or on
+     * the given <code>executor</code>. The result keeps the order of the
+     * sources. All failures are collected and reported together.
+     */
+    static <T> List<Pact> loadAll(List<T> sources, Function<T, Pact> loader, Function<T, String> describer,
+            ExecutorService executor) {
+        List<Pact> pacts = newArrayList();
+        List<String> failedSources = newArrayList();
+        List<Throwable> failures = newArrayList();
+
+        if (executor == null) {
+            for (T source : sources) {
+                try {
+                    pacts.add(loader.apply(source));
+                } catch (RuntimeException e) {
+                    failedSources.add(describer.apply(source));
+                    failures.add(e);
+                }
+            }
+        } else {
+            List<Future<Pact>> futures = sources.stream().map(source -> executor.submit(() -> loader.apply(source)))
                     .collect(Collectors.toList());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    pacts.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    failedSources.add(describer.apply(sources.get(i)));
+                    failures.add(e.getCause());
+                } catch (InterruptedException e) {
+                    futures.forEach(f -> f.cancel(true));
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while loading pact files", e);
+                }
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            IllegalStateException exception = new IllegalStateException(
+                    "Cannot load pact files: " + String.join(", ", failedSources), failures.get(0));
+            failures.stream().skip(1).forEach(exception::addSuppressed);
+            throw exception;
         }
 
-        return newArrayList();
+        return pacts;
     }
 
     /**
@@ -179,6 +450,294 @@ public class PactLoader {
         return PactReader.loadPact(source);
     }
 
+    /**
+     * Loads the {@link Pact}s defined by the given {@link PactSource}: all
+     * {@link PactSource#files()} and all pact files within the
+     * {@link PactSource#folders()} (including sub-folders), filtered by the
+     * {@link PactSource#provider()} and {@link PactSource#consumer()}. The
+     * {@link Pact}s are taken from the JVM wide {@link #cache()}.
+     *
+     * @param source
+     *            The {@link PactSource} to load the pacts from.
+     * @return The loaded {@link Pact}s in the order of their definition, each
+     *         {@link Pact} only once.
+     * @throws IllegalStateException
+     *             If no {@link PactSource} is given or any of the files can't be loaded.
+     */
+    public static List<Pact> loadPacts(PactSource source) {
+        if (source == null) {
+            throw new IllegalStateException("No PactSource given to load the pacts from");
+        }
+
+        List<Pact> loaded = newArrayList();
+        for (String file : source.files()) {
+            loaded.add(loadPactByResource(file, true));
+        }
+        for (String folder : source.folders()) {
+            loaded.addAll(loadPactsByResourceFolder(folder, true, true));
+        }
+
+        Set<Pact> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        return loaded.stream()
+                .filter(seen::add)
+                .filter(pact -> matches(source.provider(), pact.getProvider() == null ? null : pact.getProvider().getName()))
+                .filter(pact -> matches(source.consumer(), pact.getConsumer() == null ? null : pact.getConsumer().getName()))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean matches(String filter, String name) {
+        return filter.isEmpty() || filter.equals(name);
+    }
+
+    /**
+     * The JVM wide {@link PactCache} used by all loading methods that are
+     * called with <code>useCache</code> set to <code>true</code>.
+     *
+     * @return The JVM wide {@link PactCache}.
+     */
+    public static PactCache cache() {
+        return CACHE;
+    }
+
+    /**
+     * The {@link BodyMode} used for parsing pact files and resources.
+     *
+     * @return The current {@link BodyMode}.
+     */
+    public static BodyMode bodyMode() {
+        return bodyMode;
+    }
+
+    /**
+     * Sets the {@link BodyMode} used for parsing pact files and resources.
+     * Pacts are cached per mode, so pacts cached in another mode are parsed
+     * again. Lazily loaded bodies
+     * must be read by {@link LazyBodies#value(au.com.dius.pact.model.OptionalBody)}.
+     *
+     * @param mode The {@link BodyMode} to use.
+     */
+    public static void bodyMode(BodyMode mode) {
+        bodyMode = mode == null ? BodyMode.EAGER : mode;
+    }
+
+    /**
+     * Parses the given pact file. Small files are streamed through a
+     * {@link FileChannel}, files of at least {@link #MAP_THRESHOLD} bytes are
+     * memory mapped and decoded incrementally, so only the decoder's buffer
+     * and not the whole file is copied to the heap.
+     */
+    private static Pact parse(Path path, long size, BodyMode mode) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                Reader reader = reader(channel, size)) {
+            if (mode == BodyMode.EAGER) {
+                return toPact(new JsonSlurper().parse(reader), path.toFile());
+            }
+            return LazyBodies.loadPact(reader, new FileSource(path.toFile()), mode == BodyMode.LAZY_OFF_HEAP);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load pact file: " + path, e);
+        }
+    }
+
+    private static Reader reader(FileChannel channel, long size) throws IOException {
+        if (size < MAP_THRESHOLD) {
+            return Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1);
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        return Channels.newReader(new BufferChannel(buffer), StandardCharsets.UTF_8.newDecoder(), -1);
+    }
+
+    /**
+     * A {@link ReadableByteChannel} reading the remaining bytes of a
+     * {@link ByteBuffer}, so a mapped file can be decoded by a
+     * {@link Channels#newReader(ReadableByteChannel, java.nio.charset.CharsetDecoder, int) channel reader}.
+     */
+    private static class BufferChannel implements ReadableByteChannel {
+
+        private final ByteBuffer buffer;
+        private boolean open = true;
+
+        BufferChannel(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read(ByteBuffer target) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(buffer.remaining(), target.remaining());
+            ByteBuffer chunk = buffer.duplicate();
+            chunk.limit(chunk.position() + count);
+            target.put(chunk);
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    /**
+     * Converts the parsed JSON of a pact file to a {@link Pact} of the
+     * specification version given by its metadata, like
+     * {@link PactReader#loadPact(Object)} does.
+     *
+     * @param json   The parsed JSON.
+     * @param source The pact file.
+     * @return The {@link Pact}.
+     */
+    static Pact toPact(Object json, File source) {
+        return toPact(json, new FileSource(source));
+    }
+
+    /**
+     * Converts the parsed JSON of a pact to a {@link Pact} of the
+     * specification version given by its metadata.
+     *
+     * @param json   The parsed JSON.
+     * @param source The source of the pact.
+     * @return The {@link Pact}.
+     */
+    static Pact toPact(Object json, au.com.dius.pact.model.PactSource source) {
+        Object metadata = json instanceof Map ? ((Map<?, ?>) json).get("metadata") : null;
+        Object specification = metadata instanceof Map ? ((Map<?, ?>) metadata).get("pact-specification") : null;
+        Object version = specification instanceof Map ? ((Map<?, ?>) specification).get("version") : null;
+        if (version != null && version.toString().startsWith("3")) {
+            return PactReader.loadV3Pact(source, json);
+        }
+        return PactReader.loadV2Pact(source, json);
+    }
+
+    private static Pact parse(InputStream in, BodyMode mode) {
+        if (mode == BodyMode.EAGER) {
+            return PactReader.loadPact(in);
+        }
+        try (InputStream stream = in) {
+            return LazyBodies.loadPact(ByteStreams.toByteArray(stream), InputStreamPactSource.INSTANCE,
+                    mode == BodyMode.LAZY_OFF_HEAP);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load pact file", e);
+        }
+    }
+
+    private static Pact loadPact(File file, boolean useCache) {
+        if (!useCache) {
+            return parse(file.toPath(), file.length(), bodyMode);
+        }
+        long length = file.length();
+        String version = file.lastModified() + ":" + length;
+        return cached(file.getAbsolutePath(), version, mode -> parse(file.toPath(), length, mode));
+    }
+
+    private static Pact loadPact(Resource resource, boolean useCache) {
+        File file = resourceFile(resource);
+        if (file != null && file.isFile()) {
+            if (!useCache) {
+                return parse(file.toPath(), file.length(), bodyMode);
+            }
+            long length = file.length();
+            String version = file.lastModified() + ":" + length;
+            return cached(resourceLocation(resource), version, mode -> parse(file.toPath(), length, mode));
+        }
+
+        if (!useCache) {
+            return parse(resourceToInStream(resource), bodyMode);
+        }
+
+        String location = resourceLocation(resource);
+        try {
+            long lastModified = resource.lastModified();
+            if (lastModified > 0) {
+                String version = lastModified + ":" + resource.contentLength();
+                return cached(location, version, mode -> parse(resourceToInStream(resource), mode));
+            }
+        } catch (IOException e) {
+            // No modification time available (e.g. for resources within archives), use the content hash instead
+        }
+
+        byte[] content = resourceToBytes(resource);
+        String version = Hashing.sha256().hashBytes(content).toString();
+        return cached(location, version, mode -> parse(new ByteArrayInputStream(content), mode));
+    }
+
+    /**
+     * Loads the {@link Pact} of the given file within the given folder from
+     * the {@link PactArchive} of the folder if the archive is up to date,
+     * otherwise the file is parsed.
+     */
+    private static Pact loadPact(PactFile file, boolean useCache, File folder, PactArchive archive) {
+        String name = archive == null ? null : PactArchive.name(folder, file.path.toFile());
+        Function<BodyMode, Pact> loader = name != null && archive.isUpToDate(name, file.lastModified(), file.size())
+                ? mode -> archive.load(name, mode) : mode -> parse(file.path, file.size(), mode);
+        if (!useCache) {
+            return loader.apply(bodyMode);
+        }
+        return cached(file.path.toAbsolutePath().toString(), file.lastModified() + ":" + file.size(), loader);
+    }
+
+    private static Pact loadPact(Resource resource, boolean useCache, File folder, PactArchive archive) {
+        File file = archive == null ? null : resourceFile(resource);
+        String name = file == null ? null : PactArchive.name(folder, file);
+        if (name == null || !archive.isUpToDate(name, file)) {
+            return loadPact(resource, useCache);
+        }
+        if (!useCache) {
+            return archive.load(name, bodyMode);
+        }
+        String version = file.lastModified() + ":" + file.length();
+        return cached(resourceLocation(resource), version, mode -> archive.load(name, mode));
+    }
+
+    /**
+     * Takes the {@link Pact} from the {@link #CACHE}. The current
+     * {@link BodyMode} is part of the key, so a pact parsed in one mode is
+     * never returned in another.
+     */
+    private static Pact cached(String location, String version, Function<BodyMode, Pact> loader) {
+        BodyMode mode = bodyMode;
+        return CACHE.get(location, version + ":" + mode, () -> loader.apply(mode));
+    }
+
+    static File resourceFolder(String pactFolder) {
+        File folder = resourceFile(new DefaultResourceLoader().getResource(pactFolder));
+        return folder != null && folder.isDirectory() ? folder : null;
+    }
+
+    private static File resourceFile(Resource resource) {
+        try {
+            return resource.getFile();
+        } catch (IOException e) {
+            // Not available in the file system (e.g. within an archive)
+            return null;
+        }
+    }
+
+    private static String resourceLocation(Resource resource) {
+        try {
+            return resource.getURL().toExternalForm();
+        } catch (IOException e) {
+            return resource.getDescription();
+        }
+    }
+
+    private static byte[] resourceToBytes(Resource resource) {
+        try (InputStream in = resourceToInStream(resource)) {
+            return ByteStreams.toByteArray(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load pact file: " + resource.getDescription(), e);
+        }
+    }
+
     private static InputStream resourceToInStream(Resource resource) {
         try {
             return resource.getInputStream();
@@ -186,4 +745,30 @@ public class PactLoader {
             throw new IllegalStateException("Cannot load pact file: " + resource.getDescription(), e);
         }
     }
+
+    /**
+     * A pact file found by a folder walk together with its attributes.
+     */
+    private static final class PactFile {
+        private final Path path;
+        private final BasicFileAttributes attributes;
+
+        private PactFile(Path path, BasicFileAttributes attributes) {
+            this.path = path;
+            this.attributes = attributes;
+        }
+
+        private long lastModified() {
+            return attributes.lastModifiedTime().toMillis();
+        }
+
+        private long size() {
+            return attributes.size();
+        }
+
+        @Override
+        public String toString() {
+            return path.toString();
+        }
+    }
 }
@@ -7,10 +7,15 @@ import org.junit.runners.model.Statement;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -52,6 +57,7 @@ public class PactMockMvcRule implements TestRule {
     private PactTestRunner runner = null;
     private List<Runnable> beforeCallbacks = newArrayList();
     private List<Runnable> afterCallbacks = newArrayList();
+    private List<VerificationListener> listeners = newArrayList();
 
     /**
      * Constructs a {@link PactMockMvcRule} without any available {@link Pact}s.
@@ -79,6 +85,7 @@ public class PactMockMvcRule implements TestRule {
             @Override
             public void evaluate() throws Throwable {
                 runner = new PactTestRunner(pacts);
+                runner.addListeners(listeners.toArray(new VerificationListener[0]));
 
                 beforeCallbacks.forEach(Runnable::run);
                 try {
@@ -138,6 +145,15 @@ public class PactMockMvcRule implements TestRule {
         return runner;
     }
 
+    /**
+     * Gets a copy of the {@link Pact}s available to this rule.
+     *
+     * @return The available set of {@link Pact}s.
+     */
+    public Set<Pact> pacts() {
+        return newHashSet(pacts);
+    }
+
     /**
      * Creates a {@link PactMockMvcRuleBuilder} to build a
      * {@link PactMockMvcRule}.
@@ -171,34 +187,107 @@ public class PactMockMvcRule implements TestRule {
         this.afterCallbacks.addAll(afterCallbacks);
     }
 
+    /**
+     * Adds {@link VerificationListener}s that are registered at the
+     * {@link PactTestRunner} of every test.
+     */
+    public void addListeners(List<VerificationListener> listeners) {
+        this.listeners.addAll(listeners);
+    }
+
     /**
      * A builder for the {@link PactMockMvcRule} that helps to extract
-     * {@link Pact}s from files and / or folders.
+     * {@link Pact}s from files and / or folders. The pact sources are loaded
+     * when the rule is built. By default already parsed pacts are taken from
+     * the JVM wide {@link PactLoader#cache()}, so the pacts are only parsed
+     * once even though JUnit creates a new rule for every test method.
      */
     public static class PactMockMvcRuleBuilder {
-        private Set<Pact> pacts = new HashSet<>();
+        private List<Supplier<Collection<Pact>>> pactSources = newArrayList();
         private String consumer;
         private String provider;
+        private boolean useCache = true;
+        private boolean watchFolders = false;
+        private ExecutorService loadingExecutor = null;
         private List<Runnable> beforeCallbacks = newArrayList();
         private List<Runnable> afterCallbacks = newArrayList();
+        private List<VerificationListener> listeners = newArrayList();
 
         public PactMockMvcRuleBuilder withFile(String pactFile) {
-            pacts.add(PactLoader.loadPactByResource(pactFile));
+            pactSources.add(() -> newArrayList(PactLoader.loadPactByResource(pactFile, useCache)));
             return this;
         }
 
         public PactMockMvcRuleBuilder withAllFrom(String pactFolder) {
-            pacts.addAll(PactLoader.loadPactsByResourceFolder(pactFolder));
+            pactSources.add(() -> {
+                File folder = watchFolders ? PactLoader.resourceFolder(pactFolder) : null;
+                return folder != null ? PactWatcher.of(folder).pacts()
+                        : PactLoader.loadPactsByResourceFolder(pactFolder, true, useCache, loadingExecutor);
+            });
             return this;
         }
 
         public PactMockMvcRuleBuilder withAllFrom(File pactFile) {
-            pacts.addAll(PactLoader.loadPactsByFile(pactFile));
+            pactSources.add(() -> watchFolders && pactFile.isDirectory() ? PactWatcher.of(pactFile).pacts()
+                    : PactLoader.loadPactsByFile(pactFile, true, useCache, loadingExecutor));
+            return this;
+        }
+
+        /**
+         * Loads the latest pacts of the given provider from a Pact Broker,
+         * restricted to the consumer versions with the given tags if any. The
+         * pacts are cached locally and only downloaded again if they changed,
+         * see {@link PactBrokerLoader}.
+         */
+        public PactMockMvcRuleBuilder withBroker(String brokerUrl, String provider, String... tags) {
+            pactSources.add(() -> PactBrokerLoader.of(brokerUrl).load(provider, Arrays.asList(tags), useCache,
+                    loadingExecutor));
             return this;
         }
 
         public PactMockMvcRuleBuilder withPactSource(String pactSource) {
-            pacts.add(PactLoader.loadPactGeneric(pactSource));
+            pactSources.add(() -> newArrayList(PactLoader.loadPactGeneric(pactSource)));
+            return this;
+        }
+
+        /**
+         * Disables the JVM wide {@link PactCache}, so all pact sources are
+         * parsed again when the rule is built.
+         */
+        public PactMockMvcRuleBuilder withoutCache() {
+            this.useCache = false;
+            return this;
+        }
+
+        /**
+         * Parses the pact files found by {@link #withAllFrom(String)} and
+         * {@link #withAllFrom(File)} concurrently on the common
+         * {@link ForkJoinPool}.
+         */
+        public PactMockMvcRuleBuilder withParallelLoading() {
+            return withParallelLoading(ForkJoinPool.commonPool());
+        }
+
+        /**
+         * Parses the pact files found by {@link #withAllFrom(String)} and
+         * {@link #withAllFrom(File)} concurrently on the given
+         * {@link ExecutorService}. Set to <code>null</code> to parse them one
+         * after another.
+         */
+        public PactMockMvcRuleBuilder withParallelLoading(ExecutorService executor) {
+            this.loadingExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Watches the folders given to {@link #withAllFrom(String)} and
+         * {@link #withAllFrom(File)} with a shared {@link PactWatcher}, so
+         * every rule built afterwards gets the current pacts, while only the
+         * changed pact files are parsed again. Resource folders that are not
+         * in the file system are loaded as usual.
+         */
+        public PactMockMvcRuleBuilder withFolderWatching() {
+            this.watchFolders = true;
             return this;
         }
 
@@ -212,6 +301,16 @@ public class PactMockMvcRule implements TestRule {
             return this;
         }
 
+        /**
+         * Registers a {@link VerificationListener}, e.g. a
+         * {@link VerificationReport}, at the {@link PactTestRunner} of every
+         * test.
+         */
+        public PactMockMvcRuleBuilder withListener(VerificationListener listener) {
+            this.listeners.add(listener);
+            return this;
+        }
+
         public PactMockMvcRuleBuilder forConsumer(String consumer) {
             this.consumer = consumer;
             return this;
@@ -223,6 +322,8 @@ public class PactMockMvcRule implements TestRule {
         }
 
         public PactMockMvcRule build() {
+            Set<Pact> pacts = new HashSet<>();
+            pactSources.forEach(source -> pacts.addAll(source.get()));
             Stream<Pact> pactStream = pacts.stream();
 
             if (provider != null) {
@@ -235,6 +336,7 @@ public class PactMockMvcRule implements TestRule {
             PactMockMvcRule pactMockMvcRule = new PactMockMvcRule(pactStream.collect(Collectors.toList()));
             pactMockMvcRule.addBeforeCallbacks(this.beforeCallbacks);
             pactMockMvcRule.addAfterCallbacks(this.afterCallbacks);
+            pactMockMvcRule.addListeners(this.listeners);
             return pactMockMvcRule;
         }
     }
@@ -0,0 +1,55 @@
+package de.eosts.fx.pact.provider;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Defines the {@link au.com.dius.pact.model.Pact}s verified by a test class
+ * run by the {@link PactSuiteRunner}. The locations are given in the format
+ * described in {@link PactLoader#loadPactByResource(String)} and
+ * {@link PactLoader#loadPactsByResourceFolder(String)}.
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+public @interface PactSource {
+
+    /**
+     * The pact files to load.
+     */
+    String[] files() default {};
+
+    /**
+     * The folders to load all pact files from, including sub-folders.
+     */
+    String[] folders() default {};
+
+    /**
+     * The provider name to filter the pacts, empty to consider all pacts.
+     */
+    String provider() default "";
+
+    /**
+     * The consumer name to filter the pacts, empty to consider all pacts.
+     */
+    String consumer() default "";
+
+    /**
+     * The context path of the requests, empty if the application is not
+     * deployed under a context path.
+     */
+    String contextPath() default "";
+
+    /**
+     * Whether the {@link PactSuiteRunner} verifies the interactions grouped by
+     * their provider state, setting up and tearing down each state only once
+     * for all interactions of the group. The per test method lifecycle
+     * (<code>&#064;Before</code>, <code>&#064;After</code>, spring test
+     * method callbacks) then runs once per group as well. By default each
+     * interaction sets up and tears down its state on its own.
+     */
+    boolean groupByState() default false;
+}
@@ -0,0 +1,506 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import org.junit.internal.AssumptionViolatedException;
+import org.junit.runner.Description;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * A JUnit runner verifying all {@link Interaction}s of the {@link Pact}s
+ * defined by the {@link PactSource} annotation of the test class, without
+ * writing a test method per interaction. Each {@link Interaction} is reported
+ * as a test of its own.
+ * <br>
+ * Before an {@link Interaction} is verified, the methods annotated with
+ * {@link State} for its provider state are called, afterwards the methods
+ * annotated with {@link StateTearDown}. With
+ * {@link PactSource#groupByState()} the interactions are ordered by their
+ * provider state instead, and each group of interactions with the same state
+ * is run as one test method: the <code>&#064;Before</code> and
+ * <code>&#064;After</code> methods and the spring test method callbacks (e.g.
+ * the transaction of a <code>&#064;Transactional</code> test) run once around
+ * the whole group, and the state is set up once before the first and torn
+ * down once after the last interaction of the group. So expensive states are
+ * not set up for every interaction, and nothing reverts them in between. The
+ * interactions of a group are still reported as tests of their own. The
+ * requests are sent to the {@link MockMvc} held by a field of the test class,
+ * which is read after the <code>&#064;Before</code> methods have run.
+ * <br>
+ * The runner extends the {@link SpringJUnit4ClassRunner}, so the test class is
+ * configured like any other spring test. A single test instance is created
+ * and injected for all interactions of the class, so all interactions are
+ * verified against the same {@link MockMvc}. Regular <code>&#064;Test</code>
+ * methods are run as well, each on a new instance as usual.
+ * <br>
+ * If a JVM wide {@link InteractionSharding} is configured by system
+ * properties, the {@link Interaction}s of other shards are reported as
+ * ignored.
+ * <br>
+ * Example of usage:
+ * <pre>
+ * &#064;RunWith(PactSuiteRunner.class)
+ * &#064;PactSource(folders = "classpath:pacts", provider = "my-provider")
+ * &#064;WebMvcTest(controllers = MyController.class)
+ * public class MyProviderPactTest {
+ *     &#064;Autowired
+ *     private MockMvc mockMvc;
+ *
+ *     &#064;State("I have an entity with ID 10")
+ *     public void entityExists() {
+ *         // prepare the mocks
+ *     }
+ * }
+ * </pre>
+ */
+public class PactSuiteRunner extends SpringJUnit4ClassRunner {
+
+    private static final Method INTERACTION_METHOD;
+
+    static {
+        try {
+            INTERACTION_METHOD = InteractionMethod.class.getDeclaredMethod("interaction");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Pact> pacts;
+    private List<FrameworkMethod> interactionMethods;
+    private Set<Interaction> shard;
+    private final List<Filter> filters = newArrayList();
+    private final Set<FrameworkMethod> groupedMethodsRun = Collections.newSetFromMap(new IdentityHashMap<>());
+    private PactTestRunner runner;
+    private Object testInstance;
+    private final ThreadLocal<Boolean> sharedTestInstance = new ThreadLocal<>();
+
+    /**
+     * Constructs a {@link PactSuiteRunner} for the given test class.
+     *
+     * @param clazz The test class.
+     * @throws InitializationError In case the test class is invalid.
+     */
+    public PactSuiteRunner(Class<?> clazz) throws InitializationError {
+        super(clazz);
+    }
+
+    @Override
+    protected void collectInitializationErrors(List<Throwable> errors) {
+        super.collectInitializationErrors(errors);
+        validatePublicVoidNoArgMethods(State.class, false, errors);
+        validatePublicVoidNoArgMethods(StateTearDown.class, false, errors);
+        if (getTestClass().getJavaClass().getAnnotation(PactSource.class) == null) {
+            errors.add(new Exception("The test class must be annotated with @PactSource"));
+        }
+    }
+
+    @Override
+    protected List<FrameworkMethod> computeTestMethods() {
+        List<FrameworkMethod> methods = newArrayList(super.computeTestMethods());
+        methods.addAll(interactionMethods());
+        return methods;
+    }
+
+    /**
+     * Ignores the {@link Interaction}s that belong to other shards than the
+     * one of this JVM.
+     */
+    @Override
+    protected boolean isTestMethodIgnored(FrameworkMethod method) {
+        if (method instanceof InteractionMethod) {
+            Set<Interaction> selected = shard();
+            if (selected != null && !selected.contains(((InteractionMethod) method).interaction)) {
+                return true;
+            }
+        }
+        return super.isTestMethodIgnored(method);
+    }
+
+    /**
+     * Returns the single test instance that is shared by all
+     * {@link Interaction}s of the class. It is created and prepared by the
+     * spring test context on first access. Other test methods get an instance
+     * of their own.
+     */
+    @Override
+    protected Object createTest() throws Exception {
+        if (!Boolean.TRUE.equals(sharedTestInstance.get())) {
+            return super.createTest();
+        }
+        if (testInstance == null) {
+            testInstance = super.createTest();
+        }
+        return testInstance;
+    }
+
+    /**
+     * Notes whether the given method runs on the shared test instance, the
+     * test is created within the statement creation.
+     */
+    @Override
+    protected Statement methodBlock(FrameworkMethod method) {
+        sharedTestInstance.set(method instanceof InteractionMethod || method instanceof StateGroup);
+        try {
+            return super.methodBlock(method);
+        } finally {
+            sharedTestInstance.remove();
+        }
+    }
+
+    @Override
+    public void filter(Filter filter) throws NoTestsRemainException {
+        super.filter(filter);
+        filters.add(filter);
+    }
+
+    /**
+     * Runs the whole state group of the given {@link Interaction} method, if
+     * the interactions are grouped by state and the group has not been run
+     * yet, see {@link #runStateGroup(List, RunNotifier)}.
+     */
+    @Override
+    protected void runChild(FrameworkMethod method, RunNotifier notifier) {
+        if (!(method instanceof InteractionMethod) || !groupByState()) {
+            super.runChild(method, notifier);
+            return;
+        }
+        if (groupedMethodsRun.contains(method)) {
+            return;
+        }
+        if (isTestMethodIgnored(method)) {
+            groupedMethodsRun.add(method);
+            notifier.fireTestIgnored(describeChild(method));
+            return;
+        }
+
+        String state = ((InteractionMethod) method).state;
+        List<InteractionMethod> group = newArrayList();
+        for (FrameworkMethod each : interactionMethods()) {
+            InteractionMethod member = (InteractionMethod) each;
+            if (member.state.equals(state) && !groupedMethodsRun.contains(member) && !isTestMethodIgnored(member)
+                    && shouldRun(member)) {
+                group.add(member);
+            }
+        }
+        groupedMethodsRun.addAll(group);
+        runStateGroup(group, notifier);
+    }
+
+    private boolean shouldRun(FrameworkMethod method) {
+        Description description = describeChild(method);
+        return filters.stream().allMatch(filter -> filter.shouldRun(description));
+    }
+
+    /**
+     * Runs the given {@link Interaction} methods of one provider state as a
+     * single test method: the per method lifecycle of JUnit and the spring
+     * test context wraps the whole group, within it the state is set up, all
+     * interactions are verified and the state is torn down. Each interaction
+     * is reported as a test of its own, failures of the lifecycle before the
+     * first interaction are reported for all interactions, failures after the
+     * last interaction for the last one.
+     *
+     * @param group    The {@link Interaction} methods with the same state.
+     * @param notifier The notifier to report the interactions to.
+     */
+    private void runStateGroup(List<InteractionMethod> group, RunNotifier notifier) {
+        StateGroup stateGroup = new StateGroup(group, notifier);
+        try {
+            methodBlock(stateGroup).evaluate();
+        } catch (Throwable e) {
+            stateGroup.failRemaining(e);
+        } finally {
+            stateGroup.finish();
+        }
+    }
+
+    @Override
+    protected Statement methodInvoker(FrameworkMethod method, Object test) {
+        if (method instanceof StateGroup) {
+            return new Statement() {
+                @Override
+                public void evaluate() throws Throwable {
+                    ((StateGroup) method).verify(test);
+                }
+            };
+        }
+        return super.methodInvoker(method, test);
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        try {
+            super.run(notifier);
+        } finally {
+            if (runner != null) {
+                for (VerificationListener listener : runner.listeners()) {
+                    listener.runFinished(runner);
+                }
+            }
+        }
+    }
+
+    /**
+     * The {@link Pact}s defined by the {@link PactSource} annotation of the
+     * test class, see {@link PactLoader#loadPacts(PactSource)}.
+     *
+     * @return The {@link Pact}s to verify.
+     */
+    protected List<Pact> pacts() {
+        if (pacts == null) {
+            pacts = PactLoader.loadPacts(getTestClass().getJavaClass().getAnnotation(PactSource.class));
+        }
+        return pacts;
+    }
+
+    private Set<Interaction> shard() {
+        if (shard == null) {
+            InteractionSharding sharding = InteractionSharding.fromSystemProperties();
+            shard = sharding == null ? null : InteractionIndex.of(pacts()).shard(sharding);
+        }
+        return shard;
+    }
+
+    private boolean groupByState() {
+        return getTestClass().getJavaClass().getAnnotation(PactSource.class).groupByState();
+    }
+
+    private List<FrameworkMethod> interactionMethods() {
+        if (interactionMethods == null) {
+            // Grouped by the provider state in the order of their first interaction
+            Map<String, List<FrameworkMethod>> groups = new LinkedHashMap<>();
+            boolean grouped = groupByState();
+            for (Pact pact : pacts()) {
+                for (Interaction interaction : pact.getInteractions()) {
+                    InteractionMethod method = new InteractionMethod(pact, interaction);
+                    groups.computeIfAbsent(grouped ? method.state : "", s -> newArrayList()).add(method);
+                }
+            }
+            List<FrameworkMethod> methods = newArrayList();
+            groups.values().forEach(methods::addAll);
+            interactionMethods = methods;
+        }
+        return interactionMethods;
+    }
+
+    private static String stateKey(String providerState) {
+        return providerState == null ? "" : providerState.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Verifies the given {@link Interaction} after setting up its provider
+     * state and tears the state down afterwards. If the interactions are
+     * grouped by state, the state is set up and torn down once per group
+     * instead.
+     *
+     * @param test        The test instance.
+     * @param interaction The {@link Interaction} to verify.
+     * @throws Throwable In case the state setup, the verification or the
+     *                   tear down fails.
+     */
+    protected void verify(Object test, Interaction interaction) throws Throwable {
+        String providerState = ConversionUtils.providerState(interaction);
+        setUpState(test, providerState);
+        try {
+            runner(test).verify(interaction);
+        } finally {
+            tearDownState(test, providerState);
+        }
+    }
+
+    /**
+     * Calls all methods annotated with {@link State} for the given provider
+     * state.
+     *
+     * @param test          The test instance.
+     * @param providerState The provider state to set up, may be
+     *                      <code>null</code>.
+     * @throws Exception In case a state method fails.
+     * @throws IllegalStateException In case no method sets up the state.
+     */
+    protected void setUpState(Object test, String providerState) throws Exception {
+        StateMethods.of(getTestClass().getJavaClass()).setUp(test, providerState);
+    }
+
+    /**
+     * Calls all methods annotated with {@link StateTearDown} for the given
+     * provider state.
+     *
+     * @param test          The test instance.
+     * @param providerState The provider state to tear down, may be
+     *                      <code>null</code>.
+     * @throws Exception In case a tear down method fails.
+     */
+    protected void tearDownState(Object test, String providerState) throws Exception {
+        StateMethods.of(getTestClass().getJavaClass()).tearDown(test, providerState);
+    }
+
+    private PactTestRunner runner(Object test) throws IllegalAccessException {
+        if (runner == null) {
+            String contextPath = getTestClass().getJavaClass().getAnnotation(PactSource.class).contextPath();
+            runner = new PactTestRunner(pacts()).contextPath(contextPath.isEmpty() ? null : contextPath);
+        }
+        return runner.mockMvc(mockMvc(test));
+    }
+
+    private static MockMvc mockMvc(Object test) throws IllegalAccessException {
+        for (Class<?> type = test.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (MockMvc.class.isAssignableFrom(field.getType())) {
+                    field.setAccessible(true);
+                    return (MockMvc) field.get(test);
+                }
+            }
+        }
+        throw new IllegalStateException("No field of type MockMvc found in " + test.getClass().getName());
+    }
+
+    /**
+     * A test method verifying a single {@link Interaction}.
+     */
+    private class InteractionMethod extends FrameworkMethod {
+        private final Interaction interaction;
+        private final String state;
+        private final String name;
+
+        private InteractionMethod(Pact pact, Interaction interaction) {
+            super(INTERACTION_METHOD);
+            this.interaction = interaction;
+            this.state = stateKey(ConversionUtils.providerState(interaction));
+            this.name = ConversionUtils.displayName(pact, interaction);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Object invokeExplosively(Object target, Object... params) throws Throwable {
+            verify(target, interaction);
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+
+        @SuppressWarnings("unused")
+        private void interaction() {
+            // Placeholder for the method reported to JUnit and the spring test context
+        }
+    }
+
+    /**
+     * The test method verifying all {@link Interaction}s of one provider
+     * state. It reports each {@link Interaction} to the {@link RunNotifier},
+     * the last one is finished by {@link #finish()} after the whole test
+     * method, including the lifecycle around it, has run.
+     */
+    private class StateGroup extends FrameworkMethod {
+        private final List<InteractionMethod> members;
+        private final RunNotifier notifier;
+        private int started = 0;
+        private int finished = 0;
+
+        private StateGroup(List<InteractionMethod> members, RunNotifier notifier) {
+            super(INTERACTION_METHOD);
+            this.members = members;
+            this.notifier = notifier;
+        }
+
+        @Override
+        public String getName() {
+            return members.get(0).getName();
+        }
+
+        private void verify(Object test) throws Throwable {
+            String providerState = ConversionUtils.providerState(members.get(0).interaction);
+            start();
+            setUpState(test, providerState);
+            try {
+                for (int i = 0; i < members.size(); i++) {
+                    if (i > 0) {
+                        finishCurrent();
+                        start();
+                    }
+                    try {
+                        runner(test).verify(members.get(i).interaction);
+                    } catch (AssumptionViolatedException e) {
+                        notifier.fireTestAssumptionFailed(new Failure(current(), e));
+                    } catch (Throwable e) {
+                        notifier.fireTestFailure(new Failure(current(), e));
+                    }
+                }
+            } finally {
+                tearDownState(test, providerState);
+            }
+        }
+
+        private Description current() {
+            return describeChild(members.get(started - 1));
+        }
+
+        private void start() {
+            notifier.fireTestStarted(describeChild(members.get(started++)));
+        }
+
+        private void finishCurrent() {
+            notifier.fireTestFinished(describeChild(members.get(finished++)));
+        }
+
+        /**
+         * Reports the given failure of the lifecycle for the current and all
+         * remaining {@link Interaction}s.
+         */
+        private void failRemaining(Throwable e) {
+            if (started == finished) {
+                start();
+            }
+            while (true) {
+                if (e instanceof AssumptionViolatedException) {
+                    notifier.fireTestAssumptionFailed(new Failure(current(), e));
+                } else {
+                    notifier.fireTestFailure(new Failure(current(), e));
+                }
+                if (started == members.size()) {
+                    break;
+                }
+                finishCurrent();
+                start();
+            }
+        }
+
+        private void finish() {
+            if (started > finished) {
+                finishCurrent();
+            }
+        }
+    }
+}
@@ -5,25 +5,34 @@ import au.com.dius.pact.model.OptionalBody;
 import au.com.dius.pact.model.Pact;
 import au.com.dius.pact.model.RequestResponseInteraction;
 import au.com.dius.pact.model.Response;
+import de.eosts.fx.pact.provider.VerificationListener.Phase;
 import com.google.common.collect.Sets;
+import org.junit.AssumptionViolatedException;
 import org.junit.experimental.results.ResultMatchers;
+import org.junit.runners.model.MultipleFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
-import org.springframework.test.web.servlet.result.HeaderResultMatchers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.text.MessageFormat;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
 
 /**
@@ -38,14 +47,23 @@ public class PactTestRunner {
 
     private Set<Pact> pacts = newHashSet();
     private MockMvc mockMvc = null;
+    private RequestExecutor requestExecutor = null;
+    private Duration asyncTimeout = MockMvcRequestExecutor.DEFAULT_ASYNC_TIMEOUT;
     private String consumer = null;
     private String provider = null;
     private String providerState = null;
     private String interactionDescription = null;
+    private Interaction interaction = null;
     private String contextPath = null;
     private Consumer<? super MockHttpServletRequestBuilder> requestCallback = null;
     private Set<ResultMatcher> resultMatchers = newHashSet();
     private Consumer<? super ResultActions> responseCallback = null;
+    private ExecutorService verificationExecutor = null;
+    private List<VerificationListener> listeners = defaultListeners();
+    private VerificationCache verificationCache = VerificationCache.fromSystemProperties();
+    private InteractionSharding sharding = InteractionSharding.fromSystemProperties();
+    private boolean deduplicateRequests = false;
+    private InteractionIndex interactionIndex = null;
 
     /**
      * Constructor setting the available {@link Pact}s.
@@ -69,6 +87,20 @@ public class PactTestRunner {
         }
     }
 
+    /**
+     * Creates a {@link PactTestRunner} working on the given, already hashed
+     * set of {@link Pact}s without copying it, so runners created for many
+     * interactions of the same pacts don't hash all pacts again each.
+     *
+     * @param pacts The available {@link Pact}s, must not be modified.
+     * @return The new {@link PactTestRunner}.
+     */
+    static PactTestRunner sharing(Set<Pact> pacts) {
+        PactTestRunner runner = new PactTestRunner((Pact) null);
+        runner.pacts = pacts;
+        return runner;
+    }
+
     /**
      * This method does all the work. Depending on the parameters set, the
      * {@link Interaction}s are retrieved from the available {@link Pact}s and for each the
@@ -76,39 +108,322 @@ public class PactTestRunner {
      * validated against the response information from the {@link Interaction}.
      * Any configured callbacks will be called to intercept the execution
      * lifecycle.
+     * <br>
+     * If a {@link #verificationExecutor(ExecutorService)} is configured and
+     * more than one {@link Interaction} is found, the interactions are verified
+     * concurrently and all failures are reported together.
+     * <br>
+     * If {@link #deduplicateRequests(boolean)} is enabled, the
+     * {@link Interaction}s sending identical requests are verified together,
+     * see {@link #verify(List)}.
      *
      * @throws Throwable In case any error occurs during the execution.
      */
     public void run() throws Throwable {
-        List<Interaction> interactions = findInteractions();
+        try {
+            List<Interaction> interactions = findInteractions();
+            List<List<Interaction>> groups = deduplicateRequests ? groupByRequest(interactions)
+                    : interactions.stream().map(Collections::singletonList).collect(Collectors.toList());
+
+            if (verificationExecutor == null || groups.size() < 2) {
+                for (List<Interaction> group : groups) {
+                    verify(group);
+                }
+            } else {
+                verifyConcurrently(groups);
+            }
+        } finally {
+            for (VerificationListener listener : listeners) {
+                listener.runFinished(this);
+            }
+        }
+    }
 
-        for (Interaction interaction : interactions) {
-            Optional<MockHttpServletRequestBuilder> request = RequestBuilder.buildRequest(interaction);
+    /**
+     * Sends the request described by the given {@link Interaction} to the
+     * {@link MockMvc} and validates the response against the response
+     * information from the {@link Interaction}. The configured callbacks and
+     * additional {@link ResultMatcher}s are applied.
+     * <br>
+     * The request and the response matchers are taken from the
+     * {@link VerificationPlan} of the interaction, which is compiled only once.
+     * <br>
+     * If a {@link #verificationCache(VerificationCache)} is configured, an
+     * {@link Interaction} that passed before against the same provider
+     * classpath is skipped and reported as cached to the listeners.
+     *
+     * @param interaction The {@link Interaction} to verify.
+     * @throws Exception In case any error occurs during the execution.
+     */
+    public void verify(Interaction interaction) throws Exception {
+        VerificationCache cache = verificationCache;
+        String cacheKey = cache == null ? null
+                : cache.key(interaction, getClass().getName() + ":" + contextPath().orElse(""));
+        if (cacheKey != null && cache.contains(cacheKey)) {
+            for (VerificationListener listener : listeners) {
+                listener.interactionCached(interaction);
+            }
+            return;
+        }
+
+        for (VerificationListener listener : listeners) {
+            listener.interactionStarted(interaction);
+        }
+
+        Phase phase = Phase.LOOKUP;
+        long start = System.nanoTime();
+        try {
+            VerificationPlan plan = verificationPlan(interaction);
+            start = phaseCompleted(interaction, phase, start);
+
+            phase = Phase.REQUEST_BUILD;
+            Optional<MockHttpServletRequestBuilder> request = plan.newRequest();
             request.ifPresent(r -> r.contextPath(contextPath().orElse(null)));
 
             if (requestCallback != null) {
                 request.ifPresent(requestCallback);
             }
+            start = phaseCompleted(interaction, phase, start);
+            phase = null;
 
             if (request.isPresent()) {
-                MockMvc server = mockMvc().orElseThrow(
-                        () -> new IllegalStateException("A MockMvc must be provided to perform the request."));
+                RequestExecutor executor = executor();
 
-                ResultActions response = server.perform(request.get());
+                phase = Phase.PERFORM;
+                ResultActions response = executor.perform(request.get());
+                start = phaseCompleted(interaction, phase, start);
 
+                phase = Phase.MATCH;
                 if (responseCallback != null) {
                     responseCallback.accept(response);
                 }
 
-                Set<ResultMatcher> responseMatchers = responseMatchers(interaction);
-                responseMatchers.addAll(resultMatchers);
+                for (ResultMatcher matcher : plan.matchers()) {
+                    response.andExpect(matcher);
+                }
+                for (ResultMatcher matcher : resultMatchers) {
+                    response.andExpect(matcher);
+                }
+                phaseCompleted(interaction, phase, start);
+                phase = null;
+            }
+        } catch (Exception | Error e) {
+            if (phase != null) {
+                phaseCompleted(interaction, phase, start);
+            }
+            interactionFinished(interaction, e);
+            throw e;
+        }
+        if (cacheKey != null) {
+            cache.put(cacheKey);
+        }
+        interactionFinished(interaction, null);
+    }
+
+    /**
+     * Sends the request shared by all given {@link Interaction}s once and
+     * validates the single response against the response information of
+     * each {@link Interaction}, like {@link #verify(Interaction)} does for a
+     * single one. The request is built from the first {@link Interaction}
+     * that is not cached, so the request build and perform phases are only
+     * reported for that one. The listeners are notified about one
+     * {@link Interaction} after the other, as if they were verified one by
+     * one. The failures of all {@link Interaction}s are reported together.
+     *
+     * @param interactions The {@link Interaction}s with identical requests,
+     *                     see {@link VerificationPlan#requestKey()}.
+     * @throws Exception In case any error occurs during the execution.
+     */
+    public void verify(List<Interaction> interactions) throws Exception {
+        if (interactions.size() == 1) {
+            verify(interactions.get(0));
+            return;
+        }
+
+        VerificationCache cache = verificationCache;
+        List<Interaction> uncached = newArrayList();
+        List<String> cacheKeys = newArrayList();
+        for (Interaction interaction : interactions) {
+            String cacheKey = cache == null ? null
+                    : cache.key(interaction, getClass().getName() + ":" + contextPath().orElse(""));
+            if (cacheKey != null && cache.contains(cacheKey)) {
+                for (VerificationListener listener : listeners) {
+                    listener.interactionCached(interaction);
+                }
+            } else {
+                uncached.add(interaction);
+                cacheKeys.add(cacheKey);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return;
+        }
+
+        Interaction first = uncached.get(0);
+        for (VerificationListener listener : listeners) {
+            listener.interactionStarted(first);
+        }
+        Phase phase = Phase.LOOKUP;
+        long start = System.nanoTime();
+        VerificationPlan plan;
+        ResultActions response;
+        try {
+            plan = verificationPlan(first);
+            start = phaseCompleted(first, phase, start);
+
+            phase = Phase.REQUEST_BUILD;
+            MockHttpServletRequestBuilder request = plan.newRequest().orElseThrow(
+                    () -> new IllegalStateException("The interactions don't describe a request to share."));
+            request.contextPath(contextPath().orElse(null));
+            if (requestCallback != null) {
+                requestCallback.accept(request);
+            }
+            start = phaseCompleted(first, phase, start);
+
+            phase = Phase.PERFORM;
+            response = executor().perform(request);
+            start = phaseCompleted(first, phase, start);
+
+            // Part of the first interaction's match phase, the response is shared by all
+            phase = Phase.MATCH;
+            if (responseCallback != null) {
+                responseCallback.accept(response);
+            }
+        } catch (Exception | Error e) {
+            phaseCompleted(first, phase, start);
+            interactionFinished(first, e);
+            for (Interaction interaction : uncached.subList(1, uncached.size())) {
+                for (VerificationListener listener : listeners) {
+                    listener.interactionStarted(interaction);
+                }
+                interactionFinished(interaction, e);
+            }
+            throw e;
+        }
+
+        List<Throwable> failures = newArrayList();
+        for (int i = 0; i < uncached.size(); i++) {
+            Interaction interaction = uncached.get(i);
+            if (i > 0) {
+                for (VerificationListener listener : listeners) {
+                    listener.interactionStarted(interaction);
+                }
+                phase = Phase.LOOKUP;
+                start = System.nanoTime();
+            }
+            try {
+                if (i > 0) {
+                    plan = verificationPlan(interaction);
+                    start = phaseCompleted(interaction, phase, start);
+                }
 
-                for (ResultMatcher matcher : responseMatchers) {
+                phase = Phase.MATCH;
+                for (ResultMatcher matcher : plan.matchers()) {
                     response.andExpect(matcher);
                 }
+                for (ResultMatcher matcher : resultMatchers) {
+                    response.andExpect(matcher);
+                }
+            } catch (Exception | Error e) {
+                phaseCompleted(interaction, phase, start);
+                interactionFinished(interaction, e);
+                failures.add(new AssertionError(MessageFormat.format("Verification of interaction \"{0}\" failed: {1}",
+                        interaction.getDescription(), e.getMessage()), e));
+                continue;
+            }
+            phaseCompleted(interaction, phase, start);
+            if (cacheKeys.get(i) != null) {
+                cache.put(cacheKeys.get(i));
+            }
+            interactionFinished(interaction, null);
+        }
+
+        MultipleFailureException.assertEmpty(failures);
+    }
+
+    private RequestExecutor executor() {
+        if (requestExecutor != null) {
+            return requestExecutor;
+        }
+        return new MockMvcRequestExecutor(mockMvc().orElseThrow(
+                () -> new IllegalStateException("A MockMvc must be provided to perform the request.")), asyncTimeout);
+    }
+
+    private List<List<Interaction>> groupByRequest(List<Interaction> interactions) {
+        Map<List<Object>, List<Interaction>> groups = new LinkedHashMap<>();
+        List<List<Interaction>> result = newArrayList();
+        for (Interaction interaction : interactions) {
+            List<Object> requestKey = verificationPlan(interaction).requestKey();
+            if (requestKey == null) {
+                result.add(Collections.singletonList(interaction));
+            } else {
+                List<Interaction> group = groups.get(requestKey);
+                if (group == null) {
+                    group = newArrayList();
+                    groups.put(requestKey, group);
+                    result.add(group);
+                }
+                group.add(interaction);
+            }
+        }
+        return result;
+    }
+
+    private long phaseCompleted(Interaction interaction, Phase phase, long start) {
+        if (listeners.isEmpty()) {
+            return start;
+        }
+        long end = System.nanoTime();
+        for (VerificationListener listener : listeners) {
+            listener.phaseCompleted(interaction, phase, start, end);
+        }
+        return System.nanoTime();
+    }
+
+    private void interactionFinished(Interaction interaction, Throwable failure) {
+        for (VerificationListener listener : listeners) {
+            listener.interactionFinished(interaction, failure);
+        }
+    }
+
+    /**
+     * Returns the {@link VerificationPlan} of the given {@link Interaction}.
+     * The plan is compiled on first access using
+     * {@link #responseMatchers(Interaction)} and then cached alongside the
+     * available {@link Pact}s, so it's shared with all runners of the same type
+     * working on the same pacts.
+     *
+     * @param interaction The {@link Interaction} to get the plan for.
+     * @return The {@link VerificationPlan} of the interaction.
+     */
+    protected VerificationPlan verificationPlan(Interaction interaction) {
+        return interactionIndex().verificationPlan(interaction, getClass(),
+                i -> VerificationPlan.compile(i, this::responseMatchers));
+    }
+
+    private void verifyConcurrently(List<List<Interaction>> groups) throws Throwable {
+        List<Future<?>> futures = groups.stream().map(group -> verificationExecutor.submit(() -> {
+            verify(group);
+            return null;
+        })).collect(Collectors.toList());
+
+        List<Throwable> failures = newArrayList();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+            } catch (ExecutionException e) {
+                // The failures of a group name their interactions already
+                failures.add(groups.get(i).size() > 1 ? e.getCause() : new AssertionError(MessageFormat.format(
+                        "Verification of interaction \"{0}\" failed: {1}", groups.get(i).get(0).getDescription(),
+                        e.getCause().getMessage()), e.getCause()));
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw e;
             }
         }
 
+        MultipleFailureException.assertEmpty(failures);
     }
 
     /**
@@ -120,6 +435,16 @@ public class PactTestRunner {
         return newHashSet(pacts);
     }
 
+    /**
+     * Gets an unmodifiable view of the available {@link Pact}s, without
+     * hashing them again like {@link #pacts()}.
+     *
+     * @return The available {@link Pact}s.
+     */
+    Set<Pact> pactsView() {
+        return Collections.unmodifiableSet(pacts);
+    }
+
     /**
      * The consumer name to filter the {@link Pact}s.
      *
@@ -208,6 +533,30 @@ public class PactTestRunner {
         return this;
     }
 
+    /**
+     * The {@link Interaction} that is verified instead of looking up the
+     * interactions by provider state.
+     *
+     * @return The configured {@link Interaction}.
+     */
+    public Optional<Interaction> interaction() {
+        return Optional.ofNullable(interaction);
+    }
+
+    /**
+     * Sets the {@link Interaction} to verify. If set, only this interaction is
+     * verified and the provider state, description, consumer and provider
+     * filters are ignored. Set to <code>null</code> to look up the
+     * interactions again.
+     *
+     * @param interaction The {@link Interaction} to verify.
+     * @return Returns the current {@link PactTestRunner}.
+     */
+    public PactTestRunner interaction(Interaction interaction) {
+        this.interaction = interaction;
+        return this;
+    }
+
     /**
      * The {@link MockMvc} that is used to execute the requests.
      *
@@ -229,6 +578,52 @@ public class PactTestRunner {
         return this;
     }
 
+    /**
+     * The {@link RequestExecutor} that is used to execute the requests instead
+     * of the {@link MockMvc}.
+     *
+     * @return The configured {@link RequestExecutor}.
+     */
+    public Optional<RequestExecutor> requestExecutor() {
+        return Optional.ofNullable(requestExecutor);
+    }
+
+    /**
+     * Sets the {@link RequestExecutor} to use for executing the requests, e.g.
+     * a {@link DirectRequestExecutor}. If set, no {@link MockMvc} is required.
+     * Set to <code>null</code> to use the {@link MockMvc}.
+     *
+     * @param requestExecutor The {@link RequestExecutor} to use.
+     * @return Returns the current {@link PactTestRunner}.
+     */
+    public PactTestRunner requestExecutor(RequestExecutor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+        return this;
+    }
+
+    /**
+     * The time to wait for the result of an asynchronous request performed by
+     * the {@link MockMvc}.
+     *
+     * @return The configured timeout.
+     */
+    public Duration asyncTimeout() {
+        return asyncTimeout;
+    }
+
+    /**
+     * Sets the time to wait for the result of an asynchronous request of each
+     * {@link Interaction} performed by the {@link MockMvc}. If the handler
+     * doesn't complete within the timeout, the verification fails.
+     *
+     * @param asyncTimeout The timeout.
+     * @return Returns the current {@link PactTestRunner}.
+     */
+    public PactTestRunner asyncTimeout(Duration asyncTimeout) {
+        this.asyncTimeout = asyncTimeout;
+        return this;
+    }
+
     /**
      * The context path of the requests.
      *
@@ -330,41 +725,200 @@ public class PactTestRunner {
         return this;
     }
 
+    /**
+     * The {@link ExecutorService} used to verify several {@link Interaction}s
+     * concurrently.
+     *
+     * @return The configured {@link ExecutorService}.
+     */
+    public Optional<ExecutorService> verificationExecutor() {
+        return Optional.ofNullable(verificationExecutor);
+    }
+
+    /**
+     * Sets the {@link ExecutorService} to verify several {@link Interaction}s
+     * of the provider state concurrently against the configured
+     * {@link MockMvc}. The controllers and all configured callbacks must be
+     * thread-safe then. Set to <code>null</code> to verify the interactions
+     * one after another, which is the default.
+     *
+     * @param verificationExecutor The {@link ExecutorService} to use.
+     * @return Returns the current {@link PactTestRunner}.
+     */
+    public PactTestRunner verificationExecutor(ExecutorService verificationExecutor) {
+        this.verificationExecutor = verificationExecutor;
+        return this;
+    }
+
+    /**
+     * The {@link VerificationListener}s notified about the verification of
+     * each {@link Interaction}. If the system property
+     * {@value VerificationReport#FILE_PROPERTY} is set, the JVM wide
+     * {@link VerificationReport} is registered by default.
+     *
+     * @return The configured {@link VerificationListener}s.
+     */
+    public List<VerificationListener> listeners() {
+        return listeners;
+    }
+
+    /**
+     * Adds {@link VerificationListener}s that are notified about the
+     * verification of each {@link Interaction}. If the interactions are
+     * verified concurrently the listeners must be thread-safe.
+     *
+     * @param listeners The {@link VerificationListener}s to add.
+     * @return Returns the current {@link PactTestRunner}.
+     */
+    public PactTestRunner addListeners(VerificationListener... listeners) {
+        for (VerificationListener listener : listeners) {
+            if (!this.listeners.contains(listener)) {
+                this.listeners.add(listener);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * The {@link VerificationCache} used to skip {@link Interaction}s that
+     * passed before. If the system property
+     * {@value VerificationCache#DIRECTORY_PROPERTY} is set, the JVM wide
+     * {@link VerificationCache} is used by default.
+     *
+     * @return The configured {@link VerificationCache}.
+     */
+    public Optional<VerificationCache> verificationCache() {
+        return Optional.ofNullable(verificationCache);
+    }
+
+    /**
+     * Sets the {@link VerificationCache} used to skip {@link Interaction}s
+     * that passed before. Set to <code>null</code> to verify all interactions.
+     *
+     * @param verificationCache The {@link VerificationCache} to use.
+     * @return Returns the current {@link PactTestRunner}.
+     */
+    public PactTestRunner verificationCache(VerificationCache verificationCache) {
+        this.verificationCache = verificationCache;
+        return this;
+    }
+
+    /**
+     * The {@link InteractionSharding} selecting the {@link Interaction}s to
+     * verify in this JVM. If the system property
+     * {@value InteractionSharding#COUNT_PROPERTY} is set, the JVM wide
+     * {@link InteractionSharding} is used by default.
+     *
+     * @return The configured {@link InteractionSharding}.
+     */
+    public Optional<InteractionSharding> sharding() {
+        return Optional.ofNullable(sharding);
+    }
+
+    /**
+     * Sets the {@link InteractionSharding} selecting the {@link Interaction}s
+     * to verify. The {@link Interaction}s found for the provider state that
+     * belong to other shards are skipped, an explicitly set
+     * {@link #interaction(Interaction)} is always verified. Set to
+     * <code>null</code> to verify all interactions.
+     *
+     * @param sharding The {@link InteractionSharding} to use.
+     * @return Returns the current {@link PactTestRunner}.
+     */
+    public PactTestRunner sharding(InteractionSharding sharding) {
+        this.sharding = sharding;
+        return this;
+    }
+
+    /**
+     * Whether the {@link Interaction}s found for the provider state that send
+     * identical requests are verified against a single response.
+     *
+     * @return <code>true</code> if identical requests are performed only once.
+     */
+    public boolean deduplicateRequests() {
+        return deduplicateRequests;
+    }
+
+    /**
+     * Sets whether the {@link Interaction}s found for the provider state that
+     * send identical requests (e.g. the same request of several consumers)
+     * are verified against a single response. The request is then performed
+     * only once and the response is validated against the response
+     * information of each {@link Interaction}. The request and the response
+     * callback are applied once per request.
+     *
+     * @param deduplicateRequests Whether to perform identical requests only
+     *                            once.
+     * @return Returns the current {@link PactTestRunner}.
+     */
+    public PactTestRunner deduplicateRequests(boolean deduplicateRequests) {
+        this.deduplicateRequests = deduplicateRequests;
+        return this;
+    }
+
+    private static List<VerificationListener> defaultListeners() {
+        List<VerificationListener> listeners = newArrayList();
+        VerificationReport report = VerificationReport.fromSystemProperties();
+        if (report != null) {
+            listeners.add(report);
+        }
+        VerificationResultWriter resultWriter = VerificationResultWriter.fromSystemProperties();
+        if (resultWriter != null) {
+            listeners.add(resultWriter);
+        }
+        return listeners;
+    }
+
     /**
      * Find the interactions from the available {@link Pact}s by first applying
      * any configured consumer / provider filter and then determine the
      * {@link Interaction}s from the remaining {@link Pact}s by the provider
-     * state.
+     * state. The lookup uses the {@link InteractionIndex} of the available
+     * {@link Pact}s, which is built only once for the same pacts.
+     *
+     * If an {@link #interaction(Interaction)} is set, only that one is
+     * returned. Otherwise the {@link Interaction}s of other shards are left
+     * out, if a {@link #sharding(InteractionSharding)} is configured.
      *
      * @return The found {@link Interaction}s.
      * @throws IllegalStateException In case no provider state is configured or if no interactions for the provider state are found.
+     * @throws AssumptionViolatedException In case all interactions for the provider state belong to other shards.
      */
     protected List<Interaction> findInteractions() {
+        if (interaction != null) {
+            return Collections.singletonList(interaction);
+        }
+
         providerState().orElseThrow(() -> new IllegalStateException(
                 "No provider state defined. Set one explicitly or use the ProviderState annotation"));
 
-        final Stream<Pact> pactStream = pacts.stream().filter(this::matchingProviderName)
-                .filter(this::matchingConsumerName);
-
-        List<Interaction> interactions = ConversionUtils
-                .getInteractions(pactStream, providerState(), interactionDescription()).collect(Collectors.toList());
+        List<Interaction> interactions = interactionIndex()
+                .find(provider(), consumer(), providerState(), interactionDescription());
         if (interactions.isEmpty()) {
             throw new IllegalStateException(MessageFormat
                     .format("No interaction found for description \"{0}\" and state \"{1}\"",
                             interactionDescription().orElse("<NOT USED>"), providerState().orElse("<NOT USED>")));
         }
 
-        return interactions;
-    }
+        if (sharding != null) {
+            Set<Interaction> shard = interactionIndex().shard(sharding);
+            interactions = interactions.stream().filter(shard::contains).collect(Collectors.toList());
+            if (interactions.isEmpty()) {
+                throw new AssumptionViolatedException(MessageFormat
+                        .format("All interactions for state \"{0}\" belong to other shards than {1} of {2}",
+                                providerState().orElse("<NOT USED>"), sharding.index(), sharding.count()));
+            }
+        }
 
-    private boolean matchingProviderName(Pact pact) {
-        return provider().map(expectedProviderName -> expectedProviderName.equals(pact.getProvider().getName()))
-                .orElse(true);
+        return interactions;
     }
 
-    private boolean matchingConsumerName(Pact pact) {
-        return provider().map(expectedConsumerName -> expectedConsumerName.equals(pact.getConsumer().getName()))
-                .orElse(true);
+    private InteractionIndex interactionIndex() {
+        if (interactionIndex == null) {
+            interactionIndex = InteractionIndex.of(pacts);
+        }
+        return interactionIndex;
     }
 
     /**
@@ -391,28 +945,52 @@ public class PactTestRunner {
 
     /**
      * Determines the default {@link ResultMatcher}s from the {@link Response}.
+     * The matching rules of the response are compiled once and applied to the
+     * body and header matchers. The matchers are ordered from the cheapest to
+     * the most expensive one: status, headers and body.
      *
      * @param response The {@link Response} to get the matchers from.
      * @return The default {@link ResultMatcher}s.
      */
     protected Set<ResultMatcher> responseMatchers(Response response) {
-        Set<ResultMatcher> result = Sets.newHashSet();
+        Set<ResultMatcher> result = Sets.newLinkedHashSet();
+        CompiledMatchingRules rules = CompiledMatchingRules.of(response.getMatchingRules());
 
         if (response.getStatus() != null) {
             result.add(MockMvcResultMatchers.status().is(response.getStatus()));
         }
 
+        Map<String, String> headers = response.getHeaders();
+        if (headers != null && !headers.isEmpty()) {
+            result.add(new HeadersMatcher(headers, rules));
+        }
+
         OptionalBody body = response.getBody();
         if (body.isPresent()) {
-            result.add(MockMvcResultMatchers.content().json(body.getValue()));
+            result.add(bodyComparator(contentType(response)).matcher(LazyBodies.value(body), rules));
         }
 
+        return result;
+    }
+
+    /**
+     * Determines the {@link BodyComparator} for the expected content type of a
+     * response. By default it is looked up at {@link BodyComparators}.
+     *
+     * @param contentType The expected content type or <code>null</code> if the
+     *                    response doesn't define one.
+     * @return The {@link BodyComparator} to compare the response body with.
+     */
+    protected BodyComparator bodyComparator(String contentType) {
+        return BodyComparators.forContentType(contentType);
+    }
+
+    private static String contentType(Response response) {
         Map<String, String> headers = response.getHeaders();
-        if (headers != null && !headers.isEmpty()) {
-            HeaderResultMatchers headerMatchers = MockMvcResultMatchers.header();
-            headers.entrySet().stream().forEach(e -> result.add(headerMatchers.string(e.getKey(), e.getValue())));
+        if (headers == null) {
+            return null;
         }
-
-        return result;
+        return headers.entrySet().stream().filter(e -> HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(e.getKey()))
+                .map(Map.Entry::getValue).findFirst().orElse(null);
     }
 }
@@ -0,0 +1,165 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.google.common.collect.Sets.newHashSet;
+
+/**
+ * A JUnit Jupiter extension creating one invocation of a
+ * <code>&#064;TestTemplate</code> method per {@link Interaction} of the
+ * {@link Pact}s defined by the {@link PactSource} annotation of the test class.
+ * Each invocation gets a {@link PactTestRunner} of its own, that verifies
+ * exactly the {@link Interaction} of the invocation, and may also get the
+ * {@link Interaction} itself injected. Before the invocation, after all
+ * <code>&#064;BeforeEach</code> methods, the methods annotated with
+ * {@link State} for the provider state of the interaction are called, after
+ * the invocation the methods annotated with {@link StateTearDown}.
+ * <br>
+ * The extension holds no mutable state, the pacts are loaded once per test
+ * class and shared through the root {@link ExtensionContext.Store}. So the
+ * invocations can run concurrently with
+ * <code>junit.jupiter.execution.parallel.enabled</code>, as long as the test
+ * class, its state methods and the controllers are thread-safe.
+ * <br>
+ * If a JVM wide {@link InteractionSharding} is configured by system
+ * properties, the invocations of the {@link Interaction}s of other shards are
+ * skipped.
+ * <br>
+ * Example of usage:
+ * <pre>
+ * &#064;PactSource(folders = "classpath:pacts", provider = "my-provider")
+ * public class MyProviderPactTest {
+ *     private MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new MyController()).build();
+ *
+ *     &#064;TestTemplate
+ *     &#064;ExtendWith(PactVerificationExtension.class)
+ *     void verify(PactTestRunner runner) throws Throwable {
+ *         runner.mockMvc(mockMvc).run();
+ *     }
+ *
+ *     &#064;State("I have an entity with ID 10")
+ *     void entityExists() {
+ *         // prepare the controller
+ *     }
+ * }
+ * </pre>
+ */
+public class PactVerificationExtension implements TestTemplateInvocationContextProvider {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace
+            .create(PactVerificationExtension.class);
+
+    @Override
+    public boolean supportsTestTemplate(ExtensionContext context) {
+        return context.getTestClass().map(type -> type.getAnnotation(PactSource.class) != null).orElse(false);
+    }
+
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext context) {
+        Class<?> testClass = context.getRequiredTestClass();
+        PactSource source = testClass.getAnnotation(PactSource.class);
+        @SuppressWarnings("unchecked")
+        List<Pact> pacts = context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(testClass,
+                type -> PactLoader.loadPacts(source), List.class);
+        String contextPath = source.contextPath().isEmpty() ? null : source.contextPath();
+        InteractionSharding sharding = InteractionSharding.fromSystemProperties();
+        Set<Interaction> shard = sharding == null ? null : InteractionIndex.of(pacts).shard(sharding);
+        // Hashed once, the value based hash code of a pact traverses all of its interactions
+        Set<Pact> pactSet = Collections.unmodifiableSet(newHashSet(pacts));
+
+        return pacts.stream().flatMap(pact -> pact.getInteractions().stream()
+                .map(interaction -> new InteractionInvocationContext(pactSet, pact, interaction, contextPath,
+                        shard == null || shard.contains(interaction) ? null
+                                : "Interaction belongs to another shard than " + sharding.index() + " of "
+                                        + sharding.count())));
+    }
+
+    /**
+     * The invocation of the test template for a single {@link Interaction}.
+     */
+    private static class InteractionInvocationContext implements TestTemplateInvocationContext, ParameterResolver,
+            BeforeTestExecutionCallback, AfterTestExecutionCallback, ExecutionCondition {
+        private final Set<Pact> pacts;
+        private final Pact pact;
+        private final Interaction interaction;
+        private final String contextPath;
+        private final String skipReason;
+        private PactTestRunner runner;
+
+        private InteractionInvocationContext(Set<Pact> pacts, Pact pact, Interaction interaction,
+                String contextPath, String skipReason) {
+            this.pacts = pacts;
+            this.pact = pact;
+            this.interaction = interaction;
+            this.contextPath = contextPath;
+            this.skipReason = skipReason;
+        }
+
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            return skipReason == null ? ConditionEvaluationResult.enabled(null)
+                    : ConditionEvaluationResult.disabled(skipReason);
+        }
+
+        @Override
+        public String getDisplayName(int invocationIndex) {
+            return ConversionUtils.displayName(pact, interaction);
+        }
+
+        @Override
+        public List<Extension> getAdditionalExtensions() {
+            return Arrays.asList(this);
+        }
+
+        @Override
+        public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+            Class<?> type = parameterContext.getParameter().getType();
+            return type == PactTestRunner.class || type == Interaction.class;
+        }
+
+        @Override
+        public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+            return parameterContext.getParameter().getType() == PactTestRunner.class ? runner() : interaction;
+        }
+
+        /**
+         * The runner is only created when the invocation is executed, not for
+         * all invocations while they are discovered.
+         */
+        private synchronized PactTestRunner runner() {
+            if (runner == null) {
+                runner = PactTestRunner.sharing(pacts).interaction(interaction).contextPath(contextPath);
+            }
+            return runner;
+        }
+
+        @Override
+        public void beforeTestExecution(ExtensionContext context) throws Exception {
+            StateMethods.of(context.getRequiredTestClass()).setUp(context.getRequiredTestInstance(),
+                    ConversionUtils.providerState(interaction));
+        }
+
+        @Override
+        public void afterTestExecution(ExtensionContext context) throws Exception {
+            StateMethods.of(context.getRequiredTestClass()).tearDown(context.getRequiredTestInstance(),
+                    ConversionUtils.providerState(interaction));
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Watches a pact folder and all of its sub-folders with a {@link WatchService}
+ * and keeps the {@link Pact}s of all "*.json" files within up to date. Each
+ * change is applied by parsing only the changed files again and swapping a
+ * new, immutable set of {@link Pact}s in, so callers of {@link #pacts()}
+ * always get a consistent snapshot.
+ * <br>
+ * No background thread is involved: the pending changes are applied when
+ * {@link #pacts()} is called, e.g. when the next rule is built. A file that
+ * can't be parsed (e.g. because it is written at the moment) keeps its
+ * previous {@link Pact} until it is changed again, the failure is logged.
+ * <br>
+ * The watchers are shared per folder, see {@link #of(File)}, and are meant
+ * for long running JVMs like continuous test runners in an IDE.
+ */
+public class PactWatcher implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(PactWatcher.class.getName());
+
+    private static final String FILE_EXTENSION = ".json";
+
+    private static final Map<Path, PactWatcher> WATCHERS = new ConcurrentHashMap<>();
+
+    private final Path folder;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private volatile SortedMap<Path, Entry> entries;
+
+    /**
+     * Constructs a {@link PactWatcher} for the given folder and loads all of
+     * its pact files.
+     *
+     * @param folder The pact folder.
+     * @throws UncheckedIOException In case the folder can't be watched.
+     * @throws IllegalStateException In case a pact file can't be loaded.
+     */
+    public PactWatcher(File folder) {
+        this.folder = folder.getAbsoluteFile().toPath();
+        try {
+            this.watchService = this.folder.getFileSystem().newWatchService();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot watch pact folder " + folder, e);
+        }
+
+        SortedMap<Path, Entry> loaded = new TreeMap<>();
+        for (Path file : register(this.folder)) {
+            loaded.put(file, load(file));
+        }
+        this.entries = Collections.unmodifiableSortedMap(loaded);
+    }
+
+    /**
+     * Returns the shared {@link PactWatcher} of the given folder, creating it
+     * on first access.
+     *
+     * @param folder The pact folder.
+     * @return The {@link PactWatcher} of the folder.
+     */
+    public static PactWatcher of(File folder) {
+        Path path = folder.getAbsoluteFile().toPath();
+        PactWatcher watcher = WATCHERS.get(path);
+        if (watcher != null) {
+            return watcher;
+        }
+        // Load outside of the map, so other folders aren't blocked meanwhile
+        PactWatcher created = new PactWatcher(path.toFile());
+        watcher = WATCHERS.putIfAbsent(path, created);
+        if (watcher != null) {
+            created.close();
+            return watcher;
+        }
+        return created;
+    }
+
+    /**
+     * The watched folder.
+     *
+     * @return The pact folder.
+     */
+    public File folder() {
+        return folder.toFile();
+    }
+
+    /**
+     * Applies all pending changes of the pact files and returns the current
+     * {@link Pact}s, ordered by the paths of their files.
+     *
+     * @return The {@link Pact}s of all pact files within the folder.
+     */
+    public List<Pact> pacts() {
+        applyChanges();
+        return entries.values().stream().map(entry -> entry.pact).collect(Collectors.toList());
+    }
+
+    /**
+     * Stops watching the folder. The last loaded {@link Pact}s stay available.
+     */
+    @Override
+    public void close() {
+        WATCHERS.remove(folder, this);
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot stop watching pact folder " + folder, e);
+        }
+    }
+
+    private synchronized void applyChanges() {
+        Set<Path> changed = new TreeSet<>();
+        boolean rescan = false;
+        try {
+            for (WatchKey key = watchService.poll(); key != null; key = watchService.poll()) {
+                Path directory = directories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) {
+                        rescan = true;
+                        continue;
+                    }
+                    Path child = directory.resolve((Path) event.context());
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                        changed.addAll(register(child));
+                    } else if (child.getFileName().toString().endsWith(FILE_EXTENSION)) {
+                        changed.add(child);
+                    } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        // Possibly a sub-folder, its files don't get events of their own
+                        changed.addAll(filesWithin(child));
+                    }
+                }
+                if (!key.reset()) {
+                    directories.remove(key);
+                    if (directory != null) {
+                        changed.addAll(filesWithin(directory));
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            return;
+        }
+
+        SortedMap<Path, Entry> current = entries;
+        if (rescan) {
+            changed.addAll(current.keySet());
+            changed.addAll(register(folder));
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        SortedMap<Path, Entry> updated = new TreeMap<>(current);
+        for (Path file : changed) {
+            if (!Files.isRegularFile(file)) {
+                updated.remove(file);
+                continue;
+            }
+            Entry entry = current.get(file);
+            if (entry != null && entry.version.equals(version(file))) {
+                continue;
+            }
+            try {
+                updated.put(file, load(file));
+            } catch (RuntimeException e) {
+                // Probably written at the moment, keep the previous pact until the next change
+                LOGGER.log(Level.WARNING, "Cannot load changed pact file " + file
+                        + (entry == null ? "" : ", keeping its previous pact"), e);
+            }
+        }
+        entries = Collections.unmodifiableSortedMap(updated);
+    }
+
+    /**
+     * The files of the current entries within the given directory.
+     */
+    private List<Path> filesWithin(Path directory) {
+        return entries.keySet().stream().filter(file -> file.startsWith(directory)).collect(Collectors.toList());
+    }
+
+    /**
+     * Registers the given directory and all of its sub-directories at the
+     * {@link WatchService}.
+     *
+     * @return The pact files found within the directories.
+     */
+    private List<Path> register(Path directory) {
+        List<Path> files = newArrayList();
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                    if (!directories.containsValue(dir)) {
+                        directories.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), dir);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (attributes.isRegularFile() && file.getFileName().toString().endsWith(FILE_EXTENSION)) {
+                        files.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot watch pact folder " + directory, e);
+        }
+        return files;
+    }
+
+    private static Entry load(Path file) {
+        String version = version(file);
+        return new Entry(version, PactLoader.loadPactsByFile(file.toFile(), false, true).get(0));
+    }
+
+    private static String version(Path file) {
+        File f = file.toFile();
+        return f.lastModified() + ":" + f.length();
+    }
+
+    private static final class Entry {
+        private final String version;
+        private final Pact pact;
+
+        private Entry(String version, Pact pact) {
+            this.version = version;
+            this.pact = pact;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package de.eosts.fx.pact.provider;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -9,6 +10,7 @@ import java.util.stream.Collectors;
 
 import javax.servlet.http.Cookie;
 
+import org.springframework.http.HttpMethod;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.util.UriComponents;
@@ -43,20 +45,31 @@ public class RequestBuilder {
      *         {@link Optional} is returned.
      */
     public static Optional<MockHttpServletRequestBuilder> buildRequest(Interaction interaction) {
-        RequestResponseInteraction reqResInteraction;
-        if (interaction instanceof RequestResponseInteraction) {
-            reqResInteraction = (RequestResponseInteraction) interaction;
-        } else {
+        return request(interaction).map(RequestBuilder::buildRequest);
+    }
+
+    /**
+     * Extracts the {@link Request} of the given {@link Interaction}, if it is
+     * a {@link RequestResponseInteraction}.
+     *
+     * @param interaction
+     *            The {@link Interaction} to get the request from.
+     * @return The {@link Request} or an empty {@link Optional} if the
+     *         interaction is no {@link RequestResponseInteraction}.
+     * @throws IllegalStateException
+     *             If the {@link RequestResponseInteraction} has no request.
+     */
+    static Optional<Request> request(Interaction interaction) {
+        if (!(interaction instanceof RequestResponseInteraction)) {
             return Optional.empty();
         }
 
-        Request request = reqResInteraction.getRequest();
+        Request request = ((RequestResponseInteraction) interaction).getRequest();
         if (request == null) {
             throw new IllegalStateException(
                     "No request information available in the current interaction: " + interaction);
         }
-
-        return Optional.of(buildRequest(request));
+        return Optional.of(request);
     }
 
     /**
@@ -75,16 +88,27 @@ public class RequestBuilder {
             return null;
         }
 
+        return createBuilder(request, buildUri(request));
+    }
+
+    /**
+     * Builds the {@link URI} of the given {@link Request} from its path and
+     * query.
+     *
+     * @param request
+     *            The {@link Request} to build the {@link URI} for.
+     * @return The {@link URI} of the request.
+     */
+    static URI buildUri(Request request) {
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(request.getPath());
         toQuery(request.getQuery(), uriBuilder);
 
         UriComponents uriComponents = uriBuilder.build();
-
-        return createBuilder(request, uriComponents);
+        return uriComponents.toUri();
     }
 
-    private static MockHttpServletRequestBuilder createBuilder(Request request, UriComponents components) {
-        MockHttpServletRequestBuilder builder = createBuilderByHttpMethod(request, components);
+    private static MockHttpServletRequestBuilder createBuilder(Request request, URI uri) {
+        MockHttpServletRequestBuilder builder = createBuilderByHttpMethod(request, uri);
         buildReqBody(buildCookies(buildReqHeaders(builder, request), request), request);
 
         return builder;
@@ -100,23 +124,35 @@ public class RequestBuilder {
         }
     }
 
-    private static MockHttpServletRequestBuilder createBuilderByHttpMethod(Request request, UriComponents components) {
-        URI uri = components.toUri();
+    private static MockHttpServletRequestBuilder createBuilderByHttpMethod(Request request, URI uri) {
+        return MockMvcRequestBuilders.request(httpMethod(request), uri);
+    }
+
+    /**
+     * Resolves the {@link HttpMethod} of the given {@link Request}.
+     *
+     * @param request
+     *            The {@link Request}.
+     * @return The {@link HttpMethod} of the request.
+     * @throws UnsupportedOperationException
+     *             If the method is not supported.
+     */
+    static HttpMethod httpMethod(Request request) {
         String method = request.getMethod() != null ? request.getMethod().toLowerCase() : "";
 
         switch (method) {
         case "get":
-            return MockMvcRequestBuilders.get(uri);
+            return HttpMethod.GET;
         case "post":
-            return MockMvcRequestBuilders.post(uri);
+            return HttpMethod.POST;
         case "put":
-            return MockMvcRequestBuilders.put(uri);
+            return HttpMethod.PUT;
         case "delete":
-            return MockMvcRequestBuilders.delete(uri);
+            return HttpMethod.DELETE;
         case "options":
-            return MockMvcRequestBuilders.options(uri);
+            return HttpMethod.OPTIONS;
         case "head":
-            return MockMvcRequestBuilders.head(uri);
+            return HttpMethod.HEAD;
 
         default:
             throw new UnsupportedOperationException("Can't handle http method: " + method);
@@ -136,24 +172,38 @@ public class RequestBuilder {
     }
 
     private static MockHttpServletRequestBuilder buildReqBody(MockHttpServletRequestBuilder builder, Request request) {
-        return builder.content(request.getBody().orElse(""));
+        return builder.content(LazyBodies.orElse(request.getBody(), ""));
     }
 
     private static MockHttpServletRequestBuilder buildCookies(MockHttpServletRequestBuilder builder, Request request) {
-        List<String> cookies = request.cookie();
+        List<Cookie> cookieList = toCookies(request);
 
-        if (cookies == null) {
+        if (cookieList.isEmpty()) {
             return builder;
         }
 
-        List<Cookie> cookieList = cookies.stream().map(c -> toCookie(c)).filter(c -> c != null)
-                .collect(Collectors.toList());
-
         builder.cookie(cookieList.toArray(new Cookie[cookieList.size()]));
 
         return builder;
     }
 
+    /**
+     * Converts the cookies of the given {@link Request} into {@link Cookie}s.
+     *
+     * @param request
+     *            The {@link Request}.
+     * @return The {@link Cookie}s of the request.
+     */
+    static List<Cookie> toCookies(Request request) {
+        List<String> cookies = request.cookie();
+
+        if (cookies == null) {
+            return Collections.emptyList();
+        }
+
+        return cookies.stream().map(c -> toCookie(c)).filter(c -> c != null).collect(Collectors.toList());
+    }
+
     private static Cookie toCookie(String cookieString) {
         if (cookieString == null || cookieString.isEmpty()) {
             return null;
@@ -0,0 +1,41 @@
+package de.eosts.fx.pact.provider;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Executes the request of an interaction and returns the response to verify.
+ * By default the {@link PactTestRunner} performs the requests with its
+ * {@link MockMvc}, see {@link MockMvcRequestExecutor}. The
+ * {@link DirectRequestExecutor} dispatches them directly to a
+ * {@link org.springframework.web.servlet.DispatcherServlet} instead.
+ * <br>
+ * An executor may be called from several threads at once if the interactions
+ * are verified concurrently.
+ */
+@FunctionalInterface
+public interface RequestExecutor {
+
+    /**
+     * Executes the given request.
+     *
+     * @param request The request to execute.
+     * @return The {@link ResultActions} to verify the response with.
+     * @throws Exception In case the request can't be executed.
+     */
+    ResultActions perform(MockHttpServletRequestBuilder request) throws Exception;
+
+    /**
+     * The {@link RequestExecutor} performing the requests with the given
+     * {@link MockMvc}, waiting at most
+     * {@link MockMvcRequestExecutor#DEFAULT_ASYNC_TIMEOUT} for asynchronous
+     * requests.
+     *
+     * @param mockMvc The {@link MockMvc} to use.
+     * @return The {@link RequestExecutor}.
+     */
+    static RequestExecutor of(MockMvc mockMvc) {
+        return new MockMvcRequestExecutor(mockMvc, MockMvcRequestExecutor.DEFAULT_ASYNC_TIMEOUT);
+    }
+}
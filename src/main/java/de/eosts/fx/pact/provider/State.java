@@ -0,0 +1,17 @@
+package de.eosts.fx.pact.provider;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a public no-arg method of a test class run by the
+ * {@link PactSuiteRunner} to set up the given provider states. The states
+ * are matched ignoring case.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD })
+public @interface State {
+    String[] value();
+}
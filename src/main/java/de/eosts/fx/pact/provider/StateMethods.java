@@ -0,0 +1,151 @@
+package de.eosts.fx.pact.provider;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * The methods of a test class annotated with {@link State} and
+ * {@link StateTearDown}, indexed by the provider state (ignoring case).
+ * Methods declared by super classes are included, unless they are
+ * overridden. Instances are immutable and cached per test class, so they can
+ * be shared by concurrently running tests.
+ */
+public class StateMethods {
+
+    private static final Map<Class<?>, StateMethods> CACHE = new ConcurrentHashMap<>();
+
+    private final Class<?> testClass;
+    private final Map<String, List<Method>> setUpMethods;
+    private final Map<String, List<Method>> tearDownMethods;
+
+    private StateMethods(Class<?> testClass) {
+        this.testClass = testClass;
+        this.setUpMethods = index(testClass, State.class, State::value);
+        this.tearDownMethods = index(testClass, StateTearDown.class, StateTearDown::value);
+    }
+
+    private static <A extends Annotation> Map<String, List<Method>> index(Class<?> testClass, Class<A> annotationType,
+            Function<A, String[]> states) {
+        Map<String, List<Method>> methods = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (Class<?> type = testClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                A annotation = method.getAnnotation(annotationType);
+                if (annotation == null || Modifier.isStatic(method.getModifiers()) || method.getParameterCount() > 0
+                        || !seen.add(method.getName())) {
+                    continue;
+                }
+                method.setAccessible(true);
+                for (String value : states.apply(annotation)) {
+                    methods.computeIfAbsent(value.toLowerCase(Locale.ROOT), s -> newArrayList()).add(method);
+                }
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Returns the {@link StateMethods} of the given test class.
+     *
+     * @param testClass The test class.
+     * @return The {@link StateMethods} of the test class.
+     */
+    public static StateMethods of(Class<?> testClass) {
+        return CACHE.computeIfAbsent(testClass, StateMethods::new);
+    }
+
+    /**
+     * The methods setting up the given provider state.
+     *
+     * @param providerState The provider state.
+     * @return The methods annotated with {@link State} for the provider state
+     * or an empty list if there is none.
+     */
+    public List<Method> setUpMethods(String providerState) {
+        List<Method> methods = setUpMethods.get(providerState.toLowerCase(Locale.ROOT));
+        return methods == null ? Collections.emptyList() : Collections.unmodifiableList(methods);
+    }
+
+    /**
+     * Calls all methods annotated with {@link State} for the given provider
+     * state on the given test instance.
+     *
+     * @param test          The test instance.
+     * @param providerState The provider state to set up, may be
+     *                      <code>null</code>.
+     * @throws Exception In case a state method fails.
+     * @throws IllegalStateException In case no method sets up the state.
+     */
+    public void setUp(Object test, String providerState) throws Exception {
+        if (providerState == null || providerState.isEmpty()) {
+            return;
+        }
+        List<Method> methods = setUpMethods(providerState);
+        if (methods.isEmpty()) {
+            throw new IllegalStateException(MessageFormat.format(
+                    "No method annotated with @State(\"{0}\") found in {1}", providerState, testClass.getName()));
+        }
+        for (Method method : methods) {
+            invoke(method, test);
+        }
+    }
+
+    /**
+     * The methods tearing down the given provider state.
+     *
+     * @param providerState The provider state.
+     * @return The methods annotated with {@link StateTearDown} for the
+     * provider state or an empty list if there is none.
+     */
+    public List<Method> tearDownMethods(String providerState) {
+        List<Method> methods = tearDownMethods.get(providerState.toLowerCase(Locale.ROOT));
+        return methods == null ? Collections.emptyList() : Collections.unmodifiableList(methods);
+    }
+
+    /**
+     * Calls all methods annotated with {@link StateTearDown} for the given
+     * provider state on the given test instance.
+     *
+     * @param test          The test instance.
+     * @param providerState The provider state to tear down, may be
+     *                      <code>null</code>.
+     * @throws Exception In case a tear down method fails.
+     */
+    public void tearDown(Object test, String providerState) throws Exception {
+        if (providerState == null || providerState.isEmpty()) {
+            return;
+        }
+        for (Method method : tearDownMethods(providerState)) {
+            invoke(method, test);
+        }
+    }
+
+    private static void invoke(Method method, Object test) throws Exception {
+        try {
+            method.invoke(test);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package de.eosts.fx.pact.provider;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a public no-arg method of a test class run by the
+ * {@link PactSuiteRunner} to tear down the given provider states after their
+ * {@link au.com.dius.pact.model.Interaction}s were verified, e.g. to reset
+ * mocks or to clear a database seeded by the {@link State} methods. The
+ * states are matched ignoring case. A state without such a method needs no
+ * tear down.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD })
+public @interface StateTearDown {
+    String[] value();
+}
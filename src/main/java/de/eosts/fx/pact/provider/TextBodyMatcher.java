@@ -0,0 +1,99 @@
+package de.eosts.fx.pact.provider;
+
+import com.google.gson.stream.JsonToken;
+import de.eosts.fx.pact.provider.CompiledMatchingRules.RuleGroup;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * A {@link ResultMatcher} comparing the response body with an expected text
+ * for equality. The expected text is encoded once per charset of the response
+ * and compared byte by byte with the response, so neither the expected nor the
+ * actual body is decoded or parsed unless they differ. This fits plain text,
+ * CSV and binary bodies.
+ * <br>
+ * A body matching rule at the root path <code>$</code> is applied to the
+ * whole text instead.
+ */
+public class TextBodyMatcher implements ResultMatcher {
+
+    private static final int EXCERPT_LENGTH = 40;
+
+    private final String expectedBody;
+    private final RuleGroup rule;
+    private volatile EncodedBody encodedBody;
+
+    /**
+     * Creates a {@link TextBodyMatcher} for the given expected text.
+     *
+     * @param expectedBody The expected text.
+     */
+    public TextBodyMatcher(String expectedBody) {
+        this(expectedBody, CompiledMatchingRules.NONE);
+    }
+
+    /**
+     * Creates a {@link TextBodyMatcher} for the given expected text applying
+     * the body rule at the root path of the given {@link CompiledMatchingRules}.
+     *
+     * @param expectedBody The expected text.
+     * @param rules        The compiled matching rules of the response.
+     */
+    public TextBodyMatcher(String expectedBody, CompiledMatchingRules rules) {
+        this.expectedBody = expectedBody;
+        this.rule = rules.forBodyPath(Collections.emptyList());
+    }
+
+    @Override
+    public void match(MvcResult result) throws Exception {
+        MockHttpServletResponse response = result.getResponse();
+        if (rule != null) {
+            String content = response.getContentAsString();
+            String failure = rule.check(JsonToken.STRING, JsonToken.STRING, content, expectedBody.equals(content));
+            if (failure != null) {
+                throw new AssertionError("Body mismatch at $: " + failure);
+            }
+            return;
+        }
+        if (Arrays.equals(expectedBytes(response.getCharacterEncoding()), response.getContentAsByteArray())) {
+            return;
+        }
+
+        String content = response.getContentAsString();
+        int offset = 0;
+        while (offset < expectedBody.length() && offset < content.length()
+                && expectedBody.charAt(offset) == content.charAt(offset)) {
+            offset++;
+        }
+        throw new AssertionError("Body mismatch at character " + offset + "\nExpected: ..." + excerpt(expectedBody, offset)
+                + "\nActual: ..." + excerpt(content, offset));
+    }
+
+    private static String excerpt(String text, int offset) {
+        return text.substring(offset, Math.min(text.length(), offset + EXCERPT_LENGTH));
+    }
+
+    private byte[] expectedBytes(String charset) {
+        EncodedBody encoded = encodedBody;
+        if (encoded == null || !encoded.charset.equals(charset)) {
+            encoded = new EncodedBody(charset, expectedBody.getBytes(Charset.forName(charset)));
+            encodedBody = encoded;
+        }
+        return encoded.bytes;
+    }
+
+    private static final class EncodedBody {
+        private final String charset;
+        private final byte[] bytes;
+
+        private EncodedBody(String charset, byte[] bytes) {
+            this.charset = charset;
+            this.bytes = bytes;
+        }
+    }
+}
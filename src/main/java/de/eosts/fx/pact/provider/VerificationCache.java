@@ -0,0 +1,348 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.HttpPart;
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.PactSpecVersion;
+import au.com.dius.pact.model.ProviderState;
+import au.com.dius.pact.model.Request;
+import au.com.dius.pact.model.RequestResponseInteraction;
+import au.com.dius.pact.model.Response;
+import au.com.dius.pact.model.generators.Generators;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * An on-disk cache of successful verifications, used by the
+ * {@link PactTestRunner} to skip {@link Interaction}s that passed before.
+ * An entry is keyed by a structural hash of the {@link Interaction} (request,
+ * response, matching rules, generators and provider states), the context of
+ * the runner and a fingerprint of the provider classpath (names, sizes and
+ * modification times of all classpath entries). So an interaction is verified
+ * again as soon as the pact or any class or resource of the provider changes.
+ * <br>
+ * Every entry is an empty file within the cache directory, which makes the
+ * cache safe to share between concurrently running test JVMs. The least
+ * recently used entries exceeding {@link #maxEntries()} are removed when the
+ * cache is created and whenever the entries added since exceed the maximum.
+ * In the latter case a tenth of the entries is removed in addition, so the
+ * directory isn't listed again for every new entry.
+ * <br>
+ * Only the interaction and the classpath are considered, additional
+ * {@link org.springframework.test.web.servlet.ResultMatcher}s, callbacks and
+ * state set up by the tests are not. The cache is therefore opt-in, e.g. for
+ * local developer runs, by setting the system property
+ * {@value #DIRECTORY_PROPERTY} or by
+ * {@link PactTestRunner#verificationCache(VerificationCache)}.
+ */
+public class VerificationCache {
+
+    /**
+     * The system property to configure the directory of the JVM wide cache,
+     * see {@link #fromSystemProperties()}.
+     */
+    public static final String DIRECTORY_PROPERTY = "pact.verificationCache.dir";
+
+    /**
+     * The system property to configure the maximum number of entries of the
+     * JVM wide cache.
+     */
+    public static final String MAX_ENTRIES_PROPERTY = "pact.verificationCache.maxEntries";
+
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static VerificationCache shared = null;
+    private static String classpathFingerprint = null;
+
+    private final Path directory;
+    private final int maxEntries;
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Constructs a {@link VerificationCache} in the given directory. Entries
+     * exceeding the given maximum are removed, least recently used first.
+     *
+     * @param directory  The cache directory, created if missing.
+     * @param maxEntries The maximum number of entries.
+     * @throws UncheckedIOException In case the directory cannot be accessed.
+     */
+    public VerificationCache(File directory, int maxEntries) {
+        this.directory = directory.toPath();
+        this.maxEntries = maxEntries;
+        prune(maxEntries);
+    }
+
+    /**
+     * Returns the JVM wide {@link VerificationCache} configured by the system
+     * properties {@value #DIRECTORY_PROPERTY} and
+     * {@value #MAX_ENTRIES_PROPERTY}.
+     *
+     * @return The JVM wide cache or <code>null</code> if no directory is
+     * configured.
+     */
+    static synchronized VerificationCache fromSystemProperties() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        if (shared == null || !shared.directory.equals(Paths.get(directory))) {
+            shared = new VerificationCache(new File(directory),
+                    Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES));
+        }
+        return shared;
+    }
+
+    /**
+     * The directory holding the entries.
+     *
+     * @return The cache directory.
+     */
+    public File directory() {
+        return directory.toFile();
+    }
+
+    /**
+     * The maximum number of entries kept by the cache.
+     *
+     * @return The maximum number of entries.
+     */
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Computes the key of the given {@link Interaction} verified in the given
+     * context against the current provider classpath.
+     *
+     * @param interaction The {@link Interaction}.
+     * @param context     Everything else affecting the verification, e.g.
+     *                    the type and the context path of the runner.
+     * @return The key or <code>null</code> if the interaction can't be
+     * cached (e.g. for message interactions).
+     */
+    public String key(Interaction interaction, String context) {
+        String hash = interactionHash(interaction);
+        if (hash == null) {
+            return null;
+        }
+        Hasher hasher = Hashing.sha256().newHasher();
+        put(hasher, classpathFingerprint());
+        put(hasher, context);
+        put(hasher, hash);
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Whether a verification with the given key passed before. A found entry
+     * is marked as recently used.
+     *
+     * @param key The key of the verification.
+     * @return <code>true</code> if the verification can be skipped.
+     */
+    public boolean contains(String key) {
+        try {
+            Files.setLastModifiedTime(directory.resolve(key), FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot access verification cache " + directory, e);
+        }
+    }
+
+    /**
+     * Records that the verification with the given key passed.
+     *
+     * @param key The key of the verification.
+     * @throws UncheckedIOException In case the entry cannot be written.
+     */
+    public void put(String key) {
+        try {
+            Files.createDirectories(directory);
+            Path entry = directory.resolve(key);
+            if (!Files.exists(entry)) {
+                Files.write(entry, new byte[0]);
+                if (size.incrementAndGet() > maxEntries) {
+                    prune(maxEntries - maxEntries / 10);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write verification cache " + directory, e);
+        }
+    }
+
+    /**
+     * The number of entries in the cache.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return entries().size();
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void clear() {
+        delete(entries());
+    }
+
+    /**
+     * Removes the least recently used entries exceeding the given number and
+     * recounts the remaining ones, which other JVMs may have added as well.
+     */
+    private synchronized void prune(int retainedEntries) {
+        List<Path> entries = entries();
+        if (entries.size() > retainedEntries) {
+            entries.sort(Comparator.comparing(VerificationCache::lastModified));
+            delete(entries.subList(0, entries.size() - retainedEntries));
+            size.set(retainedEntries);
+        } else {
+            size.set(entries.size());
+        }
+    }
+
+    private List<Path> entries() {
+        if (!Files.isDirectory(directory)) {
+            return newArrayList();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read verification cache " + directory, e);
+        }
+    }
+
+    private static FileTime lastModified(Path entry) {
+        try {
+            return Files.getLastModifiedTime(entry);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void delete(List<Path> entries) {
+        for (Path entry : entries) {
+            try {
+                Files.deleteIfExists(entry);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete verification cache entry " + entry, e);
+            }
+        }
+    }
+
+    /**
+     * Computes a structural hash of the given {@link Interaction}, which
+     * covers everything of the interaction that affects its verification.
+     *
+     * @param interaction The {@link Interaction}.
+     * @return The hash or <code>null</code> if the interaction is no
+     * {@link RequestResponseInteraction}.
+     */
+    static String interactionHash(Interaction interaction) {
+        if (!(interaction instanceof RequestResponseInteraction)) {
+            return null;
+        }
+        RequestResponseInteraction reqRes = (RequestResponseInteraction) interaction;
+        Hasher hasher = Hashing.sha256().newHasher();
+        put(hasher, reqRes.getDescription());
+        for (ProviderState state : reqRes.getProviderStates()) {
+            put(hasher, state.getName());
+            put(hasher, state.getParams() == null ? null : new TreeMap<>(state.getParams()));
+        }
+
+        Request request = reqRes.getRequest();
+        if (request != null) {
+            put(hasher, request.getMethod());
+            put(hasher, request.getPath());
+            put(hasher, request.getQuery() == null ? null : new TreeMap<>(request.getQuery()));
+            putPart(hasher, request, request.getGenerators());
+        }
+        Response response = reqRes.getResponse();
+        if (response != null) {
+            put(hasher, response.getStatus());
+            putPart(hasher, response, response.getGenerators());
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void putPart(Hasher hasher, HttpPart part, Generators generators) {
+        Map<String, String> headers = part.getHeaders();
+        put(hasher, headers == null ? null : new TreeMap<>(headers));
+        put(hasher, part.getBody() == null ? null : part.getBody().getState());
+        put(hasher, LazyBodies.value(part.getBody()));
+        put(hasher, part.getMatchingRules() == null ? null : part.getMatchingRules().toV3Map());
+        put(hasher, generators == null ? null : generators.toMap(PactSpecVersion.V3));
+    }
+
+    private static void put(Hasher hasher, Object value) {
+        String string = String.valueOf(value);
+        hasher.putInt(string.length()).putString(string, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A fingerprint of the classpath of the JVM, computed once from the paths,
+     * sizes and modification times of all files on the classpath.
+     *
+     * @return The fingerprint.
+     */
+    static synchronized String classpathFingerprint() {
+        if (classpathFingerprint == null) {
+            classpathFingerprint = classpathFingerprint(System.getProperty("java.class.path", ""));
+        }
+        return classpathFingerprint;
+    }
+
+    /**
+     * Computes the fingerprint of the given classpath.
+     *
+     * @param classpath The classpath entries separated by the
+     *                  {@link File#pathSeparator}.
+     * @return The fingerprint.
+     */
+    static String classpathFingerprint(String classpath) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (String entry : classpath.split(File.pathSeparator)) {
+            Path root = Paths.get(entry);
+            put(hasher, entry);
+            if (!Files.isDirectory(root)) {
+                put(hasher, root.toFile().length() + ":" + root.toFile().lastModified());
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(Files::isRegularFile).sorted().forEach(file -> {
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        put(hasher, root.relativize(file));
+                        put(hasher, attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+                    } catch (IOException e) {
+                        put(hasher, file);
+                    }
+                });
+            } catch (IOException | UncheckedIOException e) {
+                // An unreadable entry makes the fingerprint unique, so nothing is reused
+                put(hasher, System.nanoTime());
+            }
+        }
+        return hasher.hash().toString();
+    }
+}
@@ -0,0 +1,90 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+
+/**
+ * Listener notified by the {@link PactTestRunner} about the progress of the
+ * verification of each {@link Interaction}. All timestamps are taken from
+ * {@link System#nanoTime()}.
+ * <br>
+ * If the interactions are verified concurrently (see
+ * {@link PactTestRunner#verificationExecutor(java.util.concurrent.ExecutorService)})
+ * the listener is called from several threads, but all notifications of one
+ * {@link Interaction} happen on the thread verifying it.
+ */
+public interface VerificationListener {
+
+    /**
+     * The phases of the verification of an {@link Interaction}.
+     */
+    enum Phase {
+        /**
+         * Resolves the {@link VerificationPlan} of the interaction, which
+         * includes compiling it on first access.
+         */
+        LOOKUP,
+        /**
+         * Creates the request from the plan and applies the context path and
+         * the request callback.
+         */
+        REQUEST_BUILD,
+        /**
+         * Performs the request against the {@link org.springframework.test.web.servlet.MockMvc}.
+         */
+        PERFORM,
+        /**
+         * Calls the response callback and applies all
+         * {@link org.springframework.test.web.servlet.ResultMatcher}s.
+         */
+        MATCH
+    }
+
+    /**
+     * Called before the verification of the {@link Interaction} starts.
+     *
+     * @param interaction The {@link Interaction} to verify.
+     */
+    default void interactionStarted(Interaction interaction) {
+    }
+
+    /**
+     * Called when a phase of the verification ends, regardless whether it
+     * succeeded or failed. Phases that are not reached are not reported.
+     *
+     * @param interaction The verified {@link Interaction}.
+     * @param phase       The completed phase.
+     * @param startNanos  The start of the phase.
+     * @param endNanos    The end of the phase.
+     */
+    default void phaseCompleted(Interaction interaction, Phase phase, long startNanos, long endNanos) {
+    }
+
+    /**
+     * Called after the verification of the {@link Interaction} ended.
+     *
+     * @param interaction The verified {@link Interaction}.
+     * @param failure     The reason the verification failed or
+     *                    <code>null</code> if it succeeded.
+     */
+    default void interactionFinished(Interaction interaction, Throwable failure) {
+    }
+
+    /**
+     * Called instead of all other notifications about an {@link Interaction}
+     * whose verification is skipped, because it passed before according to the
+     * {@link VerificationCache} of the runner.
+     *
+     * @param interaction The skipped {@link Interaction}.
+     */
+    default void interactionCached(Interaction interaction) {
+    }
+
+    /**
+     * Called after all {@link Interaction}s of a {@link PactTestRunner#run()}
+     * have been verified.
+     *
+     * @param runner The {@link PactTestRunner} that ran.
+     */
+    default void runFinished(PactTestRunner runner) {
+    }
+}
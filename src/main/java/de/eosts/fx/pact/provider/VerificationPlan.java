@@ -0,0 +1,150 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Request;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import javax.servlet.http.Cookie;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The immutable result of converting an {@link Interaction} into everything
+ * needed to verify it: the parts of the request and the list of
+ * {@link ResultMatcher}s for the expected response. A plan is compiled once per
+ * {@link Interaction}, so repeated verifications skip parsing the path, encoding
+ * the query, splitting cookies and creating the matchers.
+ * <br>
+ * Plans are shared between all executions, also concurrent ones, so every
+ * execution gets its own request builder from {@link #newRequest()}.
+ */
+public class VerificationPlan {
+
+    private final Interaction interaction;
+    private final HttpMethod method;
+    private final URI uri;
+    private final Map<String, String> headers;
+    private final List<Map.Entry<String, String>> cookies;
+    private final String body;
+    private final List<ResultMatcher> matchers;
+    private final List<Object> requestKey;
+
+    private VerificationPlan(Interaction interaction, Request request, Collection<ResultMatcher> matchers) {
+        this.interaction = interaction;
+        this.matchers = ImmutableList.copyOf(matchers);
+        if (request == null) {
+            this.method = null;
+            this.uri = null;
+            this.headers = null;
+            this.cookies = null;
+            this.body = null;
+            this.requestKey = null;
+            return;
+        }
+
+        this.method = RequestBuilder.httpMethod(request);
+        this.uri = RequestBuilder.buildUri(request);
+        // The pact headers may contain null values, which an ImmutableMap rejects
+        this.headers = request.getHeaders() == null ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new LinkedHashMap<>(request.getHeaders()));
+        this.cookies = Collections.unmodifiableList(RequestBuilder.toCookies(request).stream()
+                .map(cookie -> Maps.immutableEntry(cookie.getName(), cookie.getValue()))
+                .collect(Collectors.toList()));
+        this.body = LazyBodies.orElse(request.getBody(), "");
+        this.requestKey = requestKey(request);
+    }
+
+    /**
+     * Compiles the {@link VerificationPlan} for the given {@link Interaction}.
+     *
+     * @param interaction     The {@link Interaction} to compile.
+     * @param matcherFactory  Creates the {@link ResultMatcher}s for the
+     *                        expected response of the interaction.
+     * @return The compiled {@link VerificationPlan}.
+     */
+    public static VerificationPlan compile(Interaction interaction,
+            Function<Interaction, ? extends Collection<ResultMatcher>> matcherFactory) {
+        Request request = RequestBuilder.request(interaction).orElse(null);
+        return new VerificationPlan(interaction, request, matcherFactory.apply(interaction));
+    }
+
+    private static List<Object> requestKey(Request request) {
+        Map<String, List<String>> query = new TreeMap<>();
+        if (request.getQuery() != null) {
+            query.putAll(request.getQuery());
+        }
+        Map<String, String> headers = new TreeMap<>();
+        if (request.getHeaders() != null) {
+            request.getHeaders().forEach((name, value) -> headers.put(name.toLowerCase(Locale.ROOT), value));
+        }
+        return Arrays.asList(request.getMethod().toUpperCase(Locale.ROOT), request.getPath(), query, headers,
+                LazyBodies.orElse(request.getBody(), ""));
+    }
+
+    /**
+     * The {@link Interaction} this plan was compiled for.
+     *
+     * @return The {@link Interaction}.
+     */
+    public Interaction interaction() {
+        return interaction;
+    }
+
+    /**
+     * Creates a new request for one execution. The request is built from
+     * fresh header values and {@link Cookie}s, so it can be modified without
+     * affecting the plan or other executions.
+     *
+     * @return The new request or an empty {@link Optional} if the interaction
+     * doesn't describe a request.
+     */
+    public Optional<MockHttpServletRequestBuilder> newRequest() {
+        if (method == null) {
+            return Optional.empty();
+        }
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.request(method, uri);
+        headers.forEach((name, value) -> request.header(name, value));
+        if (!cookies.isEmpty()) {
+            request.cookie(cookies.stream().map(cookie -> new Cookie(cookie.getKey(), cookie.getValue()))
+                    .toArray(Cookie[]::new));
+        }
+        request.content(body);
+        return Optional.of(request);
+    }
+
+    /**
+     * The canonical key of the request made up of the method, the path, the
+     * query, the headers (with the names in lower case) and the body.
+     * Interactions with equal keys send identical requests.
+     *
+     * @return The request key or <code>null</code> if the interaction doesn't
+     * describe a request.
+     */
+    public List<Object> requestKey() {
+        return requestKey;
+    }
+
+    /**
+     * The {@link ResultMatcher}s verifying the expected response.
+     *
+     * @return The immutable list of {@link ResultMatcher}s.
+     */
+    public List<ResultMatcher> matchers() {
+        return matchers;
+    }
+}
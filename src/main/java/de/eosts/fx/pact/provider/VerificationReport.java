@@ -0,0 +1,356 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * A {@link VerificationListener} writing the timings of all verified
+ * {@link Interaction}s to a report file. Each interaction results in one
+ * record with its consumer, provider states, description, the duration of
+ * every {@link VerificationListener.Phase} and the result (<code>PASSED</code>,
+ * <code>FAILED</code> or <code>CACHED</code> if it was skipped). The records of a
+ * {@link PactTestRunner#run()} are appended to the file when the run has
+ * finished, so a single report can be shared by all tests of a JVM.
+ * Multiple provider states are separated by <code>|</code>.
+ * <br>
+ * The report is written as CSV with a header line or as JSON with one object
+ * per line.
+ */
+public class VerificationReport implements VerificationListener {
+
+    /**
+     * The system property to configure the file of the JVM wide report, see
+     * {@link #fromSystemProperties()}.
+     */
+    public static final String FILE_PROPERTY = "pact.report.file";
+
+    private static final String[] COLUMNS = { "startMillis", "consumer", "providerState", "description", "lookupNanos",
+            "requestBuildNanos", "performNanos", "matchNanos", "totalNanos", "result", "failure" };
+
+    private static VerificationReport shared = null;
+
+    /**
+     * The formats of the report file.
+     */
+    public enum Format {
+        CSV, JSON
+    }
+
+    private final File file;
+    private final Format format;
+    private final ThreadLocal<Record> current = new ThreadLocal<>();
+    private final Queue<Record> pending = new ConcurrentLinkedQueue<>();
+    private final List<Record> unassigned = newArrayList();
+    private final Set<Pact> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Interaction, String> consumersByInteraction = new IdentityHashMap<>();
+
+    /**
+     * Constructs a {@link VerificationReport} appending to the given file.
+     *
+     * @param file   The report file, missing parent folders are created.
+     * @param format The format of the report.
+     */
+    public VerificationReport(File file, Format format) {
+        this.file = file;
+        this.format = format;
+    }
+
+    /**
+     * Returns the JVM wide {@link VerificationReport} configured by the
+     * system property {@value #FILE_PROPERTY}. The report is written as JSON
+     * if the file name ends with <code>.json</code>, otherwise as CSV.
+     *
+     * @return The JVM wide report or <code>null</code> if the system property
+     * is not set.
+     */
+    static synchronized VerificationReport fromSystemProperties() {
+        String fileName = System.getProperty(FILE_PROPERTY);
+        if (fileName == null || fileName.isEmpty()) {
+            return null;
+        }
+        if (shared == null || !shared.file.getPath().equals(fileName)) {
+            shared = new VerificationReport(new File(fileName),
+                    fileName.endsWith(".json") ? Format.JSON : Format.CSV);
+        }
+        return shared;
+    }
+
+    /**
+     * The file the report is written to.
+     *
+     * @return The report file.
+     */
+    public File file() {
+        return file;
+    }
+
+    @Override
+    public void interactionStarted(Interaction interaction) {
+        current.set(new Record(interaction, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void phaseCompleted(Interaction interaction, Phase phase, long startNanos, long endNanos) {
+        Record record = current.get();
+        if (record != null) {
+            record.durations.put(phase, endNanos - startNanos);
+        }
+    }
+
+    @Override
+    public void interactionFinished(Interaction interaction, Throwable failure) {
+        Record record = current.get();
+        current.remove();
+        if (record != null) {
+            record.failure = failure;
+            pending.add(record);
+        }
+    }
+
+    @Override
+    public void interactionCached(Interaction interaction) {
+        Record record = new Record(interaction, System.currentTimeMillis());
+        record.cached = true;
+        pending.add(record);
+    }
+
+    @Override
+    public void runFinished(PactTestRunner runner) {
+        synchronized (this) {
+            for (Pact pact : runner.pactsView()) {
+                if (registered.add(pact)) {
+                    String consumer = pact.getConsumer() == null ? null : pact.getConsumer().getName();
+                    for (Interaction interaction : pact.getInteractions()) {
+                        consumersByInteraction.put(interaction, consumer);
+                    }
+                }
+            }
+            write(true);
+        }
+    }
+
+    /**
+     * Appends all records of finished interactions to the report file.
+     * Records of runs that have not finished yet are written without their
+     * consumer.
+     *
+     * @throws UncheckedIOException In case the report cannot be written.
+     */
+    public void flush() {
+        synchronized (this) {
+            write(false);
+        }
+    }
+
+    private void write(boolean assignedOnly) {
+        for (Record record = pending.poll(); record != null; record = pending.poll()) {
+            unassigned.add(record);
+        }
+        // Records of runners that have not finished yet wait for the consumer of their pact
+        List<Record> records = newArrayList();
+        for (Iterator<Record> it = unassigned.iterator(); it.hasNext(); ) {
+            Record record = it.next();
+            if (!assignedOnly || consumersByInteraction.containsKey(record.interaction)) {
+                records.add(record);
+                it.remove();
+            }
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                Files.createDirectories(parent.toPath());
+            }
+            boolean writeHeader = format == Format.CSV && (!file.exists() || file.length() == 0);
+            try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (writeHeader) {
+                    writer.write(String.join(",", COLUMNS));
+                    writer.write('\n');
+                }
+                for (Record record : records) {
+                    Object[] values = record.values(consumersByInteraction.get(record.interaction));
+                    writer.write(format == Format.CSV ? toCsv(values) : toJson(values));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write verification report " + file, e);
+        }
+    }
+
+    /**
+     * Reads the average total duration of every {@link Interaction} from a
+     * report written by a previous run, e.g. to balance an
+     * {@link InteractionSharding}. Cached interactions are not taken into
+     * account. The format is derived from the file name like in
+     * {@link #fromSystemProperties()}.
+     *
+     * @param file The report file.
+     * @return The average total duration in nanoseconds by
+     * {@link InteractionSharding#key(String, String, String)}.
+     * @throws UncheckedIOException In case the report cannot be read.
+     */
+    static Map<String, Long> readDurations(File file) {
+        List<String[]> records;
+        try {
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            records = file.getName().endsWith(".json") ? fromJson(content) : fromCsv(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read verification report " + file, e);
+        }
+
+        int consumer = Arrays.asList(COLUMNS).indexOf("consumer");
+        int state = Arrays.asList(COLUMNS).indexOf("providerState");
+        int description = Arrays.asList(COLUMNS).indexOf("description");
+        int total = Arrays.asList(COLUMNS).indexOf("totalNanos");
+        int result = Arrays.asList(COLUMNS).indexOf("result");
+        Map<String, long[]> sums = new HashMap<>();
+        for (String[] record : records) {
+            if (record.length < COLUMNS.length || "CACHED".equals(record[result]) || record[total].isEmpty()) {
+                continue;
+            }
+            long nanos;
+            try {
+                nanos = Long.parseLong(record[total]);
+            } catch (NumberFormatException e) {
+                // The header line or a broken record
+                continue;
+            }
+            long[] sum = sums.computeIfAbsent(
+                    InteractionSharding.key(record[consumer], record[state], record[description]), key -> new long[2]);
+            sum[0] += nanos;
+            sum[1]++;
+        }
+
+        Map<String, Long> durations = new HashMap<>();
+        sums.forEach((key, sum) -> durations.put(key, sum[0] / sum[1]));
+        return durations;
+    }
+
+    private static List<String[]> fromJson(String content) {
+        List<String[]> records = newArrayList();
+        JsonParser parser = new JsonParser();
+        for (String line : content.split("\n")) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            JsonObject json = parser.parse(line).getAsJsonObject();
+            String[] record = new String[COLUMNS.length];
+            for (int i = 0; i < COLUMNS.length; i++) {
+                record[i] = json.has(COLUMNS[i]) ? json.get(COLUMNS[i]).getAsString() : "";
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static List<String[]> fromCsv(String content) {
+        List<String[]> records = newArrayList();
+        List<String> record = newArrayList();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < content.length() && content.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\n') {
+                record.add(value.toString());
+                value.setLength(0);
+                records.add(record.toArray(new String[0]));
+                record.clear();
+            } else if (c != '\r') {
+                value.append(c);
+            }
+        }
+        return records;
+    }
+
+    private static String toCsv(Object[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            String value = values[i] == null ? "" : values[i].toString();
+            if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+                sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String toJson(Object[] values) {
+        JsonObject json = new JsonObject();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] instanceof Number) {
+                json.addProperty(COLUMNS[i], (Number) values[i]);
+            } else if (values[i] != null) {
+                json.addProperty(COLUMNS[i], values[i].toString());
+            }
+        }
+        return json.toString();
+    }
+
+    private static final class Record {
+        private final Interaction interaction;
+        private final long startMillis;
+        private final Map<Phase, Long> durations = new EnumMap<>(Phase.class);
+        private Throwable failure;
+        private boolean cached;
+
+        private Record(Interaction interaction, long startMillis) {
+            this.interaction = interaction;
+            this.startMillis = startMillis;
+        }
+
+        private Object[] values(String consumer) {
+            long total = durations.values().stream().mapToLong(Long::longValue).sum();
+            return new Object[] { startMillis, consumer, ConversionUtils.providerStates(interaction),
+                    interaction.getDescription(),
+                    durations.get(Phase.LOOKUP), durations.get(Phase.REQUEST_BUILD), durations.get(Phase.PERFORM),
+                    durations.get(Phase.MATCH), total, cached ? "CACHED" : failure == null ? "PASSED" : "FAILED",
+                    failure == null ? null : String.valueOf(failure.getMessage()) };
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * A {@link VerificationListener} collecting the result of every verified
+ * {@link Interaction} and writing them per {@link Pact} in the format of the
+ * verification results published to a Pact Broker, optionally also as JUnit
+ * XML report. The results of all tests of a JVM are collected and written
+ * once, by {@link #flush()}, which is called at JVM shutdown for the JVM wide
+ * writer.
+ * <br>
+ * The verifying threads only queue the outcome of each {@link Interaction}.
+ * The outcomes are assigned to their {@link Pact}s in batches on a
+ * background thread, whenever a {@link PactTestRunner#run()} has finished,
+ * so the verification itself does no I/O and takes no locks.
+ * <br>
+ * For every {@link Pact} the file <code>&lt;provider&gt;-&lt;consumer&gt;.json</code>
+ * and optionally <code>TEST-&lt;provider&gt;-&lt;consumer&gt;.xml</code> is
+ * written to the result directory. Cached interactions count as successful.
+ * If a fork is given, it is appended to the names
+ * (<code>&lt;provider&gt;-&lt;consumer&gt;-&lt;fork&gt;.json</code>), so the
+ * JVMs of a forked or sharded build don't overwrite the results of each
+ * other. Further pacts of the same provider and consumer in one JVM (e.g.
+ * of several tags) get a running number appended, in the order they have
+ * been verified first.
+ */
+public class VerificationResultWriter implements VerificationListener {
+
+    /**
+     * The system property to configure the result directory of the JVM wide
+     * writer, see {@link #fromSystemProperties()}.
+     */
+    public static final String DIRECTORY_PROPERTY = "pact.results.dir";
+
+    /**
+     * The system property to enable the JUnit XML reports of the JVM wide
+     * writer.
+     */
+    public static final String JUNIT_XML_PROPERTY = "pact.results.junitXml";
+
+    /**
+     * The system property to configure the provider version reported by the
+     * JVM wide writer.
+     */
+    public static final String PROVIDER_VERSION_PROPERTY = "pact.provider.version";
+
+    /**
+     * The system property to configure the fork of the JVM wide writer. By
+     * default the shard index of the {@link InteractionSharding} is used, if
+     * it is configured, otherwise the id of the Gradle test worker, if any.
+     */
+    public static final String FORK_PROPERTY = "pact.results.fork";
+
+    private static final String GRADLE_WORKER_PROPERTY = "org.gradle.test.worker";
+
+    private static VerificationResultWriter shared = null;
+
+    private final File directory;
+    private final boolean junitXml;
+    private final String providerVersion;
+    private final String fork;
+    private final ThreadLocal<Long> started = new ThreadLocal<>();
+    private final Queue<Outcome> pending = new ConcurrentLinkedQueue<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pact-verification-results");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only accessed by the background thread
+    private final Set<Pact> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Pact> verified = newArrayList();
+    private final Map<Interaction, Pact> pactsByInteraction = new IdentityHashMap<>();
+    private final Map<Pact, List<Outcome>> results = new IdentityHashMap<>();
+    private final List<Outcome> unassigned = newArrayList();
+
+    /**
+     * Constructs a {@link VerificationResultWriter} writing to the given
+     * directory.
+     *
+     * @param directory       The result directory, it is created if missing.
+     * @param junitXml        Whether to write JUnit XML reports as well.
+     * @param providerVersion The version of the provider to report, may be
+     *                        <code>null</code>.
+     */
+    public VerificationResultWriter(File directory, boolean junitXml, String providerVersion) {
+        this(directory, junitXml, providerVersion, null);
+    }
+
+    /**
+     * Constructs a {@link VerificationResultWriter} writing to the given
+     * directory, appending the given fork to the file names.
+     *
+     * @param directory       The result directory, it is created if missing.
+     * @param junitXml        Whether to write JUnit XML reports as well.
+     * @param providerVersion The version of the provider to report, may be
+     *                        <code>null</code>.
+     * @param fork            The fork (e.g. shard or worker) of this JVM, may
+     *                        be <code>null</code>.
+     */
+    public VerificationResultWriter(File directory, boolean junitXml, String providerVersion, String fork) {
+        this.directory = directory;
+        this.junitXml = junitXml;
+        this.providerVersion = providerVersion;
+        this.fork = fork == null || fork.isEmpty() ? null : fork;
+    }
+
+    /**
+     * Returns the JVM wide {@link VerificationResultWriter} configured by the
+     * system properties {@value #DIRECTORY_PROPERTY},
+     * {@value #JUNIT_XML_PROPERTY}, {@value #PROVIDER_VERSION_PROPERTY} and
+     * {@value #FORK_PROPERTY}. The results are written at JVM shutdown.
+     *
+     * @return The JVM wide writer or <code>null</code> if the result
+     * directory is not configured.
+     */
+    static synchronized VerificationResultWriter fromSystemProperties() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        if (shared == null || !shared.directory.getPath().equals(directory)) {
+            VerificationResultWriter writer = new VerificationResultWriter(new File(directory),
+                    Boolean.getBoolean(JUNIT_XML_PROPERTY), System.getProperty(PROVIDER_VERSION_PROPERTY), fork());
+            Runtime.getRuntime().addShutdownHook(new Thread(writer::flush, "pact-verification-results-flush"));
+            shared = writer;
+        }
+        return shared;
+    }
+
+    private static String fork() {
+        String fork = System.getProperty(FORK_PROPERTY);
+        if (fork != null && !fork.isEmpty()) {
+            return fork;
+        }
+        InteractionSharding sharding = InteractionSharding.fromSystemProperties();
+        if (sharding != null) {
+            return "shard" + sharding.index();
+        }
+        String worker = System.getProperty(GRADLE_WORKER_PROPERTY);
+        return worker == null || worker.isEmpty() ? null : "worker" + worker;
+    }
+
+    /**
+     * The directory the results are written to.
+     *
+     * @return The result directory.
+     */
+    public File directory() {
+        return directory;
+    }
+
+    @Override
+    public void interactionStarted(Interaction interaction) {
+        started.set(System.nanoTime());
+    }
+
+    @Override
+    public void interactionFinished(Interaction interaction, Throwable failure) {
+        Long start = started.get();
+        started.remove();
+        pending.add(new Outcome(interaction, failure, false, start == null ? 0 : System.nanoTime() - start));
+    }
+
+    @Override
+    public void interactionCached(Interaction interaction) {
+        pending.add(new Outcome(interaction, null, true, 0));
+    }
+
+    @Override
+    public void runFinished(PactTestRunner runner) {
+        Collection<Pact> pacts = runner.pactsView();
+        try {
+            executor.execute(() -> assign(pacts));
+        } catch (RejectedExecutionException e) {
+            // Already flushed at shutdown
+        }
+    }
+
+    /**
+     * Writes the results of all interactions verified so far and stops the
+     * background thread. Outcomes reported afterwards are ignored.
+     *
+     * @throws UncheckedIOException In case the results cannot be written.
+     */
+    public void flush() {
+        try {
+            executor.submit(() -> {
+                assign(null);
+                write();
+                return null;
+            }).get();
+        } catch (RejectedExecutionException e) {
+            // Flushed before
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void assign(Collection<Pact> pacts) {
+        if (pacts != null) {
+            for (Pact pact : pacts) {
+                if (!registered.add(pact)) {
+                    continue;
+                }
+                for (Interaction interaction : pact.getInteractions()) {
+                    pactsByInteraction.put(interaction, pact);
+                }
+            }
+        }
+        for (Outcome outcome = pending.poll(); outcome != null; outcome = pending.poll()) {
+            unassigned.add(outcome);
+        }
+        // Outcomes of runners that have not finished yet stay unassigned until they do
+        for (Iterator<Outcome> it = unassigned.iterator(); it.hasNext(); ) {
+            Outcome outcome = it.next();
+            Pact pact = pactsByInteraction.get(outcome.interaction);
+            if (pact != null) {
+                results.computeIfAbsent(pact, p -> {
+                    verified.add(p);
+                    return newArrayList();
+                }).add(outcome);
+                it.remove();
+            }
+        }
+    }
+
+    private void write() {
+        if (results.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory.toPath());
+            Map<String, Integer> names = new HashMap<>();
+            for (Pact pact : verified) {
+                String name = fileName(pact);
+                int number = names.merge(name, 1, Integer::sum);
+                if (number > 1) {
+                    name += "-" + number;
+                }
+                List<Outcome> outcomes = results.get(pact);
+                try (Writer writer = Files.newBufferedWriter(new File(directory, name + ".json").toPath(),
+                        StandardCharsets.UTF_8)) {
+                    new GsonBuilder().setPrettyPrinting().create().toJson(toJson(outcomes), writer);
+                }
+                if (junitXml) {
+                    try (Writer writer = Files.newBufferedWriter(new File(directory, "TEST-" + name + ".xml").toPath(),
+                            StandardCharsets.UTF_8)) {
+                        writeJUnitXml(pact, outcomes, writer);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write verification results to " + directory, e);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Cannot write verification results to " + directory, e);
+        }
+    }
+
+    private JsonObject toJson(List<Outcome> outcomes) {
+        JsonObject json = new JsonObject();
+        json.addProperty("success", outcomes.stream().allMatch(Outcome::success));
+        if (providerVersion != null && !providerVersion.isEmpty()) {
+            json.addProperty("providerApplicationVersion", providerVersion);
+        }
+        JsonArray testResults = new JsonArray();
+        for (Outcome outcome : outcomes) {
+            JsonObject testResult = new JsonObject();
+            testResult.addProperty("interactionDescription", outcome.interaction.getDescription());
+            if (ConversionUtils.providerState(outcome.interaction) != null) {
+                testResult.addProperty("providerState", ConversionUtils.providerState(outcome.interaction));
+            }
+            testResult.addProperty("success", outcome.success());
+            if (outcome.cached) {
+                testResult.addProperty("cached", true);
+            } else {
+                testResult.addProperty("durationMillis", outcome.nanos / 1000000.0);
+            }
+            if (outcome.failure != null) {
+                JsonObject failure = new JsonObject();
+                failure.addProperty("description", String.valueOf(outcome.failure.getMessage()));
+                JsonArray failures = new JsonArray();
+                failures.add(failure);
+                if (outcome.failure instanceof AssertionError) {
+                    testResult.add("mismatches", failures);
+                } else {
+                    failure.addProperty("exceptionClass", outcome.failure.getClass().getName());
+                    testResult.add("exceptions", failures);
+                }
+            }
+            testResults.add(testResult);
+        }
+        json.add("testResults", testResults);
+        return json;
+    }
+
+    private static void writeJUnitXml(Pact pact, List<Outcome> outcomes, Writer out) throws XMLStreamException {
+        XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeStartElement("testsuite");
+        xml.writeAttribute("name", "pact." + provider(pact) + "." + consumer(pact));
+        xml.writeAttribute("tests", String.valueOf(outcomes.size()));
+        xml.writeAttribute("failures", String.valueOf(outcomes.stream()
+                .filter(o -> o.failure instanceof AssertionError).count()));
+        xml.writeAttribute("errors", String.valueOf(outcomes.stream()
+                .filter(o -> o.failure != null && !(o.failure instanceof AssertionError)).count()));
+        xml.writeAttribute("skipped", String.valueOf(outcomes.stream().filter(o -> o.cached).count()));
+        xml.writeAttribute("time", seconds(outcomes.stream().mapToLong(o -> o.nanos).sum()));
+        for (Outcome outcome : outcomes) {
+            xml.writeStartElement("testcase");
+            xml.writeAttribute("classname", consumer(pact));
+            xml.writeAttribute("name", ConversionUtils.displayName(pact, outcome.interaction));
+            xml.writeAttribute("time", seconds(outcome.nanos));
+            if (outcome.cached) {
+                xml.writeEmptyElement("skipped");
+                xml.writeAttribute("message", "Passed before");
+            } else if (outcome.failure != null) {
+                xml.writeStartElement(outcome.failure instanceof AssertionError ? "failure" : "error");
+                xml.writeAttribute("message", String.valueOf(outcome.failure.getMessage()));
+                xml.writeAttribute("type", outcome.failure.getClass().getName());
+                xml.writeCharacters(String.valueOf(outcome.failure.getMessage()));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.close();
+    }
+
+    private String fileName(Pact pact) {
+        String name = provider(pact) + "-" + consumer(pact) + (fork == null ? "" : "-" + fork);
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static String provider(Pact pact) {
+        return pact.getProvider() == null ? "unknown" : pact.getProvider().getName();
+    }
+
+    private static String consumer(Pact pact) {
+        return pact.getConsumer() == null ? "unknown" : pact.getConsumer().getName();
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000000000.0);
+    }
+
+    /**
+     * The outcome of the verification of a single {@link Interaction}.
+     */
+    private static final class Outcome {
+        private final Interaction interaction;
+        private final Throwable failure;
+        private final boolean cached;
+        private final long nanos;
+
+        private Outcome(Interaction interaction, Throwable failure, boolean cached, long nanos) {
+            this.interaction = interaction;
+            this.failure = failure;
+            this.cached = cached;
+            this.nanos = nanos;
+        }
+
+        private boolean success() {
+            return failure == null;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package de.eosts.fx.pact.provider;
+
+import com.google.gson.stream.JsonToken;
+import de.eosts.fx.pact.provider.CompiledMatchingRules.RuleGroup;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * A {@link ResultMatcher} comparing an XML response body with an expected XML
+ * document. Elements must appear in the same order with the same namespaces
+ * and names, attributes in any order with the same values and text with the
+ * same content apart from leading and trailing whitespace. Comments,
+ * processing instructions and whitespace between elements are ignored.
+ * <br>
+ * The expected document is compiled into a flat list of events once when the
+ * matcher is created. The actual body is first compared byte by byte with the
+ * expected one, and only if they differ it is read with a streaming StAX parser
+ * and compared event by event, so no DOM is built and the comparison stops at
+ * the first mismatch.
+ * <br>
+ * Body matching rules select text and attribute values like pact-jvm does:
+ * <code>$.root.child['#text']</code> selects the text of an element,
+ * <code>$.root.child['@id']</code> one of its attributes, and a rule of an
+ * element also applies to its text and attributes. Selected values are checked
+ * against the rule instead of being compared for equality, the structure of
+ * the elements is always compared exactly.
+ */
+public class XmlBodyMatcher implements ResultMatcher {
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final String expectedBody;
+    private final List<Event> expected;
+    private final CompiledMatchingRules rules;
+    private volatile EncodedBody encodedBody;
+
+    /**
+     * Creates a {@link XmlBodyMatcher} for the given expected XML document.
+     *
+     * @param expectedBody The expected XML document.
+     * @throws IllegalArgumentException If the expected body is not a valid XML document.
+     */
+    public XmlBodyMatcher(String expectedBody) {
+        this(expectedBody, CompiledMatchingRules.NONE);
+    }
+
+    /**
+     * Creates a {@link XmlBodyMatcher} for the given expected XML document
+     * applying the body rules of the given {@link CompiledMatchingRules} to
+     * texts and attributes.
+     *
+     * @param expectedBody The expected XML document.
+     * @param rules        The compiled matching rules of the response.
+     * @throws IllegalArgumentException If the expected body is not a valid XML document.
+     */
+    public XmlBodyMatcher(String expectedBody, CompiledMatchingRules rules) {
+        this.expectedBody = expectedBody;
+        this.rules = rules;
+        this.expected = newArrayList();
+        try {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader(new StringReader(expectedBody));
+            try {
+                for (Event event = next(reader); event != null; event = next(reader)) {
+                    expected.add(event);
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Expected body is not a valid XML document: " + expectedBody, e);
+        }
+    }
+
+    @Override
+    public void match(MvcResult result) throws Exception {
+        MockHttpServletResponse response = result.getResponse();
+        byte[] content = response.getContentAsByteArray();
+        if (!rules.hasBodyRules() && Arrays.equals(expectedBytes(response.getCharacterEncoding()), content)) {
+            return;
+        }
+
+        String mismatch;
+        try (InputStream in = new ByteArrayInputStream(content)) {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+            try {
+                mismatch = compare(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new AssertionError("Response body is not a valid XML document: " + response.getContentAsString(), e);
+        }
+
+        if (mismatch != null) {
+            throw new AssertionError(mismatch + "\nExpected: " + expectedBody + "\nActual: " + response.getContentAsString());
+        }
+    }
+
+    private String compare(XMLStreamReader reader) throws XMLStreamException {
+        Deque<String> path = new ArrayDeque<>();
+        int index = 0;
+        for (Event actual = next(reader); actual != null; actual = next(reader), index++) {
+            if (index >= expected.size()) {
+                return describe(path, "Unexpected " + actual);
+            }
+            Event event = expected.get(index);
+            if (!event.equals(actual)) {
+                String failure = checkRules(path, event, actual);
+                if (failure != null) {
+                    return describe(path, failure);
+                }
+            }
+            if (event.type == XMLStreamConstants.START_ELEMENT) {
+                path.addLast(event.name.getLocalPart());
+            } else if (event.type == XMLStreamConstants.END_ELEMENT) {
+                path.removeLast();
+            }
+        }
+        return index < expected.size() ? describe(path, "Missing " + expected.get(index)) : null;
+    }
+
+    /**
+     * Checks the differing texts or attribute values of two events against
+     * the body rules selecting them.
+     *
+     * @return A description of the mismatch or <code>null</code> if the rules
+     * accept the actual event.
+     */
+    private String checkRules(Deque<String> path, Event event, Event actual) {
+        String mismatch = "Expected " + event + " but was " + actual;
+        if (!rules.hasBodyRules() || event.type != actual.type || !Objects.equals(event.name, actual.name)) {
+            return mismatch;
+        }
+
+        if (event.type == XMLStreamConstants.CHARACTERS) {
+            return checkRule(path, "#text", event.text, actual.text, mismatch);
+        }
+        if (event.type != XMLStreamConstants.START_ELEMENT
+                || !event.attributes.keySet().equals(actual.attributes.keySet())) {
+            return mismatch;
+        }
+        Deque<String> elementPath = new ArrayDeque<>(path);
+        elementPath.addLast(event.name.getLocalPart());
+        for (Map.Entry<String, String> attribute : event.attributes.entrySet()) {
+            String value = actual.attributes.get(attribute.getKey());
+            if (!attribute.getValue().equals(value)) {
+                String failure = checkRule(elementPath, "@" + QName.valueOf(attribute.getKey()).getLocalPart(),
+                        attribute.getValue(), value, mismatch);
+                if (failure != null) {
+                    return failure;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String checkRule(Deque<String> path, String token, String expectedValue, String value,
+            String mismatch) {
+        List<Object> valuePath = newArrayList(path);
+        valuePath.add(token);
+        RuleGroup rule = rules.forBodyPath(valuePath);
+        return rule == null ? mismatch
+                : rule.check(JsonToken.STRING, JsonToken.STRING, value, expectedValue.equals(value));
+    }
+
+    private static String describe(Deque<String> path, String message) {
+        return "XML body mismatch at /" + String.join("/", path) + ": " + message;
+    }
+
+    /**
+     * Reads the next significant event.
+     *
+     * @return The event or <code>null</code> at the end of the document.
+     */
+    private static Event next(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                Map<String, String> attributes = new TreeMap<>();
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    attributes.put(reader.getAttributeName(i).toString(), reader.getAttributeValue(i));
+                }
+                return new Event(XMLStreamConstants.START_ELEMENT, reader.getName(), attributes, null);
+            case XMLStreamConstants.END_ELEMENT:
+                return new Event(XMLStreamConstants.END_ELEMENT, reader.getName(), null, null);
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+                String text = reader.getText().trim();
+                if (!text.isEmpty()) {
+                    return new Event(XMLStreamConstants.CHARACTERS, null, null, text);
+                }
+                break;
+            default:
+                break;
+            }
+        }
+        return null;
+    }
+
+    private byte[] expectedBytes(String charset) {
+        EncodedBody encoded = encodedBody;
+        if (encoded == null || !encoded.charset.equals(charset)) {
+            encoded = new EncodedBody(charset, expectedBody.getBytes(Charset.forName(charset)));
+            encodedBody = encoded;
+        }
+        return encoded.bytes;
+    }
+
+    private static final class EncodedBody {
+        private final String charset;
+        private final byte[] bytes;
+
+        private EncodedBody(String charset, byte[] bytes) {
+            this.charset = charset;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class Event {
+        private final int type;
+        private final QName name;
+        private final Map<String, String> attributes;
+        private final String text;
+
+        private Event(int type, QName name, Map<String, String> attributes, String text) {
+            this.type = type;
+            this.name = name;
+            this.attributes = attributes;
+            this.text = text;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Event)) {
+                return false;
+            }
+            Event other = (Event) o;
+            return type == other.type && Objects.equals(name, other.name)
+                    && Objects.equals(attributes, other.attributes) && Objects.equals(text, other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, name, attributes, text);
+        }
+
+        @Override
+        public String toString() {
+            switch (type) {
+            case XMLStreamConstants.START_ELEMENT:
+                return "element <" + name + (attributes.isEmpty() ? "" : " " + attributes) + ">";
+            case XMLStreamConstants.END_ELEMENT:
+                return "end of element <" + name + ">";
+            default:
+                return "text \"" + text + "\"";
+            }
+        }
+    }
+}
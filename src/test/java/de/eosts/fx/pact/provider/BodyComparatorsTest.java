@@ -0,0 +1,146 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.OptionalBody;
+import au.com.dius.pact.model.Response;
+import au.com.dius.pact.model.matchingrules.MatchingRule;
+import au.com.dius.pact.model.matchingrules.MatchingRules;
+import au.com.dius.pact.model.matchingrules.RegexMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Collections;
+
+import static de.eosts.fx.pact.provider.JsonBodyMatcherTest.result;
+
+public class BodyComparatorsTest {
+
+    @Test
+    public void choosesComparatorByContentType() {
+        Assert.assertTrue(matcher(null, "{}") instanceof JsonBodyMatcher);
+        Assert.assertTrue(matcher("application/json;charset=UTF-8", "{}") instanceof JsonBodyMatcher);
+        Assert.assertTrue(matcher("application/hal+json", "{}") instanceof JsonBodyMatcher);
+        Assert.assertTrue(matcher("text/xml", "<a/>") instanceof XmlBodyMatcher);
+        Assert.assertTrue(matcher("application/atom+xml", "<a/>") instanceof XmlBodyMatcher);
+        Assert.assertTrue(matcher("application/x-www-form-urlencoded", "a=1") instanceof FormBodyMatcher);
+        Assert.assertTrue(matcher("text/csv", "a,b") instanceof TextBodyMatcher);
+        Assert.assertTrue(matcher("application/octet-stream", "a") instanceof TextBodyMatcher);
+    }
+
+    @Test
+    public void runnerUsesExpectedContentType() {
+        Response response = new Response(200, Collections.singletonMap("content-type", "text/plain"),
+                OptionalBody.body("not json"));
+
+        Assert.assertTrue(new PactTestRunner(Collections.emptyList()).responseMatchers(response).stream()
+                .anyMatch(matcher -> matcher instanceof TextBodyMatcher));
+    }
+
+    @Test
+    public void textComparesExactly() throws Exception {
+        new TextBodyMatcher("id;name\n1;x\n").match(result("id;name\n1;x\n"));
+
+        try {
+            new TextBodyMatcher("id;name\n1;x\n").match(result("id;name\n1;y\n"));
+            Assert.fail("Expected a mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("at character 10"));
+        }
+    }
+
+    @Test
+    public void xmlIgnoresFormattingAndAttributeOrder() throws Exception {
+        new XmlBodyMatcher("<a x=\"1\" y=\"2\"><b>text</b><!-- c --><c/></a>")
+                .match(result("<?xml version=\"1.0\"?>\n<a y=\"2\" x=\"1\">\n  <b> text </b>\n  <c></c>\n</a>"));
+    }
+
+    @Test
+    public void xmlMismatchReportsPath() throws Exception {
+        try {
+            new XmlBodyMatcher("<a><b><c>1</c></b></a>").match(result("<a><b><c>2</c></b></a>"));
+            Assert.fail("Expected a mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("/a/b/c"));
+        }
+
+        try {
+            new XmlBodyMatcher("<a><b/></a>").match(result("<a><b/><b/></a>"));
+            Assert.fail("Expected a mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("but was element <b>"));
+        }
+    }
+
+    @Test
+    public void formIgnoresFieldOrder() throws Exception {
+        new FormBodyMatcher("a=1&b=x+y&a=2").match(result("b=x%20y&a=1&a=2"));
+
+        try {
+            new FormBodyMatcher("a=1&b=2").match(result("a=1&b=3"));
+            Assert.fail("Expected a mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Field \"b\""));
+        }
+    }
+
+    @Test
+    public void textAppliesRootRule() throws Exception {
+        CompiledMatchingRules rules = rules("$", new RegexMatcher("id-\\d+"));
+        BodyComparators.forContentType("text/plain").matcher("id-1", rules).match(result("id-4711"));
+
+        try {
+            BodyComparators.forContentType("text/plain").matcher("id-1", rules).match(result("id-x"));
+            Assert.fail("Expected a mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("id-\\d+"));
+        }
+    }
+
+    @Test
+    public void xmlAppliesRulesToTextsAndAttributes() throws Exception {
+        MatchingRules matchingRules = new MatchingRules();
+        matchingRules.addCategory("body").addRule("$.a.b['#text']", new RegexMatcher("\\d+"));
+        matchingRules.rulesForCategory("body").addRule("$.a.c['@id']", new RegexMatcher("[a-z]+"));
+        ResultMatcher matcher = BodyComparators.forContentType("application/xml")
+                .matcher("<a><b>1</b><c id=\"x\">text</c></a>", CompiledMatchingRules.of(matchingRules));
+
+        matcher.match(result("<a><b>42</b><c id=\"abc\">text</c></a>"));
+        try {
+            matcher.match(result("<a><b>42</b><c id=\"abc\">other</c></a>"));
+            Assert.fail("Expected a mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("/a/c"));
+        }
+        try {
+            matcher.match(result("<a><b>x</b><c id=\"abc\">text</c></a>"));
+            Assert.fail("Expected a mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("/a/b"));
+        }
+    }
+
+    @Test
+    public void formAppliesRulesToFields() throws Exception {
+        CompiledMatchingRules rules = rules("$.id", new RegexMatcher("\\d+"));
+        ResultMatcher matcher = BodyComparators.forContentType("application/x-www-form-urlencoded")
+                .matcher("id=1&name=x", rules);
+
+        matcher.match(result("name=x&id=4711"));
+        try {
+            matcher.match(result("name=x&id=abc"));
+            Assert.fail("Expected a mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Field \"id\""));
+        }
+    }
+
+    private static CompiledMatchingRules rules(String path, MatchingRule rule) {
+        MatchingRules matchingRules = new MatchingRules();
+        matchingRules.addCategory("body").addRule(path, rule);
+        return CompiledMatchingRules.of(matchingRules);
+    }
+
+    private static ResultMatcher matcher(String contentType, String body) {
+        return BodyComparators.forContentType(contentType).matcher(body, CompiledMatchingRules.NONE);
+    }
+}
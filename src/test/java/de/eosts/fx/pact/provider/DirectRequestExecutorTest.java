@@ -0,0 +1,126 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import javax.servlet.Filter;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.interaction;
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.pact;
+
+public class DirectRequestExecutorTest {
+
+    private AnnotationConfigWebApplicationContext context;
+
+    @Before
+    public void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(WebConfig.class);
+        context.refresh();
+    }
+
+    @After
+    public void tearDown() {
+        context.close();
+    }
+
+    @Test
+    public void verifiesWithoutMockMvc() throws Throwable {
+        AtomicInteger filtered = new AtomicInteger();
+        Filter filter = (request, response, chain) -> {
+            filtered.incrementAndGet();
+            chain.doFilter(request, response);
+        };
+        RequestExecutor executor = new DirectRequestExecutor(context, filter);
+        Pact pact = pact(interaction("d1", "/entity/1", 200, "{\"id\": 1}"), interaction("d2", "/entity/2", 200));
+
+        for (int i = 0; i < 3; i++) {
+            new PactTestRunner(pact).requestExecutor(executor).providerState("state").run();
+        }
+        Assert.assertEquals(6, filtered.get());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void failsOnMismatch() throws Throwable {
+        new PactTestRunner(pact(interaction("d1", "/entity/1", 200, "{\"id\": 2}")))
+                .requestExecutor(new DirectRequestExecutor(context)).providerState("state").run();
+    }
+
+    @Test
+    public void exposesHandlerAndResolvedException() throws Exception {
+        RequestExecutor executor = new DirectRequestExecutor(context);
+
+        executor.perform(MockMvcRequestBuilders.get("/entity/1"))
+                .andExpect(MockMvcResultMatchers.handler().handlerType(PactTestRunnerTest.EntityController.class))
+                .andExpect(MockMvcResultMatchers.handler().methodName("entity"));
+        MvcResult result = executor.perform(MockMvcRequestBuilders.get("/missing")).andReturn();
+
+        Assert.assertEquals(404, result.getResponse().getStatus());
+        Assert.assertTrue(result.getResolvedException() instanceof EntityNotFoundException);
+        Assert.assertNotNull(result.getInterceptors());
+        Assert.assertNull(result.getModelAndView());
+    }
+
+    @Test
+    public void rejectsAsynchronousRequests() throws Exception {
+        try {
+            new DirectRequestExecutor(context).perform(MockMvcRequestBuilders.get("/async"));
+            Assert.fail("Expected an IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("not supported by the DirectRequestExecutor"));
+        }
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class WebConfig {
+        @Bean
+        PactTestRunnerTest.EntityController entityController() {
+            return new PactTestRunnerTest.EntityController();
+        }
+
+        @Bean
+        OtherController otherController() {
+            return new OtherController();
+        }
+    }
+
+    @Controller
+    static class OtherController {
+        @RequestMapping("/missing")
+        @ResponseBody
+        public String missing() {
+            throw new EntityNotFoundException();
+        }
+
+        @RequestMapping("/async")
+        @ResponseBody
+        public Callable<String> async() {
+            return () -> "{}";
+        }
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    static class EntityNotFoundException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
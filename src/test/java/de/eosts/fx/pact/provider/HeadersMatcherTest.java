@@ -0,0 +1,127 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.matchingrules.MatchingRules;
+import au.com.dius.pact.model.matchingrules.RegexMatcher;
+import de.eosts.fx.pact.util.PactTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class HeadersMatcherTest {
+
+    @Test
+    public void matchesCaseInsensitiveNames() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("x-request-id", "42");
+
+        match(headers("X-Request-ID", "42"), response);
+    }
+
+    @Test
+    public void matchesMultiValueHeaders() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("Vary", "Accept");
+        response.addHeader("Vary", "Origin");
+
+        match(headers("Vary", "Accept,Origin"), response);
+    }
+
+    @Test
+    public void matchesExpectedParameters() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setContentType("application/json;charset=UTF-8");
+
+        match(headers("Content-Type", "application/json"), response);
+        match(headers("Content-Type", "application/json; charset=utf-8"), response);
+        Assert.assertNotNull(mismatch(headers("Content-Type", "application/json;charset=ISO-8859-1"), response));
+    }
+
+    @Test
+    public void comparesOnlyCharsetIgnoringCase() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("Content-Type", "multipart/form-data; boundary=AbC; charset=utf-8");
+
+        match(headers("Content-Type", "Multipart/Form-Data; Boundary=AbC; Charset=UTF-8"), response);
+        Assert.assertNotNull(mismatch(headers("Content-Type", "multipart/form-data; boundary=abc"), response));
+    }
+
+    @Test
+    public void keepsQuotedSeparatorsWithinValues() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("Content-Disposition", "attachment; filename=\"a, b.txt\"");
+        response.addHeader("ETag", "\"x,y\"");
+        response.addHeader("ETag", "\"z\"");
+
+        match(headers("Content-Disposition", "attachment; filename=\"a, b.txt\"", "ETag", "\"x,y\", \"z\""),
+                response);
+        Assert.assertNotNull(mismatch(headers("ETag", "\"x\", \"y\", \"z\""), response));
+    }
+
+    @Test
+    public void comparesParametersExactlyExceptForContentType() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("Set-Cookie", "a=1; Secure; HttpOnly; Path=/");
+
+        match(headers("Set-Cookie", "a=1; Secure; HttpOnly; Path=/"), response);
+        Assert.assertNotNull(mismatch(headers("Set-Cookie", "a=1; Secure"), response));
+    }
+
+    @Test
+    public void reportsAllMismatchesOrderedByName() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("B", "1");
+
+        AssertionError error = mismatch(headers("C", "3", "B", "2", "A", "1"), response);
+
+        String[] lines = error.getMessage().split("\n");
+        Assert.assertEquals(3, lines.length);
+        Assert.assertTrue(lines[0], lines[0].startsWith("Response header 'A'"));
+        Assert.assertTrue(lines[1], lines[1].contains("Expected '2' but was '1'"));
+        Assert.assertTrue(lines[2], lines[2].startsWith("Response header 'C'"));
+    }
+
+    @Test
+    public void appliesHeaderRules() throws Exception {
+        MatchingRules matchingRules = new MatchingRules();
+        matchingRules.addCategory("header").addRule("X-Id", new RegexMatcher("\\d+"));
+        HeadersMatcher matcher = new HeadersMatcher(headers("X-Id", "1"), CompiledMatchingRules.of(matchingRules));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("x-id", "4711");
+        matcher.match(PactTestUtils.mvcResult(response));
+
+        response.setHeader("x-id", "abc");
+        try {
+            matcher.match(PactTestUtils.mvcResult(response));
+            Assert.fail("Expected a mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("X-Id"));
+        }
+    }
+
+    private static Map<String, String> headers(String... namesAndValues) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            headers.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return headers;
+    }
+
+    private static void match(Map<String, String> headers, MockHttpServletResponse response) throws Exception {
+        new HeadersMatcher(headers, CompiledMatchingRules.NONE).match(PactTestUtils.mvcResult(response));
+    }
+
+    private static AssertionError mismatch(Map<String, String> headers, MockHttpServletResponse response)
+            throws Exception {
+        try {
+            match(headers, response);
+        } catch (AssertionError e) {
+            return e;
+        }
+        Assert.fail("Expected a mismatch for " + headers);
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import de.eosts.fx.pact.util.PactTestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class InteractionIndexTest {
+
+    private List<Pact> pacts;
+
+    @Before
+    public void setUp() throws Exception {
+        pacts = newArrayList(PactLoader.loadPactGeneric(PactTestUtils.getPactString("p1", "c1", "s1", "d1")),
+                PactLoader.loadPactGeneric(PactTestUtils.getPactString("p1", "c2", "s2", "d1")),
+                PactLoader.loadPactGeneric(PactTestUtils.getPactString("p2", "c1", "s1", "d2")));
+    }
+
+    @Test
+    public void findByState() {
+        List<Interaction> interactions = InteractionIndex.of(pacts)
+                .find(Optional.empty(), Optional.empty(), Optional.of("S1"), Optional.empty());
+        assertEquals(2, interactions.size());
+    }
+
+    @Test
+    public void findByStateAndDescription() {
+        List<Interaction> interactions = InteractionIndex.of(pacts)
+                .find(Optional.empty(), Optional.empty(), Optional.of("s1"), Optional.of("D2"));
+        assertEquals(1, interactions.size());
+        assertEquals("d2", interactions.get(0).getDescription());
+    }
+
+    @Test
+    public void findByProviderAndConsumer() {
+        InteractionIndex index = InteractionIndex.of(pacts);
+        assertEquals(1, index.find(Optional.of("p1"), Optional.empty(), Optional.of("s1"), Optional.empty()).size());
+        assertEquals(1, index.find(Optional.of("p1"), Optional.of("c2b"), Optional.of("s2"), Optional.empty()).size());
+        assertEquals(0, index.find(Optional.of("p2"), Optional.of("c2b"), Optional.of("s1"), Optional.empty()).size());
+    }
+
+    @Test
+    public void findMissingState() {
+        assertEquals(0, InteractionIndex.of(pacts)
+                .find(Optional.empty(), Optional.empty(), Optional.of("s3"), Optional.empty()).size());
+    }
+
+    @Test
+    public void indexIsSharedForSamePacts() {
+        assertSame(InteractionIndex.of(pacts), InteractionIndex.of(newArrayList(pacts.get(2), pacts.get(0), pacts.get(1))));
+    }
+}
@@ -0,0 +1,143 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import org.junit.Assert;
+import org.junit.AssumptionViolatedException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.interaction;
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.pact;
+
+public class InteractionShardingTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PactTestRunnerTest.EntityController()).build();
+
+    @Test
+    public void assignsEachInteractionToExactlyOneShard() {
+        Pact pact = pact(IntStream.range(0, 30).mapToObj(i -> interaction("d" + i, "/entity/" + i, 200))
+                .toArray(String[]::new));
+
+        Set<String> all = new TreeSet<>();
+        for (int index = 0; index < 3; index++) {
+            Set<String> shard = descriptions(new InteractionSharding(index, 3).select(Collections.singleton(pact)));
+            Assert.assertFalse(shard.isEmpty());
+            for (String description : shard) {
+                Assert.assertTrue(description + " is in two shards", all.add(description));
+            }
+        }
+        Assert.assertEquals(30, all.size());
+    }
+
+    @Test
+    public void assignsIndependentOfPactInstancesAndOrder() {
+        Pact pact = pact(interaction("d1", "/entity/1", 200), interaction("d2", "/entity/2", 200),
+                interaction("d3", "/entity/3", 200), interaction("d4", "/entity/4", 200));
+        Pact reversed = pact(interaction("d4", "/entity/4", 200), interaction("d3", "/entity/3", 200),
+                interaction("d2", "/entity/2", 200), interaction("d1", "/entity/1", 200));
+
+        InteractionSharding sharding = new InteractionSharding(1, 2);
+        Assert.assertEquals(descriptions(sharding.select(Collections.singleton(pact))),
+                descriptions(sharding.select(Collections.singleton(reversed))));
+    }
+
+    @Test
+    public void balancesShardsByDurations() {
+        Pact pact = pact(interaction("d0", "/entity/0", 200), interaction("d1", "/entity/1", 200),
+                interaction("d2", "/entity/2", 200), interaction("d3", "/entity/3", 200),
+                interaction("d4", "/entity/4", 200));
+        Map<String, Long> durations = new HashMap<>();
+        durations.put(InteractionSharding.key("c", "state", "d0"), 100L);
+        IntStream.range(1, 5).forEach(i -> durations.put(InteractionSharding.key("c", "state", "d" + i), 25L));
+        // Durations of other consumers don't count
+        durations.put(InteractionSharding.key("other", "state", "d1"), 1000L);
+
+        Assert.assertEquals(new TreeSet<>(Collections.singleton("d0")),
+                descriptions(new InteractionSharding(0, 2, durations).select(Collections.singleton(pact))));
+        Assert.assertEquals(new TreeSet<>(Arrays.asList("d1", "d2", "d3", "d4")),
+                descriptions(new InteractionSharding(1, 2, durations).select(Collections.singleton(pact))));
+    }
+
+    @Test
+    public void readsDurationsOfReport() throws Throwable {
+        for (String name : new String[] { "verification.csv", "verification.json" }) {
+            File file = new File(folder.getRoot(), name);
+            VerificationReport report = new VerificationReport(file,
+                    name.endsWith(".json") ? VerificationReport.Format.JSON : VerificationReport.Format.CSV);
+            Pact pact = pact(interaction("d1", "/entity/1", 200), interaction("d, \\\"2\\\"", "/entity/2", 200));
+            new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").addListeners(report).run();
+
+            Map<String, Long> durations = VerificationReport.readDurations(file);
+
+            Assert.assertEquals(name, 2, durations.size());
+            for (Interaction interaction : pact.getInteractions()) {
+                Assert.assertTrue(name, durations.get(InteractionSharding.key(pact, interaction)) > 0);
+            }
+        }
+    }
+
+    @Test
+    public void skipsStateOfOtherShards() throws Throwable {
+        Pact pact = pact(interaction("d1", "/entity/1", 200));
+        int own = new InteractionSharding(0, 2).shardOf(InteractionSharding.key(pact, pact.getInteractions().get(0)));
+
+        new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").sharding(new InteractionSharding(own, 2))
+                .run();
+        try {
+            new PactTestRunner(pact).mockMvc(mockMvc).providerState("state")
+                    .sharding(new InteractionSharding(1 - own, 2)).run();
+            Assert.fail("Expected an AssumptionViolatedException");
+        } catch (AssumptionViolatedException e) {
+            Assert.assertTrue(e.getMessage().contains("other shards than " + (1 - own) + " of 2"));
+        }
+    }
+
+    @Test
+    public void suiteIgnoresInteractionsOfOtherShards() {
+        int run = 0;
+        try {
+            System.setProperty(InteractionSharding.COUNT_PROPERTY, "2");
+            for (int index = 0; index < 2; index++) {
+                System.setProperty(InteractionSharding.INDEX_PROPERTY, String.valueOf(index));
+                Result result = new JUnitCore().run(Request.aClass(PactSuiteRunnerTest.EntitySuite.class));
+
+                Assert.assertTrue(result.getFailures().toString(), result.wasSuccessful());
+                Assert.assertEquals(3, result.getRunCount() + result.getIgnoreCount());
+                run += result.getRunCount();
+            }
+        } finally {
+            System.clearProperty(InteractionSharding.COUNT_PROPERTY);
+            System.clearProperty(InteractionSharding.INDEX_PROPERTY);
+        }
+        Assert.assertEquals(3, run);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsIndexOutOfCount() {
+        new InteractionSharding(2, 2);
+    }
+
+    private static Set<String> descriptions(Set<Interaction> interactions) {
+        return interactions.stream().map(Interaction::getDescription).collect(Collectors.toCollection(TreeSet::new));
+    }
+}
@@ -0,0 +1,198 @@
+package de.eosts.fx.pact.provider;
+
+import org.junit.Assert;
+import org.junit.Test;
+import au.com.dius.pact.model.matchingrules.DateMatcher;
+import au.com.dius.pact.model.matchingrules.MatchingRule;
+import au.com.dius.pact.model.matchingrules.MatchingRules;
+import au.com.dius.pact.model.matchingrules.MinTypeMatcher;
+import au.com.dius.pact.model.matchingrules.NumberTypeMatcher;
+import au.com.dius.pact.model.matchingrules.RegexMatcher;
+import au.com.dius.pact.model.matchingrules.TimestampMatcher;
+import au.com.dius.pact.model.matchingrules.TypeMatcher;
+import de.eosts.fx.pact.util.PactTestUtils;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class JsonBodyMatcherTest {
+
+    @Test
+    public void matchIdenticalBody() throws Exception {
+        match("{\"a\": 1}", "{\"a\": 1}");
+    }
+
+    @Test
+    public void matchAllowsAdditionalFieldsAndOtherOrder() throws Exception {
+        match("{\"a\": 1, \"b\": {\"c\": [1, 2]}}", "{\"x\": [true, {\"y\": null}], \"b\": {\"d\": 3, \"c\": [1, 2]}, \"a\": 1.0}");
+    }
+
+    @Test
+    public void matchAllowsAnyArrayOrder() throws Exception {
+        match("[{\"id\": 1}, {\"id\": 2}, {\"id\": 3}]", "[{\"id\": 1}, {\"id\": 3, \"n\": \"x\"}, {\"id\": 2}]");
+    }
+
+    @Test
+    public void mismatchReportsPath() throws Exception {
+        AssertionError error = mismatch("{\"a\": {\"b\": [1, \"x\"]}}", "{\"a\": {\"b\": [1, \"y\"]}}");
+        Assert.assertTrue(error.getMessage(), error.getMessage().contains("$.a.b[1]"));
+    }
+
+    @Test
+    public void mismatchOnMissingField() throws Exception {
+        AssertionError error = mismatch("{\"a\": 1, \"b\": 2}", "{\"a\": 1}");
+        Assert.assertTrue(error.getMessage(), error.getMessage().contains("\"b\" is missing"));
+    }
+
+    @Test
+    public void mismatchOnArrayLength() throws Exception {
+        mismatch("[1, 2]", "[1, 2, 3]");
+    }
+
+    @Test
+    public void mismatchOnType() throws Exception {
+        mismatch("{\"a\": 1}", "{\"a\": \"1\"}");
+    }
+
+    @Test
+    public void mismatchOnInvalidJson() throws Exception {
+        mismatch("{\"a\": 1}", "{\"a\": ");
+    }
+
+    @Test
+    public void matchWithRegexAndTypeRules() throws Exception {
+        MatchingRules rules = new MatchingRules();
+        rules.addCategory("body").addRule("$.id", new RegexMatcher("\\d+"));
+        rules.rulesForCategory("body").addRule("$.name", TypeMatcher.INSTANCE);
+        rules.rulesForCategory("body").addRule("$.created", new DateMatcher("yyyy-MM-dd"));
+        CompiledMatchingRules compiled = CompiledMatchingRules.of(rules);
+
+        new JsonBodyMatcher("{\"id\": 1, \"name\": \"a\", \"created\": \"2017-01-01\"}", compiled)
+                .match(result("{\"id\": 12345, \"name\": \"other\", \"created\": \"2018-12-31\"}"));
+
+        try {
+            new JsonBodyMatcher("{\"id\": 1, \"name\": \"a\"}", compiled).match(result("{\"id\": 1, \"name\": 1}"));
+            Assert.fail("Expected a type mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("$.name"));
+        }
+    }
+
+    @Test
+    public void matchDatesLikeSimpleDateFormat() throws Exception {
+        MatchingRules rules = new MatchingRules();
+        rules.addCategory("body").addRule("$.date", new DateMatcher("yyyy-MM-dd"));
+        rules.rulesForCategory("body").addRule("$.timestamp", new TimestampMatcher("yyyy-MM-dd'T'HH:mm:ss.SSSZ"));
+        CompiledMatchingRules compiled = CompiledMatchingRules.of(rules);
+        String expected = "{\"date\": \"2017-01-01\", \"timestamp\": \"2017-01-01T10:15:30.123+0100\"}";
+
+        new JsonBodyMatcher(expected, compiled)
+                .match(result("{\"date\": \"2018-1-5\", \"timestamp\": \"2018-12-31T10:15:30.5-0800\"}"));
+
+        try {
+            new JsonBodyMatcher(expected, compiled)
+                    .match(result("{\"date\": \"2018-01-05x\", \"timestamp\": \"2018-12-31T10:15:30.500-0800\"}"));
+            Assert.fail("Expected a format mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("$.date"));
+        }
+    }
+
+    @Test
+    public void unsupportedRuleFallsBackToEquality() throws Exception {
+        MatchingRule unsupported = new MatchingRule() {
+            @Override
+            public Map<String, Object> toMap() {
+                return Collections.<String, Object>singletonMap("match", "unsupported");
+            }
+
+            @Override
+            public String toString() {
+                return "UnsupportedMatcher";
+            }
+        };
+        MatchingRules rules = new MatchingRules();
+        rules.addCategory("body").addRule("$.id", unsupported);
+        rules.rulesForCategory("body").addRule("$.name", TypeMatcher.INSTANCE);
+        CompiledMatchingRules compiled = CompiledMatchingRules.of(rules);
+
+        new JsonBodyMatcher("{\"id\": 1, \"name\": \"a\"}", compiled).match(result("{\"id\": 1, \"name\": \"b\"}"));
+
+        try {
+            new JsonBodyMatcher("{\"id\": 1, \"name\": \"a\"}", compiled).match(result("{\"id\": 2, \"name\": \"b\"}"));
+            Assert.fail("Expected a mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("$.id"));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("UnsupportedMatcher"));
+        }
+    }
+
+    @Test
+    public void matchArrayWithMinTypeRule() throws Exception {
+        MatchingRules rules = new MatchingRules();
+        rules.addCategory("body").addRule("$.items", new MinTypeMatcher(2));
+        rules.rulesForCategory("body").addRule("$.items[*].id",
+                new NumberTypeMatcher(NumberTypeMatcher.NumberType.INTEGER));
+        CompiledMatchingRules compiled = CompiledMatchingRules.of(rules);
+        JsonBodyMatcher matcher = new JsonBodyMatcher("{\"items\": [{\"id\": 1, \"name\": \"a\"}]}", compiled);
+
+        matcher.match(result("{\"items\": [{\"id\": 7, \"name\": \"x\"}, {\"id\": 8, \"name\": \"y\"}, "
+                + "{\"id\": 9, \"name\": \"z\"}]}"));
+
+        try {
+            matcher.match(result("{\"items\": [{\"id\": 7, \"name\": \"x\"}]}"));
+            Assert.fail("Expected a size mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("at least 2"));
+        }
+
+        try {
+            matcher.match(result("{\"items\": [{\"id\": 7, \"name\": \"x\"}, {\"id\": 1.5, \"name\": \"y\"}]}"));
+            Assert.fail("Expected a number type mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("$.items[1].id"));
+        }
+    }
+
+    @Test
+    public void skipsStructuredValueMatchedByRule() throws Exception {
+        MatchingRules rules = new MatchingRules();
+        rules.addCategory("body").setRules("$.a", Collections.emptyList());
+        rules.rulesForCategory("body").addRule("$.b", TypeMatcher.INSTANCE);
+        CompiledMatchingRules compiled = CompiledMatchingRules.of(rules);
+        JsonBodyMatcher matcher = new JsonBodyMatcher("{\"a\": 1, \"b\": 2}", compiled);
+
+        matcher.match(result("{\"a\": {\"x\": [1, 2]}, \"b\": 2}"));
+        matcher.match(result("{\"a\": [{\"b\": 3}], \"b\": 2}"));
+
+        try {
+            matcher.match(result("{\"a\": {\"b\": 2}, \"b\": \"2\"}"));
+            Assert.fail("Expected a mismatch");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("$.b"));
+        }
+    }
+
+    private static void match(String expected, String actual) throws Exception {
+        new JsonBodyMatcher(expected).match(result(actual));
+    }
+
+    private static AssertionError mismatch(String expected, String actual) throws Exception {
+        try {
+            match(expected, actual);
+        } catch (AssertionError e) {
+            return e;
+        }
+        Assert.fail("Expected a mismatch between " + expected + " and " + actual);
+        return null;
+    }
+
+    static MvcResult result(String body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(body);
+        return PactTestUtils.mvcResult(response);
+    }
+}
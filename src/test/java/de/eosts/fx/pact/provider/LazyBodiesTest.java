@@ -0,0 +1,102 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+import au.com.dius.pact.model.RequestResponseInteraction;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+
+public class LazyBodiesTest {
+
+    private static final String PACT = "{\"provider\": {\"name\": \"p\"},\"consumer\": {\"name\": \"c\"},"
+            + "\"interactions\": [{\"description\": \"d1\",\"providerState\": \"state\","
+            + "\"request\": {\"method\": \"POST\",\"path\": \"/entity/1\",\"body\": {\"name\": \"\u00e4\", \"v\": [1, 2.50]}},"
+            + "\"response\": {\"status\": 200,\"body\": {\"id\": 1}}},"
+            + "{\"description\": \"d2\",\"providerState\": \"state\","
+            + "\"request\": {\"method\": \"GET\",\"path\": \"/entity/2\",\"body\": \"\"},"
+            + "\"response\": {\"status\": 200,\"body\": \"plain text\"}},"
+            + "{\"description\": \"d3\",\"providerState\": \"state\","
+            + "\"request\": {\"method\": \"GET\",\"path\": \"/entity/3\"},"
+            + "\"response\": {\"status\": 200,\"body\": null}}],"
+            + "\"metadata\": {\"pact-specification\": {\"version\": \"3.0.0\"}}}";
+
+    @Test
+    public void bodiesAreDecodedLikeEagerBodies() {
+        Pact eager = PactLoader.loadPactGeneric(PACT);
+        for (boolean offHeap : new boolean[] { false, true }) {
+            Pact lazy = LazyBodies.loadPact(PACT.getBytes(StandardCharsets.UTF_8), offHeap);
+
+            for (int i = 0; i < eager.getInteractions().size(); i++) {
+                RequestResponseInteraction expected = (RequestResponseInteraction) eager.getInteractions().get(i);
+                RequestResponseInteraction actual = (RequestResponseInteraction) lazy.getInteractions().get(i);
+                Assert.assertEquals(expected.getRequest().getBody().getState(),
+                        actual.getRequest().getBody().getState());
+                assertSameBody(expected.getRequest().getBody().getValue(),
+                        LazyBodies.value(actual.getRequest().getBody()));
+                Assert.assertEquals(expected.getResponse().getBody().getState(),
+                        actual.getResponse().getBody().getState());
+                assertSameBody(expected.getResponse().getBody().getValue(),
+                        LazyBodies.value(actual.getResponse().getBody()));
+            }
+        }
+    }
+
+    private static void assertSameBody(String expected, String actual) {
+        if (expected != null && expected.startsWith("{")) {
+            // The PactReader escapes non ASCII characters, the lazy bodies keep them as in the pact file
+            Assert.assertEquals(new JsonParser().parse(expected), new JsonParser().parse(actual));
+        } else {
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void onlyPresentBodiesAreLazy() {
+        Pact lazy = LazyBodies.loadPact(PACT.getBytes(StandardCharsets.UTF_8), false);
+
+        RequestResponseInteraction first = (RequestResponseInteraction) lazy.getInteractions().get(0);
+        RequestResponseInteraction second = (RequestResponseInteraction) lazy.getInteractions().get(1);
+        Assert.assertTrue(LazyBodies.isLazy(first.getRequest().getBody()));
+        Assert.assertTrue(LazyBodies.isLazy(second.getResponse().getBody()));
+        Assert.assertFalse(LazyBodies.isLazy(second.getRequest().getBody()));
+        Assert.assertEquals("", LazyBodies.orElse(second.getRequest().getBody(), ""));
+    }
+
+    @Test
+    public void pactsWithDifferentBodiesAreNotEqual() {
+        Pact lazy = LazyBodies.loadPact(PACT.getBytes(StandardCharsets.UTF_8), false);
+        Pact same = LazyBodies.loadPact(PACT.getBytes(StandardCharsets.UTF_8), true);
+        Pact other = LazyBodies.loadPact(PACT.replace("\"id\": 1", "\"id\": 2").getBytes(StandardCharsets.UTF_8),
+                false);
+
+        Assert.assertEquals(lazy, same);
+        Assert.assertNotEquals(lazy, other);
+        Assert.assertEquals(2, new HashSet<>(Arrays.asList(lazy, same, other)).size());
+    }
+
+    @Test
+    public void storeKeepsBodiesOffHeap() {
+        byte[] bytes = "abc\u00e4".getBytes(StandardCharsets.UTF_8);
+        PactBodyStore store = new PactBodyStore(bytes, new int[] { 0, 2, bytes.length }, true);
+
+        Assert.assertTrue(store.isOffHeap());
+        Assert.assertEquals(2, store.size());
+        Assert.assertEquals("ab", store.body(0));
+        Assert.assertEquals("c\u00e4", store.body(1));
+    }
+
+    @Test
+    public void lazyPactsAreVerified() throws Throwable {
+        Pact lazy = LazyBodies.loadPact(PactTestRunnerTest.pactJson(
+                PactTestRunnerTest.interaction("d1", "/entity/1", 200, "{\"id\": 1}")).getBytes(StandardCharsets.UTF_8),
+                true);
+
+        new PactTestRunner(lazy).providerState("state")
+                .mockMvc(MockMvcBuilders.standaloneSetup(new PactTestRunnerTest.EntityController()).build()).run();
+    }
+}
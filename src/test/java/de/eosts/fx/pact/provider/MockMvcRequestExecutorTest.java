@@ -0,0 +1,77 @@
+package de.eosts.fx.pact.provider;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.interaction;
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.pact;
+
+public class MockMvcRequestExecutorTest {
+
+    private MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AsyncController()).build();
+
+    @Test
+    public void verifiesAsyncHandlers() throws Throwable {
+        new PactTestRunner(pact(interaction("callable", "/callable/1", 200, "{\"id\": 1}"),
+                interaction("deferred", "/deferred/2", 200, "{\"id\": 2}"),
+                interaction("future", "/future/3", 200, "{\"id\": 3}"))).mockMvc(mockMvc).providerState("state").run();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void verifiesAsyncResponseBody() throws Throwable {
+        new PactTestRunner(pact(interaction("deferred", "/deferred/2", 200, "{\"id\": 3}"))).mockMvc(mockMvc)
+                .providerState("state").run();
+    }
+
+    @Test
+    public void failsAfterTimeout() throws Throwable {
+        try {
+            new PactTestRunner(pact(interaction("never", "/never", 200))).mockMvc(mockMvc).providerState("state")
+                    .asyncTimeout(Duration.ofMillis(50)).run();
+            Assert.fail("Expected a timeout");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("did not complete within 50 ms"));
+        }
+    }
+
+    @Controller
+    public static class AsyncController {
+
+        @RequestMapping("/callable/{id}")
+        @ResponseBody
+        public Callable<String> callable(@PathVariable String id) {
+            return () -> "{\"id\": " + id + "}";
+        }
+
+        @RequestMapping("/deferred/{id}")
+        @ResponseBody
+        public DeferredResult<String> deferred(@PathVariable String id) {
+            DeferredResult<String> result = new DeferredResult<>();
+            CompletableFuture.runAsync(() -> result.setResult("{\"id\": " + id + "}"));
+            return result;
+        }
+
+        @RequestMapping("/future/{id}")
+        @ResponseBody
+        public CompletableFuture<String> future(@PathVariable String id) {
+            return CompletableFuture.supplyAsync(() -> "{\"id\": " + id + "}");
+        }
+
+        @RequestMapping("/never")
+        @ResponseBody
+        public DeferredResult<String> never() {
+            return new DeferredResult<>();
+        }
+    }
+}
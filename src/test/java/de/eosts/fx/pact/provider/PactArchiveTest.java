@@ -0,0 +1,113 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+import au.com.dius.pact.model.RequestResponseInteraction;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+public class PactArchiveTest {
+
+    private static final String V3_PACT = "{\"provider\": {\"name\": \"p\"},\"consumer\": {\"name\": \"c\"},"
+            + "\"interactions\": [{\"description\": \"d1\",\"providerState\": \"state\","
+            + "\"request\": {\"method\": \"POST\",\"path\": \"/entity/1\",\"query\": {\"expand\": [\"all\"]},"
+            + "\"body\": {\"name\": \"n\", \"v\": [1, 2.50, 12345678901, true, null]}},"
+            + "\"response\": {\"status\": 200,\"headers\": {\"Content-Type\": \"application/json\"},"
+            + "\"body\": {\"id\": 1},\"matchingRules\": {\"body\": {\"$.id\": {\"matchers\": [{\"match\": \"type\"}]}}}}},"
+            + "{\"description\": \"d2\",\"providerState\": \"state\","
+            + "\"request\": {\"method\": \"GET\",\"path\": \"/entity/2\",\"body\": \"\"},"
+            + "\"response\": {\"status\": 200,\"body\": \"plain text\"}}],"
+            + "\"metadata\": {\"pact-specification\": {\"version\": \"3.0.0\"}}}";
+
+    private static final String V2_PACT = "{\"provider\": {\"name\": \"p2\"},\"consumer\": {\"name\": \"c\"},"
+            + "\"interactions\": [{\"description\": \"d\",\"providerState\": \"state\","
+            + "\"request\": {\"method\": \"GET\",\"path\": \"/entity/3\",\"query\": \"a=1&b=2\"},"
+            + "\"response\": {\"status\": 404,\"body\": {\"error\": \"missing\"},"
+            + "\"matchingRules\": {\"$.body.error\": {\"match\": \"type\"}}}}],"
+            + "\"metadata\": {\"pact-specification\": {\"version\": \"2.0.0\"}}}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void archivedPactsEqualParsedPacts() throws IOException {
+        File v3 = write("v3.json", V3_PACT);
+        File v2 = write("nested/v2.json", V2_PACT);
+
+        PactArchive archive = PactArchive.open(PactArchive.compile(folder.getRoot()));
+
+        Assert.assertEquals(Arrays.asList("nested/v2.json", "v3.json"), archive.names());
+        assertSamePact(PactLoader.loadPactGeneric(v3), archive.load("v3.json"));
+        assertSamePact(PactLoader.loadPactGeneric(v2), archive.load("nested/v2.json"));
+    }
+
+    @Test
+    public void loaderPrefersUpToDateArchive() throws IOException {
+        File pactFile = write("v3.json", V3_PACT);
+        File archiveFile = PactArchive.compile(folder.getRoot());
+        PactArchive archive = PactArchive.open(archiveFile);
+        Assert.assertTrue(archive.isUpToDate("v3.json", pactFile));
+
+        // A file of the same length that is older than the archive is taken from the archive
+        long lastModified = pactFile.lastModified();
+        Files.write(pactFile.toPath(), V3_PACT.replace("\"d1\"", "\"d9\"").getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(pactFile.setLastModified(lastModified - 1000));
+        List<Pact> pacts = PactLoader.loadPactsByFile(folder.getRoot(), true, false);
+        Assert.assertEquals(1, pacts.size());
+        Assert.assertEquals("d1", pacts.get(0).getInteractions().get(0).getDescription());
+
+        // A modified pact file is parsed again instead of taken from the archive
+        Files.write(pactFile.toPath(), V3_PACT.replace("\"d1\"", "\"modified\"").getBytes(StandardCharsets.UTF_8));
+        Assert.assertFalse(archive.isUpToDate("v3.json", pactFile));
+        pacts = PactLoader.loadPactsByFile(folder.getRoot(), true, false);
+        Assert.assertEquals("modified", pacts.get(0).getInteractions().get(0).getDescription());
+    }
+
+    @Test
+    public void lazyBodiesAreReadFromArchive() throws IOException {
+        write("v3.json", V3_PACT);
+        PactArchive archive = PactArchive.open(PactArchive.compile(folder.getRoot()));
+
+        PactLoader.bodyMode(PactLoader.BodyMode.LAZY_OFF_HEAP);
+        try {
+            Pact pact = archive.load("v3.json");
+
+            RequestResponseInteraction first = (RequestResponseInteraction) pact.getInteractions().get(0);
+            RequestResponseInteraction second = (RequestResponseInteraction) pact.getInteractions().get(1);
+            Assert.assertTrue(LazyBodies.isLazy(first.getRequest().getBody()));
+            Assert.assertEquals("{\"name\":\"n\",\"v\":[1,2.50,12345678901,true,null]}",
+                    LazyBodies.value(first.getRequest().getBody()));
+            Assert.assertEquals("plain text", LazyBodies.value(second.getResponse().getBody()));
+            Assert.assertFalse(LazyBodies.isLazy(second.getRequest().getBody()));
+        } finally {
+            PactLoader.bodyMode(PactLoader.BodyMode.EAGER);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsInvalidArchive() throws IOException {
+        PactArchive.open(write(PactArchive.FILE_NAME, "no archive"));
+    }
+
+    private static void assertSamePact(Pact expected, Pact actual) {
+        Assert.assertEquals(expected.getClass(), actual.getClass());
+        Assert.assertEquals(expected.getProvider(), actual.getProvider());
+        Assert.assertEquals(expected.getConsumer(), actual.getConsumer());
+        Assert.assertEquals(expected.getInteractions(), actual.getInteractions());
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
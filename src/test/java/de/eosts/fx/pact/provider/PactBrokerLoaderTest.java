@@ -0,0 +1,159 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.eosts.fx.pact.util.PactTestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class PactBrokerLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private String brokerUrl;
+    private Map<String, String> documents = new ConcurrentHashMap<>();
+    private AtomicInteger downloads = new AtomicInteger();
+    private AtomicInteger notModified = new AtomicInteger();
+    private volatile boolean unavailable;
+
+    @Before
+    public void startBroker() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        brokerUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        documents.put("/pacts/provider/p1/latest", index("c1", "c2"));
+        documents.put("/pacts/provider/p1/latest/prod", index("c2"));
+        documents.put("/pacts/provider/p1/consumer/c1/latest", PactTestUtils.getPactString("p1", "c1", "s1", "d1"));
+        documents.put("/pacts/provider/p1/consumer/c2/latest", PactTestUtils.getPactString("p1", "c2", "s2", "d2"));
+    }
+
+    @After
+    public void stopBroker() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void loadsLatestPactsOfProvider() {
+        List<Pact> pacts = new PactBrokerLoader(brokerUrl, folder.getRoot()).load("p1");
+
+        Assert.assertEquals(2, pacts.size());
+        Assert.assertEquals("c1b", pacts.get(0).getConsumer().getName());
+        Assert.assertEquals("c2b", pacts.get(1).getConsumer().getName());
+    }
+
+    @Test
+    public void loadsLatestPactsOfTags() {
+        List<Pact> pacts = new PactBrokerLoader(brokerUrl, folder.getRoot()).load("p1", "prod");
+
+        Assert.assertEquals(1, pacts.size());
+        Assert.assertEquals("c2b", pacts.get(0).getConsumer().getName());
+    }
+
+    @Test
+    public void downloadsOnlyChangedPacts() {
+        PactBrokerLoader loader = new PactBrokerLoader(brokerUrl, folder.getRoot());
+        loader.load("p1");
+        Assert.assertEquals(2, downloads.get());
+
+        documents.put("/pacts/provider/p1/consumer/c2/latest", PactTestUtils.getPactString("p1", "c2", "s2", "new"));
+        List<Pact> pacts = loader.load("p1");
+
+        Assert.assertEquals(3, downloads.get());
+        Assert.assertEquals(2, notModified.get());
+        Assert.assertEquals("new", pacts.get(1).getInteractions().get(0).getDescription());
+    }
+
+    @Test
+    public void fallsBackToCacheWhenOffline() {
+        new PactBrokerLoader(brokerUrl, folder.getRoot()).load("p1");
+        server.stop(0);
+        server = null;
+
+        List<Pact> pacts = new PactBrokerLoader(brokerUrl, folder.getRoot()).load("p1");
+
+        Assert.assertEquals(2, pacts.size());
+    }
+
+    @Test
+    public void fallsBackToCacheWhenUnavailable() {
+        new PactBrokerLoader(brokerUrl, folder.getRoot()).load("p1");
+        unavailable = true;
+
+        List<Pact> pacts = new PactBrokerLoader(brokerUrl, folder.getRoot()).load("p1");
+
+        Assert.assertEquals(2, pacts.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failsWhenUnavailableWithoutCache() {
+        unavailable = true;
+        new PactBrokerLoader(brokerUrl, folder.getRoot()).load("p1");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failsOnUnknownProvider() {
+        new PactBrokerLoader(brokerUrl, folder.getRoot()).load("unknown");
+    }
+
+    private String index(String... consumers) {
+        return "{\"_links\": {\"pb:pacts\": [" + Arrays.stream(consumers)
+                .map(c -> "{\"href\": \"" + brokerUrl + "/pacts/provider/p1/consumer/" + c + "/latest\", \"name\": \""
+                        + c + "\"}")
+                .collect(Collectors.joining(", ")) + "]}}";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (unavailable) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        String document = documents.get(exchange.getRequestURI().getPath());
+        if (document == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+
+        String etag = "\"" + document.hashCode() + "\"";
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        if (exchange.getRequestURI().getPath().contains("/consumer/")) {
+            downloads.incrementAndGet();
+        }
+        byte[] body = document.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.getResponseHeaders().add("Content-Type", "application/hal+json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import static de.eosts.fx.pact.util.PactTestUtils.writePactContent;
 
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -11,7 +13,11 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import com.google.common.base.Strings;
+
+import au.com.dius.pact.model.FileSource;
 import au.com.dius.pact.model.Pact;
+import au.com.dius.pact.model.RequestResponseInteraction;
 import de.eosts.fx.pact.util.PactTestUtils;
 import groovy.json.JsonException;
 
@@ -142,4 +148,110 @@ public class PactLoaderTest {
 		Pact pact = PactLoader.loadPactGeneric(PactTestUtils.getRandomPact());
 		Assert.assertNotNull(pact);
 	}
+
+	@Test
+	public void loadPactByResourceCached() throws Exception {
+		String resource = "file:" + new File(tempFolder.getRoot().getPath(), "1.json").getPath();
+		Pact pact = PactLoader.loadPactByResource(resource, true);
+		Assert.assertSame(pact, PactLoader.loadPactByResource(resource, true));
+		Assert.assertNotSame(pact, PactLoader.loadPactByResource(resource, false));
+	}
+
+	@Test
+	public void loadPactsByFileCachedReloadsModifiedFile() throws Exception {
+		File file = new File(tempFolder.getRoot().getPath(), "1.json");
+		Pact pact = PactLoader.loadPactsByFile(file, false, true).get(0);
+		Assert.assertSame(pact, PactLoader.loadPactsByFile(file, false, true).get(0));
+
+		writePactContent(file);
+		file.setLastModified(file.lastModified() + 2000);
+		Assert.assertNotSame(pact, PactLoader.loadPactsByFile(file, false, true).get(0));
+	}
+
+	@Test
+	public void cacheEvictsEldestEntries() throws Exception {
+		PactCache cache = new PactCache(1);
+		Pact pact = PactLoader.loadPactGeneric(PactTestUtils.getRandomPact());
+		cache.get("a", "1", () -> pact);
+		cache.get("b", "1", () -> pact);
+		Assert.assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void loadPactsByFileParallel() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Pact> sequential = PactLoader.loadPactsByFile(tempFolder.getRoot(), true, false, null);
+			List<Pact> parallel = PactLoader.loadPactsByFile(tempFolder.getRoot(), true, false, executor);
+			Assert.assertEquals(sequential, parallel);
+
+			parallel = PactLoader.loadPactsByResourceFolder("file:" + tempFolder.getRoot().getPath(), true, false,
+					executor);
+			Assert.assertEquals(3, parallel.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void loadPactsByFileAggregatesErrors() throws Exception {
+		writePactContent(tempFolder.newFile("invalid1.json"), "{");
+		writePactContent(new File(subfolder, "invalid2.json"), "{");
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			PactLoader.loadPactsByFile(tempFolder.getRoot(), true, false, executor);
+			Assert.fail("Expected an IllegalStateException");
+		} catch (IllegalStateException e) {
+			Assert.assertTrue(e.getMessage().contains("invalid1.json"));
+			Assert.assertTrue(e.getMessage().contains("invalid2.json"));
+			Assert.assertEquals(1, e.getSuppressed().length);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void loadPactsWithLazyBodies() throws Exception {
+		try {
+			PactLoader.bodyMode(PactLoader.BodyMode.LAZY_OFF_HEAP);
+			List<Pact> pacts = PactLoader.loadPactsByFile(tempFolder.getRoot());
+			Pact pact = PactLoader.loadPactByResource("file:" + new File(subfolder.getPath(), "4.json").getPath());
+			Assert.assertEquals(3, pacts.size());
+			for (Pact each : pacts) {
+				// Like eagerly loaded pacts, the lazy ones know their file
+				Assert.assertTrue(each.getSource() instanceof FileSource);
+				Assert.assertTrue(((FileSource) each.getSource()).getFile().isFile());
+			}
+
+			RequestResponseInteraction interaction = (RequestResponseInteraction) pact.getInteractions().get(0);
+			Assert.assertTrue(LazyBodies.isLazy(interaction.getResponse().getBody()));
+			Assert.assertEquals("{}", LazyBodies.value(interaction.getResponse().getBody()));
+		} finally {
+			PactLoader.bodyMode(PactLoader.BodyMode.EAGER);
+		}
+	}
+
+	@Test
+	public void loadPactsByFileMapsLargeFiles() throws Exception {
+		File folder = tempFolder.newFolder("large");
+		String body = Strings.repeat("\u00e4bc", 400 * 1024);
+		writePactContent(new File(folder, "large.json"), PactTestUtils.getRandomPact()
+				.replace("\"body\": {}", "\"body\": \"" + body + "\""));
+		Assert.assertTrue(new File(folder, "large.json").length() > 1024 * 1024);
+
+		Pact pact = PactLoader.loadPactsByFile(folder, true, false).get(0);
+		RequestResponseInteraction interaction = (RequestResponseInteraction) pact.getInteractions().get(0);
+		Assert.assertEquals(body, interaction.getResponse().getBody().getValue());
+
+		try {
+			PactLoader.bodyMode(PactLoader.BodyMode.LAZY_HEAP);
+			pact = PactLoader.loadPactsByFile(folder, true, false).get(0);
+			interaction = (RequestResponseInteraction) pact.getInteractions().get(0);
+			// The body mode is part of the cache key, the eagerly cached pact is not returned
+			Assert.assertTrue(LazyBodies.isLazy(interaction.getResponse().getBody()));
+			Assert.assertEquals(body, LazyBodies.value(interaction.getResponse().getBody()));
+		} finally {
+			PactLoader.bodyMode(PactLoader.BodyMode.EAGER);
+		}
+	}
 }
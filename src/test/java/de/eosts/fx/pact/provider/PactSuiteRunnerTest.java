@@ -0,0 +1,340 @@
+package de.eosts.fx.pact.provider;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class PactSuiteRunnerTest {
+
+    @Test
+    public void verifiesAllInteractionsOfProvider() {
+        EntitySuite.STATES.clear();
+        EntitySuite.INSTANCES.set(0);
+
+        Result result = new JUnitCore().run(Request.aClass(EntitySuite.class));
+
+        Assert.assertTrue(result.getFailures().toString(), result.wasSuccessful());
+        Assert.assertEquals(3, result.getRunCount());
+        Assert.assertEquals(Arrays.asList("entity exists", "entity exists", "all entities exist"), EntitySuite.STATES);
+        Assert.assertEquals(1, EntitySuite.INSTANCES.get());
+    }
+
+    @Test
+    public void createsInstanceForEachRegularTest() {
+        PlainTestSuite.INSTANCES.clear();
+
+        Result result = new JUnitCore().run(Request.aClass(PlainTestSuite.class));
+
+        Assert.assertTrue(result.getFailures().toString(), result.wasSuccessful());
+        Assert.assertEquals(5, result.getRunCount());
+        Map<String, Set<Object>> instances = PlainTestSuite.INSTANCES;
+        Assert.assertEquals(1, instances.get("state").size());
+        Assert.assertEquals(1, instances.get("first").size());
+        Assert.assertEquals(1, instances.get("second").size());
+        Set<Object> all = Collections.newSetFromMap(new IdentityHashMap<>());
+        instances.values().forEach(all::addAll);
+        Assert.assertEquals(3, all.size());
+    }
+
+    @Test
+    public void describesEachInteraction() {
+        Description description = Request.aClass(EntitySuite.class).getRunner().getDescription();
+
+        List<String> names = description.getChildren().stream().map(Description::getMethodName)
+                .collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList("entity-consumer - a request for entity 1 [entity exists]",
+                "entity-consumer - a request for entity 2 [entity exists]",
+                "entity-consumer - a request for entity 3 [ALL ENTITIES EXIST]"), names);
+    }
+
+    @Test
+    public void failsInteractionsWithoutStateMethod() {
+        MissingStateSuite.enabled = true;
+        try {
+            Result result = new JUnitCore().run(Request.aClass(MissingStateSuite.class));
+
+            Assert.assertEquals(3, result.getRunCount());
+            Assert.assertEquals(1, result.getFailureCount());
+            Assert.assertTrue(result.getFailures().get(0).getMessage().contains("@State(\"ALL ENTITIES EXIST\")"));
+        } finally {
+            MissingStateSuite.enabled = false;
+        }
+    }
+
+    @Test
+    public void setsUpEachStateOnceIfGroupedByState() {
+        GroupedSuite.EVENTS.clear();
+
+        Result result = new JUnitCore().run(Request.aClass(GroupedSuite.class));
+
+        Assert.assertTrue(result.getFailures().toString(), result.wasSuccessful());
+        Assert.assertEquals(4, result.getRunCount());
+        Assert.assertEquals(Arrays.asList("set up entity exists", "tear down entity exists", "set up all entities exist",
+                "tear down all entities exist"), GroupedSuite.EVENTS);
+    }
+
+    @Test
+    public void runsLifecycleOncePerStateGroup() {
+        ResettingSuite.EVENTS.clear();
+
+        Result result = new JUnitCore().run(Request.aClass(ResettingSuite.class));
+
+        Assert.assertTrue(result.getFailures().toString(), result.wasSuccessful());
+        Assert.assertEquals(4, result.getRunCount());
+        Assert.assertEquals(Arrays.asList("before", "set up entity exists", "after", "before",
+                "set up all entities exist", "after"), ResettingSuite.EVENTS);
+    }
+
+    @Test
+    public void reportsStateFailureForEachInteractionOfGroup() {
+        Result result = new JUnitCore().run(Request.aClass(FailingStateSuite.class));
+
+        Assert.assertEquals(4, result.getRunCount());
+        Assert.assertEquals(2, result.getFailureCount());
+        Assert.assertTrue(result.getFailures().get(0).getDescription().getMethodName().contains("entity 1"));
+        Assert.assertTrue(result.getFailures().get(1).getDescription().getMethodName().contains("entity 3"));
+        Assert.assertEquals("seeding failed", result.getFailures().get(1).getMessage());
+    }
+
+    @Test
+    public void ordersInteractionsByStateIfGroupedByState() {
+        Description description = Request.aClass(GroupedSuite.class).getRunner().getDescription();
+
+        List<String> names = description.getChildren().stream().map(Description::getMethodName)
+                .collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList("first-consumer - a request for entity 1 [entity exists]",
+                "first-consumer - a request for entity 3 [entity exists]",
+                "first-consumer - a request for entity 2 [all entities exist]",
+                "second-consumer - a request for entity 4 [ALL ENTITIES EXIST]"), names);
+    }
+
+    @Test
+    public void tearsDownStateOfEachInteractionIfNotGrouped() {
+        GroupedSuite.EVENTS.clear();
+
+        Result result = new JUnitCore().run(Request.aClass(UngroupedSuite.class));
+
+        Assert.assertTrue(result.getFailures().toString(), result.wasSuccessful());
+        Assert.assertEquals(8, GroupedSuite.EVENTS.size());
+        Assert.assertEquals(Arrays.asList("set up entity exists", "tear down entity exists"),
+                GroupedSuite.EVENTS.subList(0, 2));
+    }
+
+    @Configuration
+    public static class MockMvcConfiguration {
+
+        @Bean
+        public MockMvc mockMvc() {
+            return MockMvcBuilders.standaloneSetup(new PactTestRunnerTest.EntityController()).build();
+        }
+    }
+
+    @RunWith(PactSuiteRunner.class)
+    @PactSource(folders = "classpath:pacts/suite", provider = "entity-provider")
+    @ContextConfiguration(classes = MockMvcConfiguration.class)
+    public static class EntitySuite {
+        static final List<String> STATES = new ArrayList<>();
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        public EntitySuite() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @State("entity exists")
+        public void entityExists() {
+            STATES.add("entity exists");
+        }
+
+        @State({ "all entities exist", "no entity exists" })
+        public void allEntitiesExist() {
+            STATES.add("all entities exist");
+        }
+    }
+
+    @RunWith(PactSuiteRunner.class)
+    @PactSource(folders = "classpath:pacts/suite", provider = "entity-provider")
+    @ContextConfiguration(classes = MockMvcConfiguration.class)
+    public static class PlainTestSuite {
+        static final Map<String, Set<Object>> INSTANCES = new ConcurrentHashMap<>();
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @State({ "entity exists", "all entities exist" })
+        public void entityExists() {
+            record("state");
+        }
+
+        @Test
+        public void first() {
+            record("first");
+        }
+
+        @Test
+        public void second() {
+            record("second");
+        }
+
+        private void record(String name) {
+            INSTANCES.computeIfAbsent(name, n -> Collections.newSetFromMap(new IdentityHashMap<>())).add(this);
+        }
+    }
+
+    @RunWith(PactSuiteRunner.class)
+    @PactSource(folders = "classpath:pacts/grouped", provider = "entity-provider", groupByState = true)
+    @ContextConfiguration(classes = MockMvcConfiguration.class)
+    public static class GroupedSuite {
+        static final List<String> EVENTS = new ArrayList<>();
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @State("entity exists")
+        public void entityExists() {
+            EVENTS.add("set up entity exists");
+        }
+
+        @StateTearDown("entity exists")
+        public void entityRemoved() {
+            EVENTS.add("tear down entity exists");
+        }
+
+        @State("all entities exist")
+        public void allEntitiesExist() {
+            EVENTS.add("set up all entities exist");
+        }
+
+        @StateTearDown("all entities exist")
+        public void allEntitiesRemoved() {
+            EVENTS.add("tear down all entities exist");
+        }
+    }
+
+    @Configuration
+    public static class SeededConfiguration {
+
+        @Bean
+        public MockMvc mockMvc() {
+            return MockMvcBuilders.standaloneSetup(new SeededController()).build();
+        }
+    }
+
+    /**
+     * Only knows the seeded entities, like a controller backed by an in-memory
+     * database.
+     */
+    @Controller
+    public static class SeededController {
+        static final Set<String> SEEDED = new HashSet<>();
+
+        @RequestMapping("/entity/{id}")
+        @ResponseBody
+        public ResponseEntity<String> entity(@PathVariable("id") String id) {
+            return SEEDED.contains(id) ? ResponseEntity.ok("{\"id\": " + id + "}")
+                    : ResponseEntity.notFound().build();
+        }
+    }
+
+    @RunWith(PactSuiteRunner.class)
+    @PactSource(folders = "classpath:pacts/grouped", provider = "entity-provider", groupByState = true)
+    @ContextConfiguration(classes = SeededConfiguration.class)
+    public static class ResettingSuite {
+        static final List<String> EVENTS = new ArrayList<>();
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Before
+        public void reset() {
+            EVENTS.add("before");
+            SeededController.SEEDED.clear();
+        }
+
+        @After
+        public void after() {
+            EVENTS.add("after");
+        }
+
+        @State("entity exists")
+        public void entityExists() {
+            EVENTS.add("set up entity exists");
+            SeededController.SEEDED.addAll(Arrays.asList("1", "3"));
+        }
+
+        @State("all entities exist")
+        public void allEntitiesExist() {
+            EVENTS.add("set up all entities exist");
+            SeededController.SEEDED.addAll(Arrays.asList("2", "4"));
+        }
+    }
+
+    @RunWith(PactSuiteRunner.class)
+    @PactSource(folders = "classpath:pacts/grouped", provider = "entity-provider", groupByState = true)
+    @ContextConfiguration(classes = SeededConfiguration.class)
+    public static class FailingStateSuite extends ResettingSuite {
+
+        @Override
+        @State("entity exists")
+        public void entityExists() {
+            throw new IllegalStateException("seeding failed");
+        }
+    }
+
+    @RunWith(PactSuiteRunner.class)
+    @PactSource(folders = "classpath:pacts/grouped", provider = "entity-provider")
+    @ContextConfiguration(classes = MockMvcConfiguration.class)
+    public static class UngroupedSuite extends GroupedSuite {
+    }
+
+    @RunWith(PactSuiteRunner.class)
+    @PactSource(files = "classpath:pacts/suite/entity-pact.json")
+    @ContextConfiguration(classes = MockMvcConfiguration.class)
+    public static class MissingStateSuite {
+        static boolean enabled = false;
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Before
+        public void onlyFromTest() {
+            Assume.assumeTrue(enabled);
+        }
+
+        @State("entity exists")
+        public void entityExists() {
+        }
+    }
+}
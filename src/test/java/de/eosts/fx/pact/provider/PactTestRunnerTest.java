@@ -0,0 +1,250 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runners.model.MultipleFailureException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import javax.servlet.http.Cookie;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class PactTestRunnerTest {
+
+    private MockMvc mockMvc;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new EntityController()).build();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void runVerifiesAllInteractionsOfState() throws Throwable {
+        new PactTestRunner(pact(interaction("d1", "/entity/1", 200), interaction("d2", "/entity/2", 200)))
+                .mockMvc(mockMvc).providerState("state").run();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void runFailsOnMismatch() throws Throwable {
+        new PactTestRunner(pact(interaction("d1", "/entity/1", 404))).mockMvc(mockMvc).providerState("state").run();
+    }
+
+    @Test
+    public void runMatchesJsonBody() throws Throwable {
+        new PactTestRunner(pact(interaction("d1", "/entity/1", 200, "{\"id\": 1}"))).mockMvc(mockMvc)
+                .providerState("state").run();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void runFailsOnJsonBodyMismatch() throws Throwable {
+        new PactTestRunner(pact(interaction("d1", "/entity/1", 200, "{\"id\": 2}"))).mockMvc(mockMvc)
+                .providerState("state").run();
+    }
+
+    @Test
+    public void verificationPlanIsCompiledOnce() throws Throwable {
+        Pact pact = pact(interaction("d1", "/entity/1", 200));
+        PactTestRunner runner = new PactTestRunner(pact).mockMvc(mockMvc).providerState("state")
+                .requestCallback(r -> r.header("X-Test", "1"));
+        runner.run();
+        runner.run();
+
+        Interaction interaction = pact.getInteractions().get(0);
+        VerificationPlan plan = new PactTestRunner(pact).verificationPlan(interaction);
+        Assert.assertSame(plan, runner.verificationPlan(interaction));
+        Assert.assertNull(plan.newRequest().get().buildRequest(null).getHeader("X-Test"));
+    }
+
+    @Test
+    public void requestCallbackDoesNotModifyCompiledPlan() throws Throwable {
+        Pact pact = PactLoader.loadPactGeneric(pactJson("{\"description\": \"d1\",\"providerState\": \"state\","
+                + "\"request\": {\"method\": \"GET\",\"path\": \"/entity/1\","
+                + "\"headers\": {\"Accept\": \"application/json\", \"Cookie\": \"session=1\"}},"
+                + "\"response\": {\"status\": 200}}"));
+        List<List<String>> accepts = new ArrayList<>();
+        List<String> sessions = new ArrayList<>();
+        RequestExecutor capturing = request -> {
+            MockHttpServletRequest built = request.buildRequest(new MockServletContext());
+            accepts.add(Collections.list(built.getHeaders("Accept")));
+            return RequestExecutor.of(mockMvc).perform(request);
+        };
+        PactTestRunner runner = new PactTestRunner(pact).requestExecutor(capturing).providerState("state")
+                .requestCallback(r -> {
+                    r.header("Accept", "text/plain");
+                    Cookie session = r.buildRequest(new MockServletContext()).getCookies()[0];
+                    sessions.add(session.getValue());
+                    session.setValue("2");
+                });
+
+        runner.run();
+        runner.run();
+        Assert.assertEquals(Arrays.asList(Arrays.asList("application/json", "text/plain"),
+                Arrays.asList("application/json", "text/plain")), accepts);
+        Assert.assertEquals(Arrays.asList("1", "1"), sessions);
+    }
+
+    @Test
+    public void runConcurrently() throws Throwable {
+        new PactTestRunner(pact(interaction("d1", "/entity/1", 200), interaction("d2", "/entity/2", 200),
+                interaction("d3", "/entity/3", 200))).mockMvc(mockMvc).providerState("state")
+                .verificationExecutor(executor).run();
+    }
+
+    @Test
+    public void runConcurrentlyAggregatesFailures() throws Throwable {
+        PactTestRunner runner = new PactTestRunner(pact(interaction("d1", "/entity/1", 404),
+                interaction("d2", "/entity/2", 200), interaction("d3", "/entity/3", 500))).mockMvc(mockMvc)
+                .providerState("state").verificationExecutor(executor);
+        try {
+            runner.run();
+            Assert.fail("Expected a MultipleFailureException");
+        } catch (MultipleFailureException e) {
+            Assert.assertEquals(2, e.getFailures().size());
+            Assert.assertTrue(e.getFailures().get(0).getMessage().contains("d1"));
+            Assert.assertTrue(e.getFailures().get(1).getMessage().contains("d3"));
+        }
+    }
+
+    @Test
+    public void listenersAreNotifiedAboutAllPhases() throws Throwable {
+        List<String> events = new ArrayList<>();
+        VerificationListener listener = new VerificationListener() {
+            @Override
+            public void interactionStarted(Interaction interaction) {
+                events.add("started " + interaction.getDescription());
+            }
+
+            @Override
+            public void phaseCompleted(Interaction interaction, VerificationListener.Phase phase, long startNanos,
+                    long endNanos) {
+                Assert.assertTrue(endNanos >= startNanos);
+                events.add(phase.name());
+            }
+
+            @Override
+            public void interactionFinished(Interaction interaction, Throwable failure) {
+                events.add(failure == null ? "passed" : "failed");
+            }
+
+            @Override
+            public void runFinished(PactTestRunner runner) {
+                events.add("run finished");
+            }
+        };
+
+        new PactTestRunner(pact(interaction("d1", "/entity/1", 200))).mockMvc(mockMvc).providerState("state")
+                .addListeners(listener).run();
+        Assert.assertEquals(Arrays.asList("started d1", "LOOKUP", "REQUEST_BUILD", "PERFORM", "MATCH", "passed",
+                "run finished"), events);
+
+        events.clear();
+        try {
+            new PactTestRunner(pact(interaction("d2", "/entity/2", 404))).mockMvc(mockMvc).providerState("state")
+                    .addListeners(listener).run();
+            Assert.fail("Expected an AssertionError");
+        } catch (AssertionError e) {
+            Assert.assertEquals(Arrays.asList("started d2", "LOOKUP", "REQUEST_BUILD", "PERFORM", "MATCH",
+                    "failed", "run finished"), events);
+        }
+    }
+
+    @Test
+    public void deduplicatedRequestsArePerformedOnce() throws Throwable {
+        Pact first = pact(interaction("d1", "/entity/1", 200), interaction("d2", "/entity/2", 200));
+        Pact second = PactLoader.loadPactGeneric(pactJson(interaction("other d1", "/entity/1", 200, "{\"id\": 1}"))
+                .replace("\"name\": \"c\"", "\"name\": \"c2\""));
+        List<String> performed = new ArrayList<>();
+        RequestExecutor counting = request -> {
+            performed.add("performed");
+            return RequestExecutor.of(mockMvc).perform(request);
+        };
+
+        new PactTestRunner(Arrays.asList(first, second)).requestExecutor(counting).providerState("state")
+                .responseCallback(response -> performed.add("response")).deduplicateRequests(true).run();
+        Assert.assertEquals(4, performed.size());
+        // The response callback is called once per performed request
+        Assert.assertEquals(2, Collections.frequency(performed, "response"));
+
+        performed.clear();
+        new PactTestRunner(Arrays.asList(first, second)).requestExecutor(counting).providerState("state").run();
+        Assert.assertEquals(3, performed.size());
+    }
+
+    @Test
+    public void deduplicatedRequestsAreVerifiedForEachInteraction() throws Throwable {
+        Pact pact = pact(interaction("d1", "/entity/1", 200), interaction("d2", "/entity/1", 404),
+                interaction("d3", "/entity/1", 200, "{\"id\": 2}"));
+        List<String> finished = new ArrayList<>();
+        VerificationListener listener = new VerificationListener() {
+            @Override
+            public void interactionFinished(Interaction interaction, Throwable failure) {
+                finished.add(interaction.getDescription() + (failure == null ? " passed" : " failed"));
+            }
+        };
+
+        try {
+            new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").deduplicateRequests(true)
+                    .addListeners(listener).run();
+            Assert.fail("Expected a MultipleFailureException");
+        } catch (MultipleFailureException e) {
+            Assert.assertEquals(2, e.getFailures().size());
+            Assert.assertTrue(e.getFailures().get(0).getMessage().contains("\"d2\""));
+            Assert.assertTrue(e.getFailures().get(1).getMessage().contains("\"d3\""));
+        }
+        Assert.assertEquals(Arrays.asList("d1 passed", "d2 failed", "d3 failed"), finished);
+    }
+
+    static Pact pact(String... interactions) {
+        return PactLoader.loadPactGeneric(pactJson(interactions));
+    }
+
+    static String pactJson(String... interactions) {
+        return "{\"provider\": {\"name\": \"p\"},\"consumer\": {\"name\": \"c\"},"
+                + "\"interactions\": [" + String.join(",", interactions) + "],"
+                + "\"metadata\": {\"pact-specification\": {\"version\": \"3.0.0\"}}}";
+    }
+
+    static String interaction(String description, String path, int status) {
+        return "{\"description\": \"" + description + "\",\"providerState\": \"state\","
+                + "\"request\": {\"method\": \"GET\",\"path\": \"" + path + "\"},"
+                + "\"response\": {\"status\": " + status + "}}";
+    }
+
+    static String interaction(String description, String path, int status, String body) {
+        return "{\"description\": \"" + description + "\",\"providerState\": \"state\","
+                + "\"request\": {\"method\": \"GET\",\"path\": \"" + path + "\"},"
+                + "\"response\": {\"status\": " + status + ",\"body\": " + body + "}}";
+    }
+
+    @Controller
+    public static class EntityController {
+
+        @RequestMapping("/entity/{id}")
+        @ResponseBody
+        public String entity(@PathVariable("id") String id) {
+            return "{\"id\": " + id + "}";
+        }
+    }
+}
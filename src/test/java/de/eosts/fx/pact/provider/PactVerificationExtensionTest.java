@@ -0,0 +1,131 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+public class PactVerificationExtensionTest {
+
+    @Test
+    public void verifiesEachInteractionInOwnInvocation() {
+        TestExecutionSummary summary = execute(false);
+
+        Assert.assertEquals(summary.getFailures().toString(), 3, summary.getTestsSucceededCount());
+        Assert.assertEquals(0, summary.getTestsFailedCount());
+        Assert.assertEquals(3, EntityPactTest.RUNNERS.size());
+        Assert.assertEquals(3, EntityPactTest.STATES.size());
+        Assert.assertEquals(2, EntityPactTest.TEAR_DOWNS.size());
+    }
+
+    @Test
+    public void verifiesInteractionsInParallel() {
+        // Every invocation waits until all of them are running at the same time
+        EntityPactTest.overlap = new CountDownLatch(3);
+        TestExecutionSummary summary;
+        try {
+            summary = execute(true);
+        } finally {
+            EntityPactTest.overlap = null;
+        }
+
+        Assert.assertEquals(summary.getFailures().toString(), 3, summary.getTestsSucceededCount());
+        Assert.assertEquals(0, summary.getTestsFailedCount());
+        Assert.assertEquals(3, EntityPactTest.RUNNERS.size());
+    }
+
+    @Test
+    public void skipsInteractionsOfOtherShards() {
+        long succeeded = 0;
+        try {
+            System.setProperty(InteractionSharding.COUNT_PROPERTY, "2");
+            for (int index = 0; index < 2; index++) {
+                System.setProperty(InteractionSharding.INDEX_PROPERTY, String.valueOf(index));
+                TestExecutionSummary summary = execute(false);
+
+                Assert.assertEquals(0, summary.getTestsFailedCount());
+                Assert.assertEquals(3, summary.getTestsSucceededCount() + summary.getTestsSkippedCount());
+                succeeded += summary.getTestsSucceededCount();
+            }
+        } finally {
+            System.clearProperty(InteractionSharding.COUNT_PROPERTY);
+            System.clearProperty(InteractionSharding.INDEX_PROPERTY);
+        }
+        Assert.assertEquals(3, succeeded);
+    }
+
+    private static TestExecutionSummary execute(boolean parallel) {
+        EntityPactTest.RUNNERS.clear();
+        EntityPactTest.STATES.clear();
+        EntityPactTest.TEAR_DOWNS.clear();
+
+        LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(EntityPactTest.class))
+                .configurationParameter("junit.jupiter.execution.parallel.enabled", String.valueOf(parallel))
+                .configurationParameter("junit.jupiter.execution.parallel.mode.default", "concurrent")
+                .configurationParameter("junit.jupiter.execution.parallel.config.strategy", "fixed")
+                .configurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism", "3")
+                .build();
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        LauncherFactory.create().execute(request, listener);
+        return listener.getSummary();
+    }
+
+    @PactSource(folders = "classpath:pacts/suite", provider = "entity-provider")
+    static class EntityPactTest {
+        static final Set<PactTestRunner> RUNNERS = Collections.synchronizedSet(
+                Collections.newSetFromMap(new IdentityHashMap<>()));
+        static final Queue<String> STATES = new ConcurrentLinkedQueue<>();
+        static final Queue<String> TEAR_DOWNS = new ConcurrentLinkedQueue<>();
+        static volatile CountDownLatch overlap;
+
+        private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PactTestRunnerTest.EntityController())
+                .build();
+
+        @TestTemplate
+        @ExtendWith(PactVerificationExtension.class)
+        void verify(PactTestRunner runner, Interaction interaction) throws Throwable {
+            Assert.assertSame(interaction, runner.interaction().get());
+            RUNNERS.add(runner);
+            CountDownLatch latch = overlap;
+            if (latch != null) {
+                latch.countDown();
+                Assert.assertTrue("Invocations didn't overlap", latch.await(10, TimeUnit.SECONDS));
+            }
+            runner.mockMvc(mockMvc).run();
+        }
+
+        @State("entity exists")
+        void entityExists() {
+            STATES.add("entity exists");
+        }
+
+        @StateTearDown("entity exists")
+        void entityRemoved() {
+            TEAR_DOWNS.add("entity exists");
+        }
+
+        @State("all entities exist")
+        void allEntitiesExist() {
+            STATES.add("all entities exist");
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static de.eosts.fx.pact.util.PactTestUtils.getPactString;
+import static de.eosts.fx.pact.util.PactTestUtils.writePactContent;
+
+public class PactWatcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public TemporaryFolder outside = new TemporaryFolder();
+
+    private PactWatcher watcher;
+
+    @After
+    public void closeWatcher() {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void reloadsOnlyChangedFiles() throws Exception {
+        writePactContent(new File(folder.getRoot(), "a.json"), getPactString("a", "c", "s", "d1"));
+        writePactContent(new File(folder.getRoot(), "b.json"), getPactString("b", "c", "s", "d1"));
+        watcher = PactWatcher.of(folder.getRoot());
+        List<Pact> pacts = watcher.pacts();
+        Assert.assertEquals(2, pacts.size());
+
+        writePactContent(new File(folder.getRoot(), "b.json"), getPactString("b", "c", "s", "changed"));
+        List<Pact> reloaded = await(watcher, p -> "changed".equals(p.get(1).getInteractions().get(0).getDescription()));
+
+        Assert.assertSame(pacts.get(0), reloaded.get(0));
+        Assert.assertEquals("d1", pacts.get(1).getInteractions().get(0).getDescription());
+    }
+
+    @Test
+    public void picksUpNewAndDeletedFiles() throws Exception {
+        File a = writePactContent(new File(folder.getRoot(), "a.json"), getPactString("a", "c", "s", "d1"));
+        watcher = new PactWatcher(folder.getRoot());
+        Assert.assertEquals(1, watcher.pacts().size());
+
+        File sub = folder.newFolder("sub");
+        writePactContent(new File(sub, "b.json"), getPactString("b", "c", "s", "d1"));
+        await(watcher, p -> providers(p).contains("b"));
+
+        Assert.assertTrue(a.delete());
+        List<Pact> pacts = await(watcher, p -> !providers(p).contains("a"));
+        Assert.assertEquals(1, pacts.size());
+    }
+
+    @Test
+    public void removesPactsOfMovedFolder() throws Exception {
+        writePactContent(new File(folder.getRoot(), "a.json"), getPactString("a", "c", "s", "d1"));
+        File sub = folder.newFolder("sub");
+        File nested = folder.newFolder("sub", "nested");
+        writePactContent(new File(nested, "b.json"), getPactString("b", "c", "s", "d1"));
+        watcher = new PactWatcher(folder.getRoot());
+        Assert.assertEquals(2, watcher.pacts().size());
+
+        // Moved away, so only the folder itself gets an event
+        Files.move(sub.toPath(), outside.getRoot().toPath().resolve("sub"));
+        List<Pact> pacts = await(watcher, p -> !providers(p).contains("b"));
+
+        Assert.assertEquals(Collections.singletonList("a"), providers(pacts));
+    }
+
+    @Test
+    public void keepsPreviousPactOfInvalidFile() throws Exception {
+        File a = writePactContent(new File(folder.getRoot(), "a.json"), getPactString("a", "c", "s", "d1"));
+        writePactContent(new File(folder.getRoot(), "b.json"), getPactString("b", "c", "s", "d1"));
+        watcher = new PactWatcher(folder.getRoot());
+
+        writePactContent(a, "{ \"provider\": ");
+        writePactContent(new File(folder.getRoot(), "b.json"), getPactString("b", "c", "s", "changed"));
+        List<Pact> pacts = await(watcher, p -> "changed".equals(p.get(1).getInteractions().get(0).getDescription()));
+
+        Assert.assertEquals("a", pacts.get(0).getProvider().getName());
+    }
+
+    @Test
+    public void laterRulesGetTheChangedPacts() throws Exception {
+        writePactContent(new File(folder.getRoot(), "a.json"), getPactString("a", "c", "s", "d1"));
+        PactMockMvcRule.PactMockMvcRuleBuilder builder = PactMockMvcRule.create().withFolderWatching()
+                .withAllFrom(folder.getRoot());
+        Assert.assertEquals(1, builder.build().pacts().size());
+        watcher = PactWatcher.of(folder.getRoot());
+
+        writePactContent(new File(folder.getRoot(), "b.json"), getPactString("b", "c", "s", "d1"));
+        await(watcher, p -> p.size() == 2);
+
+        Assert.assertEquals(2, builder.build().pacts().size());
+    }
+
+    private static List<String> providers(List<Pact> pacts) {
+        return pacts.stream().map(pact -> pact.getProvider().getName()).collect(Collectors.toList());
+    }
+
+    private static List<Pact> await(PactWatcher watcher, Predicate<List<Pact>> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30000;
+        List<Pact> pacts = watcher.pacts();
+        while (!condition.test(pacts)) {
+            Assert.assertTrue("Change not detected in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(50);
+            pacts = watcher.pacts();
+        }
+        return pacts;
+    }
+}
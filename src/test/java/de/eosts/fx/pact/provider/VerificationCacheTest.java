@@ -0,0 +1,138 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Interaction;
+import au.com.dius.pact.model.Pact;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.interaction;
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.pact;
+
+public class VerificationCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PactTestRunnerTest.EntityController()).build();
+
+    @Test
+    public void skipsInteractionsThatPassedBefore() throws Throwable {
+        VerificationCache cache = new VerificationCache(folder.getRoot(), 100);
+        Pact pact = pact(interaction("d1", "/entity/1", 200), interaction("d2", "/entity/2", 200));
+        AtomicInteger performed = new AtomicInteger();
+        List<String> cached = newArrayList();
+        VerificationListener listener = new VerificationListener() {
+            @Override
+            public void interactionStarted(Interaction interaction) {
+                performed.incrementAndGet();
+            }
+
+            @Override
+            public void interactionCached(Interaction interaction) {
+                cached.add(interaction.getDescription());
+            }
+        };
+
+        new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").verificationCache(cache)
+                .addListeners(listener).run();
+        Assert.assertEquals(2, performed.get());
+        Assert.assertEquals(2, cache.size());
+
+        new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").verificationCache(cache)
+                .addListeners(listener).run();
+        Assert.assertEquals(2, performed.get());
+        Assert.assertEquals(newArrayList("d1", "d2"), cached);
+
+        // Another type of runner may verify differently
+        new PactTestRunner(pact) {
+        }.mockMvc(mockMvc).providerState("state").verificationCache(cache).addListeners(listener).run();
+        Assert.assertEquals(4, performed.get());
+    }
+
+    @Test
+    public void doesNotCacheFailures() throws Throwable {
+        VerificationCache cache = new VerificationCache(folder.getRoot(), 100);
+        Pact pact = pact(interaction("d1", "/entity/1", 404));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").verificationCache(cache).run();
+                Assert.fail("Expected an AssertionError");
+            } catch (AssertionError e) {
+                // expected
+            }
+        }
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void hashCoversTheWholeInteraction() {
+        Interaction interaction = pact(interaction("d1", "/entity/1", 200)).getInteractions().get(0);
+
+        Assert.assertEquals(VerificationCache.interactionHash(interaction),
+                VerificationCache.interactionHash(pact(interaction("d1", "/entity/1", 200)).getInteractions().get(0)));
+        Assert.assertNotEquals(VerificationCache.interactionHash(interaction),
+                VerificationCache.interactionHash(pact(interaction("d1", "/entity/2", 200)).getInteractions().get(0)));
+        Assert.assertNotEquals(VerificationCache.interactionHash(interaction),
+                VerificationCache.interactionHash(pact(interaction("d1", "/entity/1", 201)).getInteractions().get(0)));
+        Assert.assertNotEquals(VerificationCache.interactionHash(interaction), VerificationCache
+                .interactionHash(pact(interaction("d1", "/entity/1", 200, "{}")).getInteractions().get(0)));
+    }
+
+    @Test
+    public void fingerprintChangesWithClasspath() throws Exception {
+        File classes = folder.newFolder("classes");
+        File type = new File(classes, "Type.class");
+        Files.write(type.toPath(), new byte[] { 1 });
+        String classpath = classes.getPath() + File.pathSeparator + folder.newFile("lib.jar").getPath();
+
+        String fingerprint = VerificationCache.classpathFingerprint(classpath);
+        Assert.assertEquals(fingerprint, VerificationCache.classpathFingerprint(classpath));
+
+        Files.write(type.toPath(), new byte[] { 1, 2 });
+        Assert.assertNotEquals(fingerprint, VerificationCache.classpathFingerprint(classpath));
+    }
+
+    @Test
+    public void removesLeastRecentlyUsedEntries() throws Exception {
+        File directory = folder.newFolder("cache");
+        for (int i = 0; i < 5; i++) {
+            File entry = new File(directory, "entry" + i);
+            Files.write(entry.toPath(), new byte[0]);
+            Files.setLastModifiedTime(entry.toPath(), FileTime.fromMillis(1000000L * (i + 1)));
+        }
+
+        VerificationCache cache = new VerificationCache(directory, 3);
+
+        Assert.assertEquals(3, cache.size());
+        Assert.assertFalse(cache.contains("entry0"));
+        Assert.assertFalse(cache.contains("entry1"));
+        Assert.assertTrue(cache.contains("entry4"));
+    }
+
+    @Test
+    public void removesLeastRecentlyUsedEntriesOnPut() throws Exception {
+        VerificationCache cache = new VerificationCache(folder.newFolder("cache"), 3);
+        for (int i = 0; i < 5; i++) {
+            cache.put("entry" + i);
+            Files.setLastModifiedTime(new File(cache.directory(), "entry" + i).toPath(),
+                    FileTime.fromMillis(1000000L * (i + 1)));
+        }
+
+        Assert.assertEquals(3, cache.size());
+        Assert.assertFalse(cache.contains("entry0"));
+        Assert.assertFalse(cache.contains("entry1"));
+        Assert.assertTrue(cache.contains("entry4"));
+    }
+}
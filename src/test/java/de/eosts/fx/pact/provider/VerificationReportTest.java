@@ -0,0 +1,120 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.google.common.collect.Sets.newHashSet;
+
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.interaction;
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.pact;
+
+public class VerificationReportTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PactTestRunnerTest.EntityController()).build();
+
+    @Test
+    public void writesCsvRecordPerInteraction() throws Throwable {
+        File file = new File(folder.getRoot(), "reports/verification.csv");
+        VerificationReport report = new VerificationReport(file, VerificationReport.Format.CSV);
+        Pact pact = pact(interaction("d1", "/entity/1", 200), interaction("d, 2", "/entity/2", 200));
+
+        new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").addListeners(report).run();
+        new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").interactionDescription("d1")
+                .addListeners(report).run();
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(4, lines.size());
+        Assert.assertTrue(lines.get(0).startsWith("startMillis,consumer,providerState,description,lookupNanos"));
+        Assert.assertTrue(lines.get(1).contains(",c,state,d1,"));
+        Assert.assertTrue(lines.get(1).endsWith(",PASSED,"));
+        Assert.assertTrue(lines.get(2).contains(",c,state,\"d, 2\","));
+        Assert.assertTrue(lines.get(3).contains(",c,state,d1,"));
+    }
+
+    @Test
+    public void writesConsumerOfEveryPact() throws Throwable {
+        File file = folder.newFile("consumers.json");
+        VerificationReport report = new VerificationReport(file, VerificationReport.Format.JSON);
+        Pact other = PactLoader.loadPactGeneric(PactTestRunnerTest.pactJson(interaction("d1", "/entity/1", 200))
+                .replace("\"name\": \"c\"", "\"name\": \"other\""));
+
+        new PactTestRunner(Arrays.asList(pact(interaction("d1", "/entity/1", 200)), other)).mockMvc(mockMvc)
+                .providerState("state").addListeners(report).run();
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(2, lines.size());
+        Set<String> consumers = lines.stream().map(line -> new JsonParser().parse(line).getAsJsonObject()
+                .get("consumer").getAsString()).collect(Collectors.toSet());
+        Assert.assertEquals(newHashSet("c", "other"), consumers);
+    }
+
+    @Test
+    public void writesJsonRecordWithFailure() throws Throwable {
+        File file = folder.newFile("verification.json");
+        VerificationReport report = new VerificationReport(file, VerificationReport.Format.JSON);
+
+        try {
+            new PactTestRunner(pact(interaction("d1", "/entity/1", 404))).mockMvc(mockMvc).providerState("state")
+                    .addListeners(report).run();
+            Assert.fail("Expected an AssertionError");
+        } catch (AssertionError e) {
+            // expected
+        }
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(1, lines.size());
+        JsonObject record = new JsonParser().parse(lines.get(0)).getAsJsonObject();
+        Assert.assertEquals("c", record.get("consumer").getAsString());
+        Assert.assertEquals("d1", record.get("description").getAsString());
+        Assert.assertEquals("FAILED", record.get("result").getAsString());
+        Assert.assertTrue(record.get("failure").getAsString().contains("expected:<404>"));
+        Assert.assertTrue(record.get("totalNanos").getAsLong() >= record.get("performNanos").getAsLong());
+    }
+
+    @Test
+    public void writesRecordPerDeduplicatedInteraction() throws Throwable {
+        File file = new File(folder.getRoot(), "deduplicated.csv");
+        VerificationReport report = new VerificationReport(file, VerificationReport.Format.CSV);
+        Pact pact = pact(interaction("d1", "/entity/1", 200), interaction("d2", "/entity/1", 404),
+                interaction("d3", "/entity/1", 200));
+
+        try {
+            new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").deduplicateRequests(true)
+                    .addListeners(report).run();
+            Assert.fail("Expected an AssertionError");
+        } catch (AssertionError e) {
+            // expected
+        }
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(4, lines.size());
+        Assert.assertTrue(lines.get(1).contains(",c,state,d1,"));
+        Assert.assertTrue(lines.get(1).endsWith(",PASSED,"));
+        Assert.assertTrue(lines.get(2).contains(",c,state,d2,"));
+        Assert.assertTrue(lines.get(2).contains(",FAILED,"));
+        Assert.assertTrue(lines.get(3).contains(",c,state,d3,"));
+        Assert.assertTrue(lines.get(3).endsWith(",PASSED,"));
+        // Only the first interaction performs the shared request
+        Assert.assertFalse(lines.get(1).split(",")[6].isEmpty());
+        Assert.assertTrue(lines.get(3).split(",")[6].isEmpty());
+        Assert.assertFalse(lines.get(3).split(",")[7].isEmpty());
+    }
+}
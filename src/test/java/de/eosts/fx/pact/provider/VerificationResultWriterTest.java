@@ -0,0 +1,129 @@
+package de.eosts.fx.pact.provider;
+
+import au.com.dius.pact.model.Pact;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.interaction;
+import static de.eosts.fx.pact.provider.PactTestRunnerTest.pact;
+
+public class VerificationResultWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PactTestRunnerTest.EntityController()).build();
+
+    @Test
+    public void writesResultsPerPact() throws Throwable {
+        VerificationResultWriter writer = new VerificationResultWriter(folder.getRoot(), false, "1.2.3");
+        Pact pact = pact(interaction("d1", "/entity/1", 200), interaction("d2", "/entity/2", 404));
+
+        new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").interactionDescription("d1")
+                .addListeners(writer).run();
+        try {
+            new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").interactionDescription("d2")
+                    .addListeners(writer).run();
+            Assert.fail("Expected an AssertionError");
+        } catch (AssertionError e) {
+            // expected
+        }
+        Assert.assertFalse(new File(folder.getRoot(), "p-c.json").exists());
+
+        writer.flush();
+
+        JsonObject results = json(new File(folder.getRoot(), "p-c.json"));
+        Assert.assertFalse(results.get("success").getAsBoolean());
+        Assert.assertEquals("1.2.3", results.get("providerApplicationVersion").getAsString());
+        JsonArray testResults = results.getAsJsonArray("testResults");
+        Assert.assertEquals(2, testResults.size());
+        JsonObject passed = testResults.get(0).getAsJsonObject();
+        Assert.assertEquals("d1", passed.get("interactionDescription").getAsString());
+        Assert.assertEquals("state", passed.get("providerState").getAsString());
+        Assert.assertTrue(passed.get("success").getAsBoolean());
+        Assert.assertTrue(passed.get("durationMillis").getAsDouble() > 0);
+        JsonObject failed = testResults.get(1).getAsJsonObject();
+        Assert.assertFalse(failed.get("success").getAsBoolean());
+        Assert.assertTrue(failed.getAsJsonArray("mismatches").get(0).getAsJsonObject().get("description")
+                .getAsString().contains("expected:<404>"));
+        Assert.assertFalse(new File(folder.getRoot(), "TEST-p-c.xml").exists());
+    }
+
+    @Test
+    public void writesJUnitXml() throws Throwable {
+        VerificationResultWriter writer = new VerificationResultWriter(folder.getRoot(), true, null);
+        Pact pact = pact(interaction("d1", "/entity/1", 200), interaction("d2", "/entity/2", 404));
+
+        try {
+            new PactTestRunner(pact).mockMvc(mockMvc).providerState("state").addListeners(writer).run();
+            Assert.fail("Expected an AssertionError");
+        } catch (AssertionError e) {
+            // expected
+        }
+        writer.flush();
+
+        String xml = new String(Files.readAllBytes(new File(folder.getRoot(), "TEST-p-c.xml").toPath()),
+                StandardCharsets.UTF_8);
+        Assert.assertTrue(xml, xml.contains("<testsuite name=\"pact.p.c\" tests=\"2\" failures=\"1\" errors=\"0\""));
+        Assert.assertTrue(xml, xml.contains("<testcase classname=\"c\" name=\"c - d1 [state]\""));
+        Assert.assertTrue(xml, xml.contains("<failure message=\""));
+        Assert.assertFalse(json(new File(folder.getRoot(), "p-c.json")).has("providerApplicationVersion"));
+    }
+
+    @Test
+    public void writesResultsOfPactsOfSameConsumerToSeparateFiles() throws Throwable {
+        VerificationResultWriter writer = new VerificationResultWriter(folder.getRoot(), true, null);
+        Pact first = pact(interaction("d1", "/entity/1", 200));
+        Pact second = pact(interaction("d2", "/entity/2", 200));
+
+        new PactTestRunner(first).mockMvc(mockMvc).providerState("state").addListeners(writer).run();
+        new PactTestRunner(second).mockMvc(mockMvc).providerState("state").addListeners(writer).run();
+        writer.flush();
+
+        Assert.assertEquals("d1", json(new File(folder.getRoot(), "p-c.json")).getAsJsonArray("testResults")
+                .get(0).getAsJsonObject().get("interactionDescription").getAsString());
+        Assert.assertEquals("d2", json(new File(folder.getRoot(), "p-c-2.json")).getAsJsonArray("testResults")
+                .get(0).getAsJsonObject().get("interactionDescription").getAsString());
+        Assert.assertTrue(new File(folder.getRoot(), "TEST-p-c.xml").exists());
+        Assert.assertTrue(new File(folder.getRoot(), "TEST-p-c-2.xml").exists());
+    }
+
+    @Test
+    public void appendsForkToFileNames() throws Throwable {
+        VerificationResultWriter writer = new VerificationResultWriter(folder.getRoot(), false, null, "shard1");
+
+        new PactTestRunner(pact(interaction("d1", "/entity/1", 200))).mockMvc(mockMvc).providerState("state")
+                .addListeners(writer).run();
+        writer.flush();
+
+        Assert.assertArrayEquals(new String[]{"p-c-shard1.json"}, folder.getRoot().list());
+    }
+
+    @Test
+    public void ignoresOutcomesAfterFlush() throws Throwable {
+        VerificationResultWriter writer = new VerificationResultWriter(folder.getRoot(), false, null);
+        writer.flush();
+
+        new PactTestRunner(pact(interaction("d1", "/entity/1", 200))).mockMvc(mockMvc).providerState("state")
+                .addListeners(writer).run();
+        writer.flush();
+
+        Assert.assertEquals(0, folder.getRoot().list().length);
+    }
+
+    private static JsonObject json(File file) throws Exception {
+        return new JsonParser().parse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8))
+                .getAsJsonObject();
+    }
+}
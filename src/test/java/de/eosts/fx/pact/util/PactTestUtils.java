@@ -1,6 +1,12 @@
 package de.eosts.fx.pact.util;
 
 import com.google.common.collect.Lists;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
 
 import java.io.File;
 import java.io.IOException;
@@ -39,4 +45,54 @@ public class PactTestUtils {
                 "\"}],\"metadata\": {\"pact-specification\": {\"version\": \"3.0.0\"},\"pact-jvm\": {\"version\": \"3.2.10\"}}}");
         return sb.toString();
     }
+
+    public static MvcResult mvcResult(MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        return new MvcResult() {
+            @Override
+            public MockHttpServletRequest getRequest() {
+                return request;
+            }
+
+            @Override
+            public MockHttpServletResponse getResponse() {
+                return response;
+            }
+
+            @Override
+            public Object getHandler() {
+                return null;
+            }
+
+            @Override
+            public HandlerInterceptor[] getInterceptors() {
+                return new HandlerInterceptor[0];
+            }
+
+            @Override
+            public ModelAndView getModelAndView() {
+                return null;
+            }
+
+            @Override
+            public Exception getResolvedException() {
+                return null;
+            }
+
+            @Override
+            public FlashMap getFlashMap() {
+                return null;
+            }
+
+            @Override
+            public Object getAsyncResult() {
+                return null;
+            }
+
+            @Override
+            public Object getAsyncResult(long timeToWait) {
+                return null;
+            }
+        };
+    }
 }